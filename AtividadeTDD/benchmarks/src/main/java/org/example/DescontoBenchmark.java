@@ -0,0 +1,97 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desconto de uma coluna de preços: o if/else original contra a tabela de faixas,
+ * valor a valor e em lote. Os preços são aleatórios (semente fixa), então as faixas
+ * se alternam sem padrão e o preditor de desvios não ajuda o if/else.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DescontoBenchmark {
+
+    @Param({"1000", "100000"})
+    int precos;
+
+    /** Número de faixas da tabela: 3 é a regra original, 16 uma tabela de preços maior. */
+    @Param({"3", "16"})
+    int faixas;
+
+    double[] entrada;
+    double[] saida;
+    CalculadoraDeDescontos calculadora;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        entrada = new double[precos];
+        for (int i = 0; i < precos; i++) entrada[i] = Math.round(r.nextDouble() * 1000.0 * 100) / 100.0;
+        saida = new double[precos];
+
+        if (faixas == 3) {
+            calculadora = new CalculadoraDeDescontos();
+        } else {
+            double[] limites = new double[faixas];
+            double[] taxas = new double[faixas];
+            for (int i = 0; i < faixas; i++) {
+                limites[i] = i * (1000.0 / faixas);
+                taxas[i] = i * 0.01;
+            }
+            calculadora = new CalculadoraDeDescontos(limites, taxas);
+        }
+    }
+
+    /** Regra original (só faz sentido com 3 faixas; com 16 serve de piso). */
+    @Benchmark
+    public double[] ifElse() {
+        double[] in = entrada;
+        double[] out = saida;
+        for (int i = 0; i < in.length; i++) out[i] = ifElse(in[i]);
+        return out;
+    }
+
+    @Benchmark
+    public double[] tabelaPorValor() {
+        double[] in = entrada;
+        double[] out = saida;
+        for (int i = 0; i < in.length; i++) out[i] = calculadora.calcular(in[i]);
+        return out;
+    }
+
+    @Benchmark
+    public double[] tabelaEmLote() {
+        calculadora.calcular(entrada, saida);
+        return saida;
+    }
+
+    private static double ifElse(double valorCompra) {
+        if (valorCompra < 0) {
+            throw new IllegalArgumentException("Valor da compra não pode ser negativo.");
+        }
+        if (valorCompra < 100.0) {
+            return 0.0;
+        } else if (valorCompra <= 500.0) {
+            return valorCompra * 0.05;
+        } else {
+            return valorCompra * 0.10;
+        }
+    }
+}
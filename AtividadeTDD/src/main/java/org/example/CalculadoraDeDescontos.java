@@ -1,18 +1,89 @@
 package org.example;
 
+/**
+ * Desconto por faixas de valor de compra: cada faixa começa num limite (inclusive) e
+ * aplica uma taxa sobre o valor inteiro.
+ *
+ * As faixas ficam em dois arrays primitivos ordenados e a faixa de um valor é achada por
+ * busca binária. A tabela padrão é a regra original: até 100 sem desconto, de 100 a 500
+ * (inclusive) 5%, acima de 500 10%.
+ */
 public class CalculadoraDeDescontos {
 
+    private static final double[] LIMITES_PADRAO = {0.0, 100.0, Math.nextUp(500.0)};
+    private static final double[] TAXAS_PADRAO = {0.0, 0.05, 0.10};
+
+    private final double[] limites;
+    private final double[] taxas;
+
+    public CalculadoraDeDescontos() {
+        this(LIMITES_PADRAO, TAXAS_PADRAO);
+    }
+
+    /**
+     * @param limites início de cada faixa, em ordem estritamente crescente, começando em 0
+     * @param taxas   taxa de cada faixa, entre 0 e 1
+     */
+    public CalculadoraDeDescontos(double[] limites, double[] taxas) {
+        if (limites.length == 0 || limites.length != taxas.length) {
+            throw new IllegalArgumentException("Limites e taxas devem ter o mesmo tamanho, maior que zero.");
+        }
+        if (limites[0] != 0.0) {
+            throw new IllegalArgumentException("A primeira faixa deve começar em 0.");
+        }
+        for (int i = 0; i < limites.length; i++) {
+            if (i > 0 && !(limites[i] > limites[i - 1]) || Double.isInfinite(limites[i])) {
+                throw new IllegalArgumentException("Limites devem ser finitos e estritamente crescentes.");
+            }
+            if (!(taxas[i] >= 0.0 && taxas[i] <= 1.0)) {
+                throw new IllegalArgumentException("Taxa fora de [0, 1]: " + taxas[i]);
+            }
+        }
+        this.limites = limites.clone();
+        this.taxas = taxas.clone();
+    }
+
     public double calcular(double valorCompra) {
         if (valorCompra < 0) {
             throw new IllegalArgumentException("Valor da compra não pode ser negativo.");
         }
+        return valorCompra * taxas[faixa(limites, valorCompra)];
+    }
+
+    /**
+     * Calcula o desconto de uma coluna inteira de valores numa passada, gravando em
+     * {@code out[i]} o desconto de {@code in[i]}. Se algum valor for negativo, lança
+     * exceção e as posições seguintes de {@code out} ficam como estavam.
+     */
+    public void calcular(double[] in, double[] out) {
+        if (out.length < in.length) {
+            throw new IllegalArgumentException("Array de saída menor que o de entrada.");
+        }
+        final double[] l = limites;
+        final double[] t = taxas;
+        for (int i = 0; i < in.length; i++) {
+            double v = in[i];
+            if (v < 0) {
+                throw new IllegalArgumentException("Valor da compra não pode ser negativo (posição " + i + ").");
+            }
+            out[i] = v * t[faixa(l, v)];
+        }
+    }
 
-        if (valorCompra < 100.0) {
-            return 0.0;
-        } else if (valorCompra <= 500.0) {
-            return valorCompra * 0.05;
-        } else {
-            return valorCompra * 0.10;
+    /**
+     * Índice da última faixa cujo limite é {@code <= valor}. Busca binária sem desvio
+     * dependente do valor: o número de passos só depende do tamanho da tabela e a escolha
+     * de cada passo vira um move condicional, o que evita erros de predição com preços
+     * aleatórios. NaN cai na primeira faixa e o desconto continua NaN, como na regra original.
+     */
+    private static int faixa(double[] limites, double valor) {
+        int base = 0;
+        int n = limites.length;
+        while (n > 1) {
+            int metade = n >>> 1;
+            base = limites[base + metade] <= valor ? base + metade : base;
+            n -= metade;
         }
+        return base;
     }
-}
\ No newline at end of file
+}
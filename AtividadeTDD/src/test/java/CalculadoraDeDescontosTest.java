@@ -28,4 +28,68 @@ public class CalculadoraDeDescontosTest {
     public void deveLancarExcecaoParaValorNegativo() {
         assertThrows(IllegalArgumentException.class, () -> calc.calcular(-50.0));
     }
+
+    @Test
+    public void deveManterOsLimitesDaRegraOriginal() {
+        assertEquals(0.0, calc.calcular(99.99), 0.001);
+        assertEquals(5.0, calc.calcular(100.0), 0.001);
+        assertEquals(25.0, calc.calcular(500.0), 0.001);
+        assertEquals(50.001, calc.calcular(500.01), 0.001);
+        assertEquals(0.0, calc.calcular(0.0), 0.001);
+    }
+
+    @Test
+    public void deveUsarTabelaDeFaixasConfigurada() {
+        CalculadoraDeDescontos tabela = new CalculadoraDeDescontos(
+                new double[]{0.0, 50.0, 200.0, 1000.0},
+                new double[]{0.0, 0.02, 0.07, 0.15});
+
+        assertEquals(0.0, tabela.calcular(49.0), 0.001);
+        assertEquals(1.0, tabela.calcular(50.0), 0.001);
+        assertEquals(14.0, tabela.calcular(200.0), 0.001);
+        assertEquals(300.0, tabela.calcular(2000.0), 0.001);
+    }
+
+    @Test
+    public void deveRecusarTabelaInvalida() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CalculadoraDeDescontos(new double[]{0.0, 100.0}, new double[]{0.0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CalculadoraDeDescontos(new double[]{10.0}, new double[]{0.1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CalculadoraDeDescontos(new double[]{0.0, 100.0, 100.0}, new double[]{0.0, 0.05, 0.1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CalculadoraDeDescontos(new double[]{0.0, 100.0}, new double[]{0.0, 1.5}));
+    }
+
+    @Test
+    public void calculoEmLoteDeveIgualarOCalculoUnitario() {
+        java.util.Random r = new java.util.Random(42);
+        double[] valores = new double[10_000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = r.nextInt(4) == 0 ? new double[]{0.0, 100.0, 500.0, Math.nextUp(500.0)}[r.nextInt(4)]
+                    : Math.round(r.nextDouble() * 1500.0 * 100) / 100.0;
+        }
+        double[] descontos = new double[valores.length];
+
+        calc.calcular(valores, descontos);
+
+        for (int i = 0; i < valores.length; i++) {
+            assertEquals(calc.calcular(valores[i]), descontos[i], 0.0, "posição " + i);
+            assertEquals(regraOriginal(valores[i]), descontos[i], 0.0, "posição " + i);
+        }
+    }
+
+    // if/else que a tabela padrão substitui
+    private static double regraOriginal(double v) {
+        if (v < 100.0) return 0.0;
+        if (v <= 500.0) return v * 0.05;
+        return v * 0.10;
+    }
+
+    @Test
+    public void calculoEmLoteDeveLancarExcecaoParaValorNegativo() {
+        assertThrows(IllegalArgumentException.class,
+                () -> calc.calcular(new double[]{10.0, -1.0}, new double[2]));
+    }
 }
@@ -0,0 +1,159 @@
+package org.example;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Roda os benchmarks com o profiler de GC e compara com a baseline salva.
+ *
+ * Uso: {@code java -jar target/benchmarks.jar [--salvar-baseline] [--baseline=arquivo]
+ * [--tolerancia=0.10] [regex...]}
+ *
+ * Sai com código 1 quando algum benchmark fica mais lento ou aloca mais que a
+ * baseline além da tolerância.
+ */
+public class BenchmarkMain {
+
+    private static final String ALOCACAO = "gc.alloc.rate.norm";
+    private static final String CABECALHO = "benchmark;params;score;erro;unidade;bytesPorOp";
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path baseline = Path.of("baseline", "checkout.csv");
+        Path atual = Path.of("target", "jmh-atual.csv");
+        double tolerancia = 0.10;
+        boolean salvarBaseline = false;
+        List<String> filtros = new ArrayList<>();
+
+        for (String a : args) {
+            if (a.equals("--salvar-baseline")) salvarBaseline = true;
+            else if (a.startsWith("--baseline=")) baseline = Path.of(a.substring("--baseline=".length()));
+            else if (a.startsWith("--tolerancia=")) tolerancia = Double.parseDouble(a.substring("--tolerancia=".length()));
+            else filtros.add(a);
+        }
+        if (filtros.isEmpty()) filtros.add("org\\.example\\.checkout\\..*Benchmark");
+
+        ChainedOptionsBuilder opts = new OptionsBuilder().addProfiler(GCProfiler.class);
+        for (String f : filtros) opts.include(f);
+        Collection<RunResult> resultados = new Runner(opts.build()).run();
+
+        Map<String, Linha> linhas = new LinkedHashMap<>();
+        for (RunResult r : resultados) {
+            Linha l = Linha.de(r);
+            linhas.put(l.chave(), l);
+        }
+        escrever(atual, linhas.values());
+        System.out.println("Resultados em " + atual.toAbsolutePath());
+
+        if (salvarBaseline) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            escrever(baseline, linhas.values());
+            System.out.println("Baseline salva em " + baseline.toAbsolutePath());
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("Sem baseline em " + baseline + "; use --salvar-baseline para criar.");
+            return;
+        }
+        if (comparar(ler(baseline), linhas, tolerancia) > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int comparar(Map<String, Linha> base, Map<String, Linha> atual, double tolerancia) {
+        int regressoes = 0;
+        System.out.printf(Locale.ROOT, "%n%-55s %12s %12s %8s %10s %10s%n",
+                "benchmark", "baseline", "atual", "delta", "B/op base", "B/op atual");
+        for (Linha a : atual.values()) {
+            Linha b = base.get(a.chave());
+            if (b == null) {
+                System.out.printf(Locale.ROOT, "%-55s %12s %12.2f %8s%n", a.chave(), "-", a.score, "novo");
+                continue;
+            }
+            double delta = (a.score - b.score) / b.score;
+            boolean lento = delta > tolerancia && a.score - a.erro > b.score + b.erro;
+            // poucos bytes de diferença são ruído do profiler
+            boolean aloca = a.bytesPorOp > b.bytesPorOp * (1 + tolerancia) && a.bytesPorOp - b.bytesPorOp > 16;
+            if (lento || aloca) regressoes++;
+            System.out.printf(Locale.ROOT, "%-55s %12.2f %12.2f %+7.1f%% %10.1f %10.1f%s%n",
+                    a.chave(), b.score, a.score, delta * 100, b.bytesPorOp, a.bytesPorOp,
+                    lento || aloca ? "  <-- REGRESSAO" : "");
+        }
+        System.out.println(regressoes == 0 ? "Nenhuma regressão." : regressoes + " regressão(ões) acima de "
+                + Math.round(tolerancia * 100) + "%.");
+        return regressoes;
+    }
+
+    private static void escrever(Path arquivo, Collection<Linha> linhas) throws IOException {
+        List<String> out = new ArrayList<>();
+        out.add("# " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version")
+                + ", " + Runtime.getRuntime().availableProcessors() + " cpus");
+        out.add(CABECALHO);
+        for (Linha l : linhas) out.add(l.toCsv());
+        Files.createDirectories(arquivo.toAbsolutePath().getParent());
+        Files.write(arquivo, out, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Linha> ler(Path arquivo) throws IOException {
+        Map<String, Linha> linhas = new LinkedHashMap<>();
+        for (String s : Files.readAllLines(arquivo, StandardCharsets.UTF_8)) {
+            if (s.isBlank() || s.startsWith("#") || s.equals(CABECALHO)) continue;
+            Linha l = Linha.deCsv(s);
+            linhas.put(l.chave(), l);
+        }
+        return linhas;
+    }
+
+    private record Linha(String benchmark, String params, double score, double erro, String unidade, double bytesPorOp) {
+
+        static Linha de(RunResult r) {
+            BenchmarkParams p = r.getParams();
+            StringBuilder params = new StringBuilder();
+            for (String k : p.getParamsKeys()) {
+                if (params.length() > 0) params.append(',');
+                params.append(k).append('=').append(p.getParam(k));
+            }
+            Result<?> primario = r.getPrimaryResult();
+            Result<?> aloc = r.getSecondaryResults().get(ALOCACAO);
+            double erro = primario.getScoreError();
+            return new Linha(p.getBenchmark(), params.toString(), primario.getScore(),
+                    Double.isNaN(erro) ? 0.0 : erro, primario.getScoreUnit(),
+                    aloc == null ? 0.0 : aloc.getScore());
+        }
+
+        static Linha deCsv(String s) {
+            String[] c = s.split(";", -1);
+            return new Linha(c[0], c[1], Double.parseDouble(c[2]), Double.parseDouble(c[3]), c[4],
+                    Double.parseDouble(c[5]));
+        }
+
+        String chave() {
+            String nome = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            return params.isEmpty() ? nome : nome + "[" + params + "]";
+        }
+
+        String toCsv() {
+            return String.join(";", benchmark, params,
+                    String.format(Locale.ROOT, "%.3f", score),
+                    String.format(Locale.ROOT, "%.3f", erro),
+                    unidade,
+                    String.format(Locale.ROOT, "%.1f", bytesPorOp));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.checkout;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Gera carrinhos sintéticos, com semente fixa, para os benchmarks.
+ */
+final class Carrinhos {
+    private Carrinhos() {}
+
+    static final LocalDate HOJE = LocalDate.of(2025, 1, 10);
+
+    private static final String[] CATEGORIAS = {"BOOK", "ELETRONICO", "ROUPA", "CASA", "BRINQUEDO"};
+    private static final String[] REGIOES = {"SUL", "SUDESTE", "NORTE", "NORDESTE", "CENTRO-OESTE"};
+    private static final String[] CUPONS = {null, "DESC10", "DESC20", "FRETEGRATIS", "desc10 ", "INVALIDO"};
+
+    static CheckoutRequest[] gerar(int quantidade, int itensPorCarrinho, long semente) {
+        Random rnd = new Random(semente);
+        CheckoutRequest[] carrinhos = new CheckoutRequest[quantidade];
+        for (int c = 0; c < quantidade; c++) {
+            List<Item> itens = new ArrayList<>(itensPorCarrinho);
+            for (int i = 0; i < itensPorCarrinho; i++) {
+                itens.add(new Item(CATEGORIAS[rnd.nextInt(CATEGORIAS.length)],
+                        (100 + rnd.nextInt(50_000)) / 100.0, 1 + rnd.nextInt(3)));
+            }
+            carrinhos[c] = new CheckoutRequest(itens,
+                    CustomerTier.values()[rnd.nextInt(CustomerTier.values().length)],
+                    rnd.nextInt(10) == 0,
+                    REGIOES[rnd.nextInt(REGIOES.length)],
+                    rnd.nextInt(120) / 10.0,
+                    cupom(rnd),
+                    HOJE,
+                    rnd.nextBoolean() ? null : HOJE.plusDays(rnd.nextInt(11) - 5));
+        }
+        return carrinhos;
+    }
+
+    static String cupom(Random rnd) {
+        return CUPONS[rnd.nextInt(CUPONS.length)];
+    }
+
+    static String regiao(Random rnd) {
+        return REGIOES[rnd.nextInt(REGIOES.length)];
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.checkout;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckoutBenchmark {
+
+    /** Tamanhos de carrinho: unitário, típico, grande e B2B. */
+    @Param({"1", "10", "100", "1000"})
+    public int itens;
+
+    private static final int CARRINHOS = 64;
+
+    private CheckoutService service;
+    private CheckoutRequest[] carrinhos;
+    private PrimitiveCart[] primitivos;
+    private int proximo;
+
+    @Setup
+    public void setup() {
+        service = new CheckoutService(new CouponService(), new ShippingService());
+        carrinhos = Carrinhos.gerar(CARRINHOS, itens, 42L);
+        primitivos = new PrimitiveCart[CARRINHOS];
+        for (int i = 0; i < CARRINHOS; i++) primitivos[i] = PrimitiveCart.of(carrinhos[i].itens, service.categorias());
+    }
+
+    @Benchmark
+    public CheckoutResult checkout() {
+        CheckoutRequest c = carrinhos[proximo++ & (CARRINHOS - 1)];
+        return service.checkout(c.itens, c.tier, c.primeiraCompra, c.region, c.peso,
+                c.couponCode, c.today, c.couponExpiryInclusive);
+    }
+
+    @Benchmark
+    public CheckoutResult checkoutPrimitivo() {
+        int i = proximo++ & (CARRINHOS - 1);
+        CheckoutRequest c = carrinhos[i];
+        return service.checkout(primitivos[i], c.tier, c.primeiraCompra, c.region, c.peso,
+                c.couponCode, c.today, c.couponExpiryInclusive);
+    }
+}
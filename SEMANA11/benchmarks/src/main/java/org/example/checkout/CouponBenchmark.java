@@ -0,0 +1,40 @@
+package org.example.checkout;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CouponBenchmark {
+
+    private static final int AMOSTRAS = 1024;
+
+    private CouponService service;
+    private String[] codigos;
+    private double[] subtotais;
+    private int proximo;
+
+    @Setup
+    public void setup() {
+        service = new CouponService();
+        Random rnd = new Random(42L);
+        codigos = new String[AMOSTRAS];
+        subtotais = new double[AMOSTRAS];
+        for (int i = 0; i < AMOSTRAS; i++) {
+            codigos[i] = Carrinhos.cupom(rnd);
+            subtotais[i] = rnd.nextInt(30_000) / 100.0;
+        }
+    }
+
+    @Benchmark
+    public CouponResult evaluate() {
+        int i = proximo++ & (AMOSTRAS - 1);
+        return service.evaluate(codigos[i], Carrinhos.HOJE, null, subtotais[i]);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.checkout;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private static final int AMOSTRAS = 1024;
+
+    private double[] valores;
+    private int proximo;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42L);
+        valores = new double[AMOSTRAS];
+        for (int i = 0; i < AMOSTRAS; i++) {
+            // produtos e descontos típicos do checkout: muitas casas decimais
+            valores[i] = rnd.nextInt(50_000) / 100.0 * (rnd.nextInt(4) * 0.05 + 0.12);
+        }
+    }
+
+    @Benchmark
+    public double round2() {
+        return Money.round2(valores[proximo++ & (AMOSTRAS - 1)]);
+    }
+}
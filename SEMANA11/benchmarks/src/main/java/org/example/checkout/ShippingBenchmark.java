@@ -0,0 +1,43 @@
+package org.example.checkout;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShippingBenchmark {
+
+    private static final int AMOSTRAS = 1024;
+
+    private ShippingService service;
+    private String[] regioes;
+    private double[] pesos;
+    private double[] subtotais;
+    private int proximo;
+
+    @Setup
+    public void setup() {
+        service = new ShippingService();
+        Random rnd = new Random(42L);
+        regioes = new String[AMOSTRAS];
+        pesos = new double[AMOSTRAS];
+        subtotais = new double[AMOSTRAS];
+        for (int i = 0; i < AMOSTRAS; i++) {
+            regioes[i] = Carrinhos.regiao(rnd);
+            pesos[i] = rnd.nextInt(120) / 10.0;
+            subtotais[i] = rnd.nextInt(40_000) / 100.0;
+        }
+    }
+
+    @Benchmark
+    public double calculate() {
+        int i = proximo++ & (AMOSTRAS - 1);
+        return service.calculate(regioes[i], pesos[i], subtotais[i], false);
+    }
+}
@@ -0,0 +1,155 @@
+package org.example;
+
+import org.example.checkout.BatchCheckoutService;
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CheckoutResult;
+import org.example.checkout.CheckoutService;
+import org.example.checkout.CouponService;
+import org.example.checkout.ShippingService;
+import org.example.checkout.io.CartEntry;
+import org.example.checkout.io.CartReader;
+import org.example.checkout.io.CheckoutResultWriter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Precifica um arquivo de carrinhos (JSONL ou CSV) em lotes de tamanho fixo,
+ * gravando cada lote assim que fica pronto: a memória não cresce com o arquivo.
+ * Carrinhos que não puderam ser lidos ou precificados saem como {@code id;ERRO;mensagem},
+ * na mesma posição, e o resto do arquivo é processado normalmente.
+ *
+ * Uso: {@code CartPricingMain entrada.(jsonl|csv) [saida.csv] [--lote=N] [--hoje=AAAA-MM-DD]}
+ */
+public class CartPricingMain {
+
+    static final int LOTE_PADRAO = 4096;
+    static final String USO = "uso: CartPricingMain entrada.(jsonl|csv) [saida.csv] [--lote=N] [--hoje=AAAA-MM-DD]";
+
+    private final BatchCheckoutService batch;
+    private final CheckoutService service;
+    private long carrinhos;
+    private long erros;
+
+    CartPricingMain(CouponService coupons, ShippingService shipping) {
+        this.batch = new BatchCheckoutService(coupons, shipping);
+        this.service = new CheckoutService(coupons, shipping);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path entrada = null;
+        Path saida = null;
+        int lote = LOTE_PADRAO;
+        LocalDate hoje = LocalDate.now();
+        for (String a : args) {
+            if (a.startsWith("--lote=")) lote = lote(a.substring("--lote=".length()));
+            else if (a.startsWith("--hoje=")) hoje = hoje(a.substring("--hoje=".length()));
+            else if (entrada == null) entrada = Path.of(a);
+            else saida = Path.of(a);
+        }
+        if (entrada == null || lote <= 0 || hoje == null) {
+            System.err.println(USO);
+            System.exit(2);
+        }
+
+        CartPricingMain app = new CartPricingMain(new CouponService(), new ShippingService());
+        long inicio = System.nanoTime();
+        try (CartReader in = CartReader.open(entrada, hoje);
+             Writer w = saida == null
+                     ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                     : Files.newBufferedWriter(saida, StandardCharsets.UTF_8);
+             CheckoutResultWriter out = new CheckoutResultWriter(w)) {
+            app.run(in, out, lote);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.err.printf(Locale.ROOT, "%d carrinhos (%d com erro) em %.2f s: %.0f carrinhos/s%n",
+                app.carrinhos, app.erros, segundos, app.carrinhos / Math.max(segundos, 1e-9));
+    }
+
+    /** Tamanho de lote de {@code --lote}; 0 se não for um inteiro positivo. */
+    static int lote(String valor) {
+        try {
+            return Math.max(0, Integer.parseInt(valor.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** Data de {@code --hoje}; null se inválida. */
+    static LocalDate hoje(String valor) {
+        try {
+            return LocalDate.parse(valor.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    void run(CartReader in, CheckoutResultWriter out, int tamanhoLote) throws IOException {
+        List<CartEntry> lote = new ArrayList<>(tamanhoLote);
+        List<CheckoutRequest> requests = new ArrayList<>(tamanhoLote);
+        CartEntry e;
+        while ((e = in.next()) != null) {
+            lote.add(e);
+            if (lote.size() == tamanhoLote) {
+                processar(lote, requests, out);
+            }
+        }
+        processar(lote, requests, out);
+        out.flush();
+    }
+
+    private void processar(List<CartEntry> lote, List<CheckoutRequest> requests, CheckoutResultWriter out) throws IOException {
+        if (lote.isEmpty()) return;
+        requests.clear();
+        for (CartEntry e : lote) {
+            if (e.valido()) requests.add(e.request);
+        }
+        List<CheckoutResult> resultados;
+        try {
+            resultados = batch.checkoutAll(requests);
+        } catch (RuntimeException ex) {
+            resultados = null;
+        }
+        int r = 0;
+        for (int i = 0; i < lote.size(); i++) {
+            CartEntry e = lote.get(i);
+            if (!e.valido()) {
+                erros++;
+                out.writeError(e.id, e.erro);
+                continue;
+            }
+            if (resultados != null) {
+                out.write(e.id, resultados.get(r++));
+                continue;
+            }
+            // algum carrinho do lote é inválido: refaz um a um para isolar o erro
+            CheckoutRequest c = e.request;
+            try {
+                out.write(e.id, service.checkout(c.itens, c.tier, c.primeiraCompra, c.region, c.peso,
+                        c.couponCode, c.today, c.couponExpiryInclusive));
+            } catch (RuntimeException ex) {
+                erros++;
+                out.writeError(e.id, String.valueOf(ex.getMessage()));
+            }
+        }
+        carrinhos += lote.size();
+        lote.clear();
+    }
+
+    long carrinhos() {
+        return carrinhos;
+    }
+
+    long erros() {
+        return erros;
+    }
+}
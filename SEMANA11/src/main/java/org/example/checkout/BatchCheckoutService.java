@@ -0,0 +1,214 @@
+package org.example.checkout;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Precifica carrinhos em lote, com as mesmas regras de {@link CheckoutService#checkout}.
+ *
+ * O trabalho é dividido entre os núcleos via parallel streams, sempre no pool informado
+ * (o common pool, se nenhum for). Dentro de um lote, a resolução do cupom (código e datas) e a da
+ * região de frete são feitas uma vez e reaproveitadas; o que depende do subtotal e do
+ * peso de cada carrinho é calculado a cada vez. Os memos têm no máximo
+ * {@value #LIMITE_MEMO} entradas e recomeçam vazios quando enchem ou quando a tabela
+ * de cupons/fretes é recarregada.
+ */
+public class BatchCheckoutService {
+
+    /** Entradas de cada memo antes de ser descartado; códigos e regiões vêm livres da entrada. */
+    static final int LIMITE_MEMO = 1024;
+    /** Carrinhos lidos de uma vez da fonte de {@link #checkoutAll(Stream)} e precificados em paralelo. */
+    static final int BLOCO_STREAM = 1024;
+
+    private final CouponService couponService;
+    private final ShippingService shippingService;
+    private final ForkJoinPool pool;
+    private final CategoryRegistry categorias;
+
+    public BatchCheckoutService(CouponService couponService, ShippingService shippingService) {
+        this(couponService, shippingService, ForkJoinPool.commonPool());
+    }
+
+    public BatchCheckoutService(CouponService couponService, ShippingService shippingService, ForkJoinPool pool) {
+        this(couponService, shippingService, pool, CategoryRegistry.padrao());
+    }
+
+    /** Lote com as categorias de {@code categorias}, normalmente as de um {@link CheckoutService#categorias()}. */
+    public BatchCheckoutService(CouponService couponService, ShippingService shippingService, ForkJoinPool pool,
+                                CategoryRegistry categorias) {
+        this.couponService = Objects.requireNonNull(couponService);
+        this.shippingService = Objects.requireNonNull(shippingService);
+        this.pool = Objects.requireNonNull(pool);
+        this.categorias = Objects.requireNonNull(categorias, "categorias");
+    }
+
+    /**
+     * Precifica todos os carrinhos; o i-ésimo resultado corresponde ao i-ésimo carrinho.
+     */
+    public List<CheckoutResult> checkoutAll(Collection<CheckoutRequest> carrinhos) {
+        Objects.requireNonNull(carrinhos, "carrinhos");
+        return precificar(newBatchService(), carrinhos);
+    }
+
+    /**
+     * Versão preguiçosa para fontes grandes: a fonte é lida em blocos de {@value #BLOCO_STREAM}
+     * carrinhos, cada bloco é precificado no pool do serviço quando o consumidor chega a ele,
+     * e os resultados saem na ordem de encontro. Os memos de cupom/frete (limitados) vivem
+     * enquanto o stream for consumido; fechar o stream devolvido fecha a fonte.
+     */
+    public Stream<CheckoutResult> checkoutAll(Stream<CheckoutRequest> carrinhos) {
+        Objects.requireNonNull(carrinhos, "carrinhos");
+        CheckoutService lote = newBatchService();
+        Iterator<CheckoutRequest> fonte = carrinhos.sequential().iterator();
+        Iterator<List<CheckoutResult>> blocos = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return fonte.hasNext();
+            }
+
+            @Override
+            public List<CheckoutResult> next() {
+                List<CheckoutRequest> bloco = new ArrayList<>(BLOCO_STREAM);
+                while (bloco.size() < BLOCO_STREAM && fonte.hasNext()) bloco.add(fonte.next());
+                return precificar(lote, bloco);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(blocos, Spliterator.ORDERED), false)
+                .flatMap(List::stream)
+                .onClose(carrinhos::close);
+    }
+
+    private List<CheckoutResult> precificar(CheckoutService lote, Collection<CheckoutRequest> carrinhos) {
+        return pool.submit(() -> carrinhos.parallelStream()
+                        .map(c -> checkout(lote, c))
+                        .toList())
+                .join();
+    }
+
+    private CheckoutService newBatchService() {
+        return new CheckoutService(new MemoCouponService(couponService), new MemoShippingService(shippingService),
+                null, categorias);
+    }
+
+    private static CheckoutResult checkout(CheckoutService service, CheckoutRequest c) {
+        return service.checkout(c.itens, c.tier, c.primeiraCompra, c.region, c.peso,
+                c.couponCode, c.today, c.couponExpiryInclusive);
+    }
+
+    /**
+     * Cupom resolvido e validado nas datas, por (código, hoje, validade): são esses que se
+     * repetem entre carrinhos. O subtotal, quase único por carrinho, fica fora da chave e é
+     * conferido a cada chamada. Subclasses de {@link CouponService} passam direto.
+     */
+    private static final class MemoCouponService extends CouponService {
+        private record Key(String code, LocalDate today, LocalDate expiryInclusive) {}
+
+        // por chave: NENHUM (fora da tabela), a rejeição da regra (fora das datas) ou o
+        // resultado aplicado, que ainda passa pelo subtotal mínimo
+        private record Memo(CouponTable tabela, Map<Key, CouponResult> regras) {}
+
+        private final CouponService delegate;
+        private final boolean memoriza;
+        private volatile Memo memo;
+
+        MemoCouponService(CouponService delegate) {
+            this.delegate = delegate;
+            this.memoriza = delegate.getClass() == CouponService.class;
+            this.memo = new Memo(delegate.tabela(), new ConcurrentHashMap<>());
+        }
+
+        @Override
+        public CouponResult evaluate(String code, LocalDate today, LocalDate expiryInclusive, double subtotal) {
+            if (!memoriza || code == null) return delegate.evaluate(code, today, expiryInclusive, subtotal);
+            Memo m = memo(delegate.tabela());
+            CouponResult r = m.regras.computeIfAbsent(new Key(code, today, expiryInclusive), k -> {
+                CouponRule regra = m.tabela.find(k.code);
+                if (regra == null) return CouponRule.NENHUM;
+                return regra.valido(k.today, k.expiryInclusive) ? regra.aplicado() : regra.rejeitado();
+            });
+            return r.aceito ? r.regra.aplicar(subtotal) : r;
+        }
+
+        // troca o mapa inteiro em vez de limpar: quem ainda usa o antigo não o repovoa
+        private Memo memo(CouponTable tabela) {
+            Memo m = memo;
+            if (m.tabela != tabela || m.regras.size() >= LIMITE_MEMO) {
+                m = new Memo(tabela, new ConcurrentHashMap<>());
+                memo = m;
+            }
+            return m;
+        }
+
+        @Override
+        CouponTable tabela() {
+            return delegate.tabela();
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+    }
+
+    /**
+     * Id da região por nome, resolvido uma vez por região; peso e subtotal mudam a cada
+     * carrinho e são aplicados a cada chamada, na mesma tabela em que a região foi resolvida.
+     * Subclasses de {@link ShippingService} passam direto.
+     */
+    private static final class MemoShippingService extends ShippingService {
+        private record Memo(ShippingTable tabela, Map<String, Integer> regioes) {}
+
+        private final ShippingService delegate;
+        private final boolean memoriza;
+        private volatile Memo memo;
+
+        MemoShippingService(ShippingService delegate) {
+            this.delegate = delegate;
+            this.memoriza = delegate.getClass() == ShippingService.class;
+            this.memo = new Memo(delegate.tabela(), new ConcurrentHashMap<>());
+        }
+
+        @Override
+        public double calculate(String region, double weight, double subtotal, boolean freeShipping) {
+            if (!memoriza || region == null) return delegate.calculate(region, weight, subtotal, freeShipping);
+            Memo m = memo(delegate.tabela());
+            if (weight < 0) throw new IllegalArgumentException("weight < 0");
+            return m.tabela.frete(m.regioes.computeIfAbsent(region, m.tabela::regionId), weight, subtotal, freeShipping);
+        }
+
+        @Override
+        ShippingTable tabela() {
+            return delegate.tabela();
+        }
+
+        @Override
+        public int regionId(String region) {
+            return delegate.regionId(region);
+        }
+
+        @Override
+        public double calculate(int regionId, double weight, double subtotal, boolean freeShipping) {
+            return delegate.calculate(regionId, weight, subtotal, freeShipping);
+        }
+
+        private Memo memo(ShippingTable tabela) {
+            Memo m = memo;
+            if (m.tabela != tabela || m.regioes.size() >= LIMITE_MEMO) {
+                m = new Memo(tabela, new ConcurrentHashMap<>());
+                memo = m;
+            }
+            return m;
+        }
+    }
+}
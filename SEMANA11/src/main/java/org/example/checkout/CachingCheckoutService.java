@@ -0,0 +1,235 @@
+package org.example.checkout;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link CheckoutService} que guarda os resultados de {@code checkout(List, ...)} num cache
+ * LRU limitado por tamanho e por tempo de vida.
+ *
+ * A chave é uma impressão do carrinho normalizada para o que de fato muda o preço:
+ * itens na ordem (preço, quantidade e se a categoria é isenta), tier, primeira compra,
+ * id da região na tabela de frete, peso e o cupom já resolvido na tabela. Datas só
+ * entram quando o cupom encontrado depende delas; cupons desconhecidos viram "sem cupom".
+ * Se os serviços de cupom/frete forem subclasses, código e região entram como vieram.
+ *
+ * Um reload das tabelas de cupom ou frete esvazia o cache na próxima chamada.
+ * O checkout de {@link PrimitiveCart} não passa pelo cache.
+ */
+public class CachingCheckoutService extends CheckoutService {
+
+    private final CouponService couponService;
+    private final ShippingService shippingService;
+    private final boolean normalizaCupom;
+    private final boolean normalizaRegiao;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<Chave, Entrada> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // tabelas em uso quando o cache foi preenchido; guardadas pelo lock do cache
+    private CouponTable tabelaCupons;
+    private ShippingTable tabelaFretes;
+
+    public CachingCheckoutService(CouponService couponService, ShippingService shippingService,
+                                  int capacidade, Duration ttl) {
+        this(couponService, shippingService, capacidade, ttl, Clock.systemUTC());
+    }
+
+    public CachingCheckoutService(CouponService couponService, ShippingService shippingService,
+                                  int capacidade, Duration ttl, Clock clock) {
+        super(couponService, shippingService);
+        if (capacidade <= 0) throw new IllegalArgumentException("capacidade <= 0");
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl deve ser positivo");
+        this.couponService = couponService;
+        this.shippingService = shippingService;
+        this.normalizaCupom = couponService.getClass() == CouponService.class;
+        this.normalizaRegiao = shippingService.getClass() == ShippingService.class;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Chave, Entrada> eldest) {
+                if (size() <= capacidade) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public CheckoutResult checkout(
+            List<Item> itens,
+            CustomerTier tier,
+            boolean primeiraCompra,
+            String region,
+            double peso,
+            String couponCode,
+            LocalDate today,
+            LocalDate couponExpiryInclusive
+    ) {
+        Objects.requireNonNull(itens, "itens");
+        Objects.requireNonNull(tier, "tier");
+        Objects.requireNonNull(today, "today");
+
+        CouponTable cupons = couponService.tabela();
+        ShippingTable fretes = shippingService.tabela();
+        Chave chave = chave(itens, tier, primeiraCompra, region, peso, couponCode, today,
+                couponExpiryInclusive, cupons, fretes);
+        long agora = clock.millis();
+
+        synchronized (cache) {
+            if (cupons != tabelaCupons || fretes != tabelaFretes) {
+                cache.clear();
+                tabelaCupons = cupons;
+                tabelaFretes = fretes;
+            }
+            Entrada e = cache.get(chave);
+            if (e != null) {
+                if (agora < e.expiraEm) {
+                    hits.increment();
+                    return e.resultado;
+                }
+                cache.remove(chave);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+
+        CheckoutResult r = super.checkout(itens, tier, primeiraCompra, region, peso,
+                couponCode, today, couponExpiryInclusive);
+        synchronized (cache) {
+            // não guarda resultado calculado com tabelas que já foram trocadas
+            if (cupons == tabelaCupons && fretes == tabelaFretes) {
+                cache.put(chave, new Entrada(r, agora + ttlMillis));
+            }
+        }
+        return r;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Entradas removidas por tamanho ou por expiração. */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void invalidar() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private Chave chave(List<Item> itens, CustomerTier tier, boolean primeiraCompra, String region,
+                        double peso, String couponCode, LocalDate today, LocalDate expiry,
+                        CouponTable cupons, ShippingTable fretes) {
+        CategoryRegistry categorias = categorias();
+        boolean[] isentas = categorias.isentas();
+        long[] linhas = new long[itens.size() * 2];
+        int k = 0;
+        for (Item i : itens) {
+            linhas[k++] = Double.doubleToLongBits(i.getPrecoUnitario());
+            linhas[k++] = (long) i.getQuantidade() << 1 | (i.isenta(categorias, isentas) ? 1 : 0);
+        }
+
+        String cupom = couponCode;
+        LocalDate hoje = today;
+        LocalDate validade = expiry;
+        if (normalizaCupom) {
+            CouponRule regra = cupons.find(couponCode);
+            if (regra == null) {
+                cupom = null;
+                hoje = null;
+                validade = null;
+            } else {
+                cupom = regra.codigo;
+                if (!regra.usaValidadeDoCheckout) validade = null;
+                if (regra.validoDe == null && regra.validoAte == null && validade == null) hoje = null;
+            }
+        }
+        int regiao = normalizaRegiao ? fretes.regionId(region) : 0;
+        String nomeRegiao = normalizaRegiao ? null : region;
+
+        return new Chave(linhas, tier, primeiraCompra, regiao, nomeRegiao,
+                Double.doubleToLongBits(peso), cupom, hoje, validade);
+    }
+
+    private record Entrada(CheckoutResult resultado, long expiraEm) {}
+
+    private static final class Chave {
+        private final long[] linhas;
+        private final CustomerTier tier;
+        private final boolean primeiraCompra;
+        private final int regiao;
+        private final String nomeRegiao;
+        private final long peso;
+        private final String cupom;
+        private final LocalDate hoje;
+        private final LocalDate validade;
+        private final int hash;
+
+        Chave(long[] linhas, CustomerTier tier, boolean primeiraCompra, int regiao, String nomeRegiao,
+              long peso, String cupom, LocalDate hoje, LocalDate validade) {
+            this.linhas = linhas;
+            this.tier = tier;
+            this.primeiraCompra = primeiraCompra;
+            this.regiao = regiao;
+            this.nomeRegiao = nomeRegiao;
+            this.peso = peso;
+            this.cupom = cupom;
+            this.hoje = hoje;
+            this.validade = validade;
+            int h = Arrays.hashCode(linhas);
+            h = 31 * h + tier.ordinal();
+            h = 31 * h + (primeiraCompra ? 1 : 0);
+            h = 31 * h + regiao;
+            h = 31 * h + Objects.hashCode(nomeRegiao);
+            h = 31 * h + Long.hashCode(peso);
+            h = 31 * h + Objects.hashCode(cupom);
+            h = 31 * h + Objects.hashCode(hoje);
+            h = 31 * h + Objects.hashCode(validade);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Chave c
+                    && hash == c.hash
+                    && tier == c.tier
+                    && primeiraCompra == c.primeiraCompra
+                    && regiao == c.regiao
+                    && peso == c.peso
+                    && Objects.equals(nomeRegiao, c.nomeRegiao)
+                    && Objects.equals(cupom, c.cupom)
+                    && Objects.equals(hoje, c.hoje)
+                    && Objects.equals(validade, c.validade)
+                    && Arrays.equals(linhas, c.linhas);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
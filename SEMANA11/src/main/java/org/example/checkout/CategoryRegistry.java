@@ -0,0 +1,127 @@
+package org.example.checkout;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de categorias de item: cada nome recebe um id inteiro pequeno quando o primeiro
+ * {@link Item} com ele é criado, e a isenção de imposto fica numa tabela de flags indexada
+ * por esse id. O checkout só lê a tabela; consultar uma categoria nunca a registra.
+ *
+ * Nomes são comparados como em {@link String#equalsIgnoreCase} (sem trim). Cada instância
+ * começa só com BOOK isenta. Itens e serviços usam o {@link #padrao() registro padrão},
+ * a menos que recebam outro. Como as categorias vêm livres dos arquivos de entrada, só as
+ * primeiras {@value #LIMITE} ganham id ao criar itens; as seguintes ficam em {@link #OUTRAS}
+ * (tributável) e são resolvidas pelo nome a cada checkout. {@link #registrarIsenta} não tem
+ * limite, e a isenção vale para itens já criados, independentemente da ordem.
+ */
+public final class CategoryRegistry {
+
+    /** Id das categorias sem id próprio; nunca é isenta. */
+    public static final int OUTRAS = 0;
+    /** Id de BOOK, isenta de imposto. */
+    public static final int BOOK = 1;
+    /** Categorias registradas ao criar itens, além de BOOK. */
+    public static final int LIMITE = 1024;
+
+    private static final CategoryRegistry PADRAO = new CategoryRegistry();
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    // capacidade dobra ao encher; posições além de size ainda não foram publicadas
+    private volatile String[] nomes = new String[8];
+    private volatile boolean[] isentas = new boolean[8];
+    private int size = 1;
+
+    public CategoryRegistry() {
+        registrarIsenta("BOOK");
+    }
+
+    /** Registro compartilhado pelos itens e serviços criados sem um registro explícito. */
+    public static CategoryRegistry padrao() {
+        return PADRAO;
+    }
+
+    /**
+     * Id da categoria, registrando-a como tributável se ainda não existir e houver espaço;
+     * {@link #OUTRAS} acima do limite. Usado ao criar itens.
+     */
+    public int id(String categoria) {
+        Integer id = ids.get(categoria);
+        if (id != null) return id;
+        return registrar(categoria, false);
+    }
+
+    /** Id da categoria se já registrada, senão {@link #OUTRAS}; não registra nada. */
+    public int buscar(String categoria) {
+        Integer id = ids.get(categoria);
+        if (id == null) id = ids.get(chave(categoria));
+        return id == null ? OUTRAS : id;
+    }
+
+    /** Torna a categoria isenta de imposto, registrando-a se ainda não existir. */
+    public synchronized int registrarIsenta(String categoria) {
+        Integer existente = ids.get(categoria);
+        int id = existente != null ? existente : registrar(categoria, true);
+        if (!isentas[id]) {
+            // cópia em vez de escrita no lugar: quem já leu a tabela continua com uma versão consistente
+            boolean[] f = isentas.clone();
+            f[id] = true;
+            isentas = f;
+        }
+        return id;
+    }
+
+    public boolean isenta(int id) {
+        return isentas[id];
+    }
+
+    /** Isenção pelo nome, sem registrar a categoria. */
+    public boolean isenta(String categoria) {
+        return isentas[buscar(categoria)];
+    }
+
+    /** Tabela de flags atual, indexada por id; lida uma vez por checkout. */
+    boolean[] isentas() {
+        return isentas;
+    }
+
+    /** Nome da categoria como registrado pela primeira vez; null para {@link #OUTRAS}. */
+    public String nome(int id) {
+        return nomes[id];
+    }
+
+    /** Categorias registradas (sem contar {@link #OUTRAS}). */
+    public synchronized int size() {
+        return size - 1;
+    }
+
+    private synchronized int registrar(String categoria, boolean semLimite) {
+        String chave = chave(categoria);
+        Integer existente = ids.get(chave);
+        if (existente != null) {
+            // grafias diferentes da mesma categoria também viram chave, para o próximo get achar direto
+            if (ids.size() < 4 * LIMITE) ids.putIfAbsent(categoria, existente);
+            return existente;
+        }
+        if (!semLimite && size > BOOK + LIMITE) return OUTRAS;
+        int id = size;
+        if (id == nomes.length) {
+            // publica as flags antes dos nomes, e os dois antes de o id ficar visível pelo mapa
+            isentas = Arrays.copyOf(isentas, id * 2);
+            nomes = Arrays.copyOf(nomes, id * 2);
+        }
+        nomes[id] = categoria;
+        size = id + 1;
+        ids.put(chave, id);
+        ids.putIfAbsent(categoria, id);
+        return id;
+    }
+
+    // mesma dobra de caixa de equalsIgnoreCase, caractere a caractere
+    private static String chave(String s) {
+        char[] c = s.toCharArray();
+        for (int i = 0; i < c.length; i++) c[i] = Character.toLowerCase(Character.toUpperCase(c[i]));
+        return new String(c);
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.checkout;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tempos por etapa do checkout e contadores de cupom e do teto de desconto.
+ *
+ * Tudo é gravado em {@link LongAdder}s (sem lock; cada thread tende a cair numa
+ * célula própria), então vários {@link CheckoutService}s podem compartilhar uma
+ * instância. {@link #snapshot()} lê os valores de uma vez para exportação; a leitura
+ * não é atômica entre contadores, como em qualquer registro de métricas.
+ */
+public final class CheckoutMetrics {
+
+    public enum Etapa { SUBTOTAL, DESCONTO, CUPOM, IMPOSTO, FRETE }
+
+    /**
+     * APLICADO: o cupom mudou o preço (desconto ou frete grátis). SEM_EFEITO: o cupom foi
+     * aceito pela regra mas não mudou nada, como FRETEGRATIS com peso acima de 5.
+     */
+    public enum ResultadoCupom { APLICADO, SEM_EFEITO, REJEITADO, DESCONHECIDO, SEM_CUPOM }
+
+    /** Chave dos cupons que não estão na tabela (e dos checkouts sem cupom). */
+    public static final String FORA_DA_TABELA = "-";
+
+    private final Timer[] etapas = new Timer[Etapa.values().length];
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder tetoAtingido = new LongAdder();
+    private final Map<String, LongAdder[]> cupons = new ConcurrentHashMap<>();
+
+    public CheckoutMetrics() {
+        for (int i = 0; i < etapas.length; i++) etapas[i] = new Timer();
+    }
+
+    void tempo(Etapa etapa, long nanos) {
+        etapas[etapa.ordinal()].registrar(nanos);
+    }
+
+    void checkout() {
+        checkouts.increment();
+    }
+
+    void tetoAtingido() {
+        tetoAtingido.increment();
+    }
+
+    /** Conta o resultado pela regra que o produziu, sem consultar a tabela de novo. */
+    void cupom(String couponCode, CouponResult resultado, boolean aplicado) {
+        CouponRule regra = resultado.regra;
+        ResultadoCupom r;
+        String chave;
+        if (regra == null) {
+            chave = FORA_DA_TABELA;
+            r = couponCode == null || couponCode.isBlank() ? ResultadoCupom.SEM_CUPOM : ResultadoCupom.DESCONHECIDO;
+        } else {
+            // só códigos cadastrados viram chave: o mapa fica do tamanho da tabela
+            chave = regra.codigo;
+            r = !resultado.aceito ? ResultadoCupom.REJEITADO
+                    : aplicado ? ResultadoCupom.APLICADO : ResultadoCupom.SEM_EFEITO;
+        }
+        LongAdder[] contadores = cupons.get(chave);
+        if (contadores == null) contadores = cupons.computeIfAbsent(chave, k -> novosContadores());
+        contadores[r.ordinal()].increment();
+    }
+
+    public Snapshot snapshot() {
+        Map<Etapa, TimerSnapshot> t = new EnumMap<>(Etapa.class);
+        for (Etapa e : Etapa.values()) t.put(e, etapas[e.ordinal()].snapshot());
+        Map<String, Map<ResultadoCupom, Long>> c = new TreeMap<>();
+        cupons.forEach((codigo, contadores) -> {
+            Map<ResultadoCupom, Long> m = new EnumMap<>(ResultadoCupom.class);
+            for (ResultadoCupom r : ResultadoCupom.values()) {
+                long n = contadores[r.ordinal()].sum();
+                if (n > 0) m.put(r, n);
+            }
+            c.put(codigo, Collections.unmodifiableMap(m));
+        });
+        return new Snapshot(checkouts.sum(), tetoAtingido.sum(),
+                Collections.unmodifiableMap(t), Collections.unmodifiableMap(c));
+    }
+
+    public void reset() {
+        for (Timer t : etapas) t.reset();
+        checkouts.reset();
+        tetoAtingido.reset();
+        cupons.clear();
+    }
+
+    private static LongAdder[] novosContadores() {
+        LongAdder[] a = new LongAdder[ResultadoCupom.values().length];
+        for (int i = 0; i < a.length; i++) a[i] = new LongAdder();
+        return a;
+    }
+
+    public record TimerSnapshot(long count, long totalNanos, long maxNanos) {
+        public double mediaNanos() {
+            return count == 0 ? 0.0 : (double) totalNanos / count;
+        }
+    }
+
+    public record Snapshot(long checkouts, long tetoAtingido,
+                           Map<Etapa, TimerSnapshot> etapas,
+                           Map<String, Map<ResultadoCupom, Long>> cupons) {
+
+        /** Valores achatados com nomes pontuados, no estilo do Micrometer, para dashboards. */
+        public Map<String, Number> toMap() {
+            Map<String, Number> m = new LinkedHashMap<>();
+            m.put("checkout.count", checkouts);
+            m.put("checkout.desconto.teto", tetoAtingido);
+            etapas.forEach((e, t) -> {
+                String p = "checkout.etapa." + e.name().toLowerCase();
+                m.put(p + ".count", t.count());
+                m.put(p + ".total.nanos", t.totalNanos());
+                m.put(p + ".max.nanos", t.maxNanos());
+            });
+            cupons.forEach((codigo, r) -> r.forEach((resultado, n) ->
+                    m.put("checkout.cupom." + codigo + "." + resultado.name().toLowerCase(), n)));
+            return m;
+        }
+    }
+
+    private static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void registrar(long nanos) {
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        TimerSnapshot snapshot() {
+            return new TimerSnapshot(count.sum(), total.sum(), max.get());
+        }
+
+        void reset() {
+            count.reset();
+            total.reset();
+            max.reset();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.checkout;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Um carrinho a ser precificado: agrupa os mesmos parâmetros de
+ * {@link CheckoutService#checkout}, para uso em lote.
+ */
+public final class CheckoutRequest {
+    public final List<Item> itens;
+    public final CustomerTier tier;
+    public final boolean primeiraCompra;
+    public final String region;
+    public final double peso;
+    public final String couponCode;
+    public final LocalDate today;
+    public final LocalDate couponExpiryInclusive;
+
+    public CheckoutRequest(
+            List<Item> itens,
+            CustomerTier tier,
+            boolean primeiraCompra,
+            String region,
+            double peso,
+            String couponCode,
+            LocalDate today,
+            LocalDate couponExpiryInclusive
+    ) {
+        this.itens = Objects.requireNonNull(itens, "itens");
+        this.tier = Objects.requireNonNull(tier, "tier");
+        this.primeiraCompra = primeiraCompra;
+        this.region = region;
+        this.peso = peso;
+        this.couponCode = couponCode;
+        this.today = Objects.requireNonNull(today, "today");
+        this.couponExpiryInclusive = couponExpiryInclusive;
+    }
+}
@@ -7,11 +7,23 @@ public final class CheckoutResult {
     public final double shipping;
     public final double total;
 
-    CheckoutResult(double subtotal, double discountValue, double tax, double shipping, double total) {
-        this.subtotal = subtotal;
-        this.discountValue = discountValue;
-        this.tax = tax;
+    /** Os mesmos valores em centavos (frete arredondado HALF_UP). */
+    public final long subtotalCents;
+    public final long discountCents;
+    public final long taxCents;
+    public final long shippingCents;
+    public final long totalCents;
+
+    CheckoutResult(long subtotalCents, long discountCents, long taxCents, double shipping, long totalCents) {
+        this.subtotalCents = subtotalCents;
+        this.discountCents = discountCents;
+        this.taxCents = taxCents;
+        this.shippingCents = Money.toCents(shipping);
+        this.totalCents = totalCents;
+        this.subtotal = Money.fromCents(subtotalCents);
+        this.discountValue = Money.fromCents(discountCents);
+        this.tax = Money.fromCents(taxCents);
         this.shipping = shipping;
-        this.total = total;
+        this.total = Money.fromCents(totalCents);
     }
 }
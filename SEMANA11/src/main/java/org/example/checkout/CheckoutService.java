@@ -8,17 +8,37 @@ public class CheckoutService {
 
     private final CouponService couponService;
     private final ShippingService shippingService;
+    /** Opcional: sem métricas, nenhuma etapa lê o relógio. */
+    private final CheckoutMetrics metrics;
+    private final CategoryRegistry categorias;
 
     public CheckoutService(CouponService couponService, ShippingService shippingService) {
+        this(couponService, shippingService, null);
+    }
+
+    public CheckoutService(CouponService couponService, ShippingService shippingService, CheckoutMetrics metrics) {
+        this(couponService, shippingService, metrics, CategoryRegistry.padrao());
+    }
+
+    /** Serviço com categorias próprias; itens devem ser criados com o mesmo registro. */
+    public CheckoutService(CouponService couponService, ShippingService shippingService, CheckoutMetrics metrics,
+                           CategoryRegistry categorias) {
         this.couponService = Objects.requireNonNull(couponService);
         this.shippingService = Objects.requireNonNull(shippingService);
+        this.metrics = metrics;
+        this.categorias = Objects.requireNonNull(categorias, "categorias");
+    }
+
+    /** Categorias deste serviço (o registro padrão, salvo se outro foi informado); novas categorias isentas são registradas aqui. */
+    public CategoryRegistry categorias() {
+        return categorias;
     }
 
     /**
      * Calcula o total:
      * 1) subtotal dos itens
      * 2) percentuais de desconto (tier + primeiraCompra + cupom%), com teto de 30%
-     * 3) imposto 12% somente sobre itens NÃO BOOK, após desconto percentual
+     * 3) imposto 12% somente sobre itens de categorias não isentas (ver {@link CategoryRegistry}), após desconto percentual
      * 4) frete conforme regras
      */
     public CheckoutResult checkout(
@@ -35,39 +55,130 @@ public class CheckoutService {
         Objects.requireNonNull(tier, "tier");
         Objects.requireNonNull(today, "today");
 
+        long t = metrics == null ? 0 : System.nanoTime();
+        final CategoryRegistry categorias = this.categorias;
+        final boolean[] isentas = categorias.isentas();
         double subtotal = 0.0;
         double subtotalTributavel = 0.0;
         for (Item i : itens) {
             double s = i.subtotal();
             subtotal += s;
-            if (!"BOOK".equalsIgnoreCase(i.getCategoria())) {
+            if (!i.isenta(categorias, isentas)) {
                 subtotalTributavel += s;
             }
         }
-        subtotal = Money.round2(subtotal);
-        subtotalTributavel = Money.round2(subtotalTributavel);
+        long subtotalCents = Money.toCents(subtotal);
+        long subtotalTributavelCents = Money.toCents(subtotalTributavel);
+        if (metrics != null) t = marcar(CheckoutMetrics.Etapa.SUBTOTAL, t);
+        return precificar(subtotalCents, subtotalTributavelCents,
+                tier, primeiraCompra, region, peso, couponCode, today, couponExpiryInclusive, t);
+    }
+
+    /**
+     * Mesmo cálculo de {@link #checkout(List, CustomerTier, boolean, String, double, String, LocalDate, LocalDate)}
+     * para um carrinho em arrays paralelos. A isenção de cada linha já foi resolvida ao montar o
+     * carrinho, com o registro passado a ele (ver {@link PrimitiveCart#of(List, CategoryRegistry)}).
+     */
+    public CheckoutResult checkout(
+            PrimitiveCart carrinho,
+            CustomerTier tier,
+            boolean primeiraCompra,
+            String region,
+            double peso,
+            String couponCode,
+            LocalDate today,
+            LocalDate couponExpiryInclusive
+    ) {
+        Objects.requireNonNull(carrinho, "carrinho");
+        Objects.requireNonNull(tier, "tier");
+        Objects.requireNonNull(today, "today");
+
+        long t = metrics == null ? 0 : System.nanoTime();
+        long subtotalCents;
+        long subtotalTributavelCents;
+        if (carrinho.somaEmCentavos()) {
+            long[] s = new long[2];
+            carrinho.subtotaisCents(s);
+            subtotalCents = s[0];
+            subtotalTributavelCents = s[1];
+        } else {
+            double[] s = new double[2];
+            carrinho.subtotais(s);
+            subtotalCents = Money.toCents(s[0]);
+            subtotalTributavelCents = Money.toCents(s[1]);
+        }
+        if (metrics != null) t = marcar(CheckoutMetrics.Etapa.SUBTOTAL, t);
+        return precificar(subtotalCents, subtotalTributavelCents,
+                tier, primeiraCompra, region, peso, couponCode, today, couponExpiryInclusive, t);
+    }
+
+    private CheckoutResult precificar(
+            long subtotalCents,
+            long subtotalTributavelCents,
+            CustomerTier tier,
+            boolean primeiraCompra,
+            String region,
+            double peso,
+            String couponCode,
+            LocalDate today,
+            LocalDate couponExpiryInclusive,
+            long t
+    ) {
+        double subtotal = Money.fromCents(subtotalCents);
+        double subtotalTributavel = Money.fromCents(subtotalTributavelCents);
 
         double tierPct = (tier == CustomerTier.SILVER ? 0.05 : (tier == CustomerTier.GOLD ? 0.10 : 0.0));
         double firstPct = (primeiraCompra && subtotal >= 50.0) ? 0.05 : 0.0;
+        long descontoNanos = 0;
+        if (metrics != null) {
+            long agora = System.nanoTime();
+            descontoNanos = agora - t;
+            t = agora;
+        }
 
         CouponResult cr = couponService.evaluate(couponCode, today, couponExpiryInclusive, subtotal);
-        double couponPct = cr.percent;
+        double couponPct = cr.discountPercent;
+        if (metrics != null) t = marcar(CheckoutMetrics.Etapa.CUPOM, t);
 
         double totalPct = tierPct + firstPct + couponPct;
-        if (totalPct > 0.30) totalPct = 0.30;
+        if (totalPct > 0.30) {
+            totalPct = 0.30;
+            if (metrics != null) metrics.tetoAtingido();
+        }
 
-        double discountValue = Money.round2(subtotal * totalPct);
-        double baseAposDesconto = Money.round2(subtotal - discountValue);
+        long discountCents = Money.toCents(subtotal * totalPct);
+        // diferença de valores já em centavos: exata, sem arredondar
+        long baseAposDescontoCents = subtotalCents - discountCents;
+        double baseAposDesconto = Money.fromCents(baseAposDescontoCents);
+        if (metrics != null) {
+            long agora = System.nanoTime();
+            metrics.tempo(CheckoutMetrics.Etapa.DESCONTO, descontoNanos + agora - t);
+            t = agora;
+        }
 
         double proporcaoTributavel = (subtotal == 0.0) ? 0.0 : (subtotalTributavel / subtotal);
-        double baseTributavelAposDesc = Money.round2(baseAposDesconto * proporcaoTributavel);
-        double tax = Money.round2(baseTributavelAposDesc * 0.12);
+        long baseTributavelAposDescCents = Money.toCents(baseAposDesconto * proporcaoTributavel);
+        long taxCents = Money.toCents(Money.fromCents(baseTributavelAposDescCents) * 0.12);
+        if (metrics != null) t = marcar(CheckoutMetrics.Etapa.IMPOSTO, t);
 
         boolean freeByCouponWeight = cr.freeShipping && peso <= 5.0;
         double shipping = shippingService.calculate(region, peso, baseAposDesconto, freeByCouponWeight);
+        if (metrics != null) {
+            marcar(CheckoutMetrics.Etapa.FRETE, t);
+            // contadores fora das etapas cronometradas
+            metrics.cupom(couponCode, cr, couponPct > 0.0 || freeByCouponWeight);
+            metrics.checkout();
+        }
 
-        double total = Money.round2(baseAposDesconto + tax + shipping);
+        long totalCents = Money.toCents(baseAposDesconto + Money.fromCents(taxCents) + shipping);
+
+        return new CheckoutResult(subtotalCents, discountCents, taxCents, shipping, totalCents);
+    }
 
-        return new CheckoutResult(subtotal, discountValue, tax, shipping, total);
+    /** Grava o tempo desde {@code inicio} na etapa e devolve o instante atual. */
+    private long marcar(CheckoutMetrics.Etapa etapa, long inicio) {
+        long agora = System.nanoTime();
+        metrics.tempo(etapa, agora - inicio);
+        return agora;
     }
 }
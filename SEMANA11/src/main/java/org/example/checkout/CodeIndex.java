@@ -0,0 +1,138 @@
+package org.example.checkout;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice imutável de códigos (cupons, regiões...) para ids densos 0..n-1.
+ *
+ * A busca ignora espaços nas pontas e caixa, como {@code s.trim().toUpperCase()},
+ * mas sem criar strings: hash e comparação são feitos caractere a caractere
+ * sobre a string original. Endereçamento aberto com sondagem linear.
+ *
+ * Entradas já na forma canônica (sem espaços, maiúsculas) vão por um atalho que
+ * usa o hash cacheado da própria {@code String} e {@code equals}: o hash
+ * normalizado é o mesmo polinômio de {@link String#hashCode()}.
+ */
+final class CodeIndex {
+
+    static final int NAO_ENCONTRADO = -1;
+
+    private final String[] codigos;
+    private final String[] canonicos;
+    private final int[] hashes;
+    private final int[] slots;
+    private final int mascara;
+
+    private CodeIndex(String[] codigos) {
+        this.codigos = codigos;
+        this.canonicos = new String[codigos.length];
+        this.hashes = new int[codigos.length];
+        int capacidade = Integer.highestOneBit(Math.max(4, codigos.length * 2) - 1) << 1;
+        this.slots = new int[capacidade];
+        this.mascara = capacidade - 1;
+        Arrays.fill(slots, NAO_ENCONTRADO);
+
+        for (int id = 0; id < codigos.length; id++) {
+            String c = codigos[id];
+            int ini = inicio(c);
+            int fim = fim(c, ini);
+            if (ini == fim) throw new IllegalArgumentException("código vazio");
+            if (find(c) != NAO_ENCONTRADO) throw new IllegalArgumentException("código duplicado: " + c.trim());
+            int h = hash(c, ini, fim);
+            hashes[id] = h;
+            int s = h & mascara;
+            while (slots[s] != NAO_ENCONTRADO) s = (s + 1) & mascara;
+            slots[s] = id;
+            canonicos[id] = canonico(c, ini, fim);
+        }
+    }
+
+    static CodeIndex of(List<String> codigos) {
+        return new CodeIndex(codigos.toArray(new String[0]));
+    }
+
+    int size() {
+        return codigos.length;
+    }
+
+    /** Código como cadastrado, sem espaços nas pontas. */
+    String codigo(int id) {
+        return codigos[id].trim();
+    }
+
+    /** Id do código, ou {@link #NAO_ENCONTRADO}; {@code null} não é encontrado. */
+    int find(String s) {
+        if (s == null) return NAO_ENCONTRADO;
+        // o hash "normalizado" de um código canônico é o próprio String.hashCode()
+        int hc = espalhar(s.hashCode());
+        for (int slot = hc & mascara; ; slot = (slot + 1) & mascara) {
+            int id = slots[slot];
+            if (id == NAO_ENCONTRADO) break;
+            if (hashes[id] == hc && canonicos[id].equals(s)) return id;
+        }
+        if (canonico(s)) return NAO_ENCONTRADO;
+        int ini = inicio(s);
+        int fim = fim(s, ini);
+        if (ini == fim) return NAO_ENCONTRADO;
+        int h = hash(s, ini, fim);
+        for (int slot = h & mascara; ; slot = (slot + 1) & mascara) {
+            int id = slots[slot];
+            if (id == NAO_ENCONTRADO) return NAO_ENCONTRADO;
+            if (hashes[id] == h && iguais(canonicos[id], s, ini, fim)) return id;
+        }
+    }
+
+    private static boolean iguais(String canonico, String s, int ini, int fim) {
+        if (canonico.length() != fim - ini) return false;
+        for (int i = 0; i < fim - ini; i++) {
+            if (canonico.charAt(i) != maiuscula(s.charAt(ini + i))) return false;
+        }
+        return true;
+    }
+
+    private static int hash(String s, int ini, int fim) {
+        int h = 0;
+        for (int i = ini; i < fim; i++) h = 31 * h + maiuscula(s.charAt(i));
+        return espalhar(h);
+    }
+
+    // espalha os bits altos, já que a máscara só usa os baixos
+    private static int espalhar(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean canonico(String s) {
+        int n = s.length();
+        if (n == 0 || s.charAt(0) <= ' ' || s.charAt(n - 1) <= ' ') return false;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if ((c >= 'a' && c <= 'z') || c >= 0x80) return false;
+        }
+        return true;
+    }
+
+    private static String canonico(String s, int ini, int fim) {
+        StringBuilder sb = new StringBuilder(fim - ini);
+        for (int i = ini; i < fim; i++) sb.append(maiuscula(s.charAt(i)));
+        return sb.toString();
+    }
+
+    private static char maiuscula(char c) {
+        if (c >= 'a' && c <= 'z') return (char) (c - ('a' - 'A'));
+        return c < 0x80 ? c : Character.toUpperCase(c);
+    }
+
+    // mesmos limites de String.trim(): caracteres <= ' '
+    private static int inicio(String s) {
+        int i = 0;
+        while (i < s.length() && s.charAt(i) <= ' ') i++;
+        return i;
+    }
+
+    private static int fim(String s, int ini) {
+        int f = s.length();
+        while (f > ini && s.charAt(f - 1) <= ' ') f--;
+        return f;
+    }
+}
@@ -3,10 +3,15 @@ package org.example.checkout;
 public final class CouponResult {
     public final double discountPercent;
     public final boolean freeShipping;
-    public double percent;
+    /** Regra que produziu o resultado; null para códigos fora da tabela. */
+    final CouponRule regra;
+    /** Se a regra aceitou o cupom (datas e subtotal mínimo atendidos). */
+    final boolean aceito;
 
-    CouponResult(double discountPercent, boolean freeShipping) {
+    CouponResult(CouponRule regra, double discountPercent, boolean freeShipping, boolean aceito) {
+        this.regra = regra;
         this.discountPercent = discountPercent;
         this.freeShipping = freeShipping;
+        this.aceito = aceito;
     }
 }
@@ -0,0 +1,68 @@
+package org.example.checkout;
+
+import java.time.LocalDate;
+
+/**
+ * Regra compilada de um cupom. Os resultados são pré-alocados: avaliar não cria objetos.
+ * Cada resultado aponta para a regra que o produziu, inclusive o de rejeição.
+ */
+final class CouponRule {
+
+    /** Resultado de códigos fora da tabela (e de checkouts sem cupom). */
+    static final CouponResult NENHUM = new CouponResult(null, 0.0, false, false);
+
+    final String codigo;
+    final double percent;
+    final boolean freeShipping;
+    final double subtotalMinimo;
+    final LocalDate validoDe;
+    final LocalDate validoAte;
+    /** Se o cupom respeita a validade informada no checkout (expiryInclusive). */
+    final boolean usaValidadeDoCheckout;
+    private final CouponResult aplicado;
+    private final CouponResult rejeitado;
+
+    CouponRule(String codigo, double percent, boolean freeShipping, double subtotalMinimo,
+               LocalDate validoDe, LocalDate validoAte, boolean usaValidadeDoCheckout) {
+        if (percent < 0 || percent > 1) throw new IllegalArgumentException("percentual fora de [0, 1]: " + percent);
+        if (subtotalMinimo < 0) throw new IllegalArgumentException("subtotalMinimo < 0");
+        if (validoDe != null && validoAte != null && validoAte.isBefore(validoDe)) {
+            throw new IllegalArgumentException("validoAte antes de validoDe");
+        }
+        this.codigo = codigo;
+        this.percent = percent;
+        this.freeShipping = freeShipping;
+        this.subtotalMinimo = subtotalMinimo;
+        this.validoDe = validoDe;
+        this.validoAte = validoAte;
+        this.usaValidadeDoCheckout = usaValidadeDoCheckout;
+        this.aplicado = new CouponResult(this, percent, freeShipping, true);
+        this.rejeitado = new CouponResult(this, 0.0, false, false);
+    }
+
+    CouponResult evaluate(LocalDate today, LocalDate expiryInclusive, double subtotal) {
+        return valido(today, expiryInclusive) ? aplicar(subtotal) : rejeitado;
+    }
+
+    /** Resultado de um cupom desta regra aceito. */
+    CouponResult aplicado() {
+        return aplicado;
+    }
+
+    /** Resultado de um cupom desta regra rejeitado nas datas ou no subtotal mínimo. */
+    CouponResult rejeitado() {
+        return rejeitado;
+    }
+
+    /** Parte da avaliação que só depende das datas. */
+    boolean valido(LocalDate today, LocalDate expiryInclusive) {
+        if (validoDe != null && today.isBefore(validoDe)) return false;
+        if (validoAte != null && today.isAfter(validoAte)) return false;
+        return !(usaValidadeDoCheckout && expiryInclusive != null && today.isAfter(expiryInclusive));
+    }
+
+    /** Parte da avaliação que depende do subtotal, para um cupom já válido nas datas. */
+    CouponResult aplicar(double subtotal) {
+        return subtotal < subtotalMinimo ? rejeitado : aplicado;
+    }
+}
@@ -1,33 +1,66 @@
 package org.example.checkout;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.Objects;
 
 public class CouponService {
 
+    private volatile Path arquivo;
+    private volatile CouponTable tabela;
+
+    /** Regras padrão de {@code cupons.csv} no classpath. */
+    public CouponService() {
+        this.arquivo = null;
+        this.tabela = CouponTable.padrao();
+    }
+
+    /** Regras de um arquivo local; veja {@link CouponTable} para o formato. */
+    public CouponService(Path arquivo) {
+        this.arquivo = Objects.requireNonNull(arquivo, "arquivo");
+        this.tabela = CouponTable.load(arquivo);
+    }
+
+    /**
+     * Relê o arquivo atual (o do construtor ou do último {@link #reload(Path)}) e troca a
+     * tabela de uma vez. Se o arquivo for inválido, a tabela atual continua valendo.
+     */
+    public synchronized void reload() {
+        if (arquivo == null) throw new IllegalStateException("CouponService sem arquivo de cupons");
+        reload(arquivo);
+    }
+
+    /** Carrega outro arquivo, que passa a ser o relido por {@link #reload()}. */
+    public synchronized void reload(Path arquivo) {
+        CouponTable nova = CouponTable.load(Objects.requireNonNull(arquivo, "arquivo"));
+        this.arquivo = arquivo;
+        this.tabela = nova;
+    }
+
+    /** Tabela em uso; muda de identidade a cada reload. */
+    CouponTable tabela() {
+        return tabela;
+    }
+
+    /** Quantidade de cupons cadastrados. */
+    public int size() {
+        return tabela.size();
+    }
+
     /**
-     * Regra:
+     * Regra (cupons padrão):
      * - DESC10: 10%, sempre válido
      * - DESC20: 20%, exige subtotal >= 100 e não estar expirado (expiryInclusive)
      * - FRETEGRATIS: percent = 0, freeShipping = true, apenas ativa se peso <= 5 (checado fora)
      * - null, "", desconhecido, expirado, mínimo não atendido => ignorar (0%, false)
+     *
+     * O código é comparado sem espaços nas pontas e sem diferenciar caixa.
      */
     public CouponResult evaluate(String code, LocalDate today, LocalDate expiryInclusive, double subtotal) {
-        if (code == null || code.isBlank()) {
-            return new CouponResult(0.0, false);
-        }
-        switch (code.trim().toUpperCase()) {
-            case "DESC10":
-                return new CouponResult(0.10, false);
-            case "DESC20":
-                boolean notExpired = expiryInclusive == null || !today.isAfter(expiryInclusive);
-                if (subtotal >= 100.0 && notExpired) {
-                    return new CouponResult(0.20, false);
-                }
-                return new CouponResult(0.0, false);
-            case "FRETEGRATIS":
-                return new CouponResult(0.0, true);
-            default:
-                return new CouponResult(0.0, false);
+        CouponRule regra = tabela.find(code);
+        if (regra == null) {
+            return CouponRule.NENHUM;
         }
+        return regra.evaluate(today, expiryInclusive, subtotal);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+package org.example.checkout;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tabela imutável de cupons: índice por código + regras compiladas.
+ *
+ * Formato do arquivo (uma regra por linha, {@code #} comenta, campo vazio = sem restrição):
+ * <pre>
+ * codigo;percentual;freteGratis;subtotalMinimo;validoDe;validoAte;usaValidadeDoCheckout
+ * DESC20;0.20;false;100;;;true
+ * NATAL;0.15;false;;2025-12-01;2025-12-25;false
+ * </pre>
+ */
+final class CouponTable {
+
+    static final String RECURSO_PADRAO = "/cupons.csv";
+
+    private final CodeIndex indice;
+    private final CouponRule[] regras;
+
+    private CouponTable(CodeIndex indice, CouponRule[] regras) {
+        this.indice = indice;
+        this.regras = regras;
+    }
+
+    /** Regras padrão, lidas uma única vez de {@code cupons.csv} no classpath. */
+    static CouponTable padrao() {
+        return Padrao.TABELA;
+    }
+
+    private static final class Padrao {
+        static final CouponTable TABELA = carregarRecurso();
+
+        private static CouponTable carregarRecurso() {
+            InputStream in = CouponTable.class.getResourceAsStream(RECURSO_PADRAO);
+            if (in == null) throw new IllegalStateException("recurso não encontrado: " + RECURSO_PADRAO);
+            try (Reader r = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return parse(r, RECURSO_PADRAO);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static CouponTable load(Path arquivo) {
+        try (Reader r = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return parse(r, arquivo.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static CouponTable parse(Reader reader, String origem) throws IOException {
+        List<String> codigos = new ArrayList<>();
+        List<CouponRule> regras = new ArrayList<>();
+        BufferedReader in = new BufferedReader(reader);
+        String linha;
+        int n = 0;
+        while ((linha = in.readLine()) != null) {
+            n++;
+            String l = linha.strip();
+            if (l.isEmpty() || l.startsWith("#")) continue;
+            try {
+                CouponRule regra = regra(l.split(";", -1));
+                codigos.add(regra.codigo);
+                regras.add(regra);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(origem + ":" + n + ": " + e.getMessage(), e);
+            }
+        }
+        try {
+            return new CouponTable(CodeIndex.of(codigos), regras.toArray(new CouponRule[0]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(origem + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static CouponRule regra(String[] c) {
+        if (c.length != 7) throw new IllegalArgumentException("esperados 7 campos, encontrados " + c.length);
+        String codigo = c[0].strip();
+        if (codigo.isEmpty()) throw new IllegalArgumentException("código vazio");
+        return new CouponRule(
+                codigo,
+                c[1].isBlank() ? 0.0 : Double.parseDouble(c[1].strip()),
+                booleano(c[2]),
+                c[3].isBlank() ? 0.0 : Double.parseDouble(c[3].strip()),
+                c[4].isBlank() ? null : LocalDate.parse(c[4].strip()),
+                c[5].isBlank() ? null : LocalDate.parse(c[5].strip()),
+                booleano(c[6]));
+    }
+
+    private static boolean booleano(String s) {
+        String v = s.strip();
+        if (v.isEmpty() || v.equalsIgnoreCase("false")) return false;
+        if (v.equalsIgnoreCase("true")) return true;
+        throw new IllegalArgumentException("booleano inválido: " + s);
+    }
+
+    int size() {
+        return regras.length;
+    }
+
+    /** Regra do código, ou {@code null}. Não aloca. */
+    CouponRule find(String code) {
+        int id = indice.find(code);
+        return id == CodeIndex.NAO_ENCONTRADO ? null : regras[id];
+    }
+}
@@ -4,22 +4,61 @@ import java.util.Objects;
 
 public class Item {
     private final String categoria;
+    private final CategoryRegistry registro;
+    /** Id de {@code categoria} em {@code registro}, resolvido na construção. */
+    private final int categoriaId;
     private final double precoUnitario;
+    private final long precoUnitarioCents;
     private final int quantidade;
 
+    /** Item com a categoria no {@link CategoryRegistry#padrao() registro padrão}. */
     public Item(String categoria, double precoUnitario, int quantidade) {
+        this(CategoryRegistry.padrao(), categoria, precoUnitario, quantidade);
+    }
+
+    /** Item com a categoria em {@code registro}, o mesmo do {@link CheckoutService} que vai precificá-lo. */
+    public Item(CategoryRegistry registro, String categoria, double precoUnitario, int quantidade) {
         if (precoUnitario < 0) throw new IllegalArgumentException("precoUnitario < 0");
         if (quantidade <= 0) throw new IllegalArgumentException("quantidade <= 0");
         this.categoria = Objects.requireNonNull(categoria, "categoria");
+        this.registro = Objects.requireNonNull(registro, "registro");
+        this.categoriaId = registro.id(categoria);
         this.precoUnitario = precoUnitario;
+        this.precoUnitarioCents = Money.toCents(precoUnitario);
         this.quantidade = quantidade;
     }
 
+    /** Item com preço já em centavos. */
+    public static Item ofCents(String categoria, long precoUnitarioCents, int quantidade) {
+        return new Item(categoria, Money.fromCents(precoUnitarioCents), quantidade);
+    }
+
+    /** Categoria como informada. */
     public String getCategoria() { return categoria; }
+    /** Id da categoria no registro em que o item foi criado. */
+    public int getCategoriaId() { return categoriaId; }
     public double getPrecoUnitario() { return precoUnitario; }
+    /** Preço unitário arredondado HALF_UP para centavos. */
+    public long getPrecoUnitarioCents() { return precoUnitarioCents; }
     public int getQuantidade() { return quantidade; }
 
+    /**
+     * Isenção da linha em {@code r}, com {@code isentas} já lida dele: leitura direta pelo id
+     * quando o item foi criado nesse registro; pelo nome, sem registrar, nos demais casos.
+     */
+    boolean isenta(CategoryRegistry r, boolean[] isentas) {
+        return r == registro && categoriaId != CategoryRegistry.OUTRAS ? isentas[categoriaId] : r.isenta(categoria);
+    }
+
     public double subtotal() {
         return precoUnitario * quantidade;
     }
+
+    /**
+     * Subtotal em centavos a partir do preço arredondado; só coincide com
+     * {@code Money.toCents(subtotal())} quando o preço já é um valor em centavos.
+     */
+    public long subtotalCents() {
+        return Math.multiplyExact(precoUnitarioCents, (long) quantidade);
+    }
 }
@@ -3,10 +3,49 @@ package org.example.checkout;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+/**
+ * Valores monetários em ponto fixo: centavos em {@code long}.
+ *
+ * O arredondamento HALF_UP reproduz exatamente
+ * {@code BigDecimal.valueOf(v).setScale(2, HALF_UP)} sem alocar: o valor decimal
+ * que {@code BigDecimal.valueOf} enxerga é a representação mais curta do double,
+ * e ela cai no ponto médio k + 0,5 centavo exatamente quando o double é o mais
+ * próximo desse ponto médio, ou seja, {@code (2k + 1) / 200.0}.
+ */
 final class Money {
     private Money() {}
 
+    /**
+     * A partir de 2^43 reais (~8,8e12) o ulp passa de 1/1024 e a representação mais curta
+     * pode pular o ponto médio; daí em diante usa BigDecimal.
+     */
+    private static final double LIMITE_PONTO_FIXO = 0x1p43;
+
     static double round2(double v) {
-        return BigDecimal.valueOf(v).setScale(2, RoundingMode.HALF_UP).doubleValue();
+        if (!(Math.abs(v) < LIMITE_PONTO_FIXO)) {
+            return BigDecimal.valueOf(v).setScale(2, RoundingMode.HALF_UP).doubleValue();
+        }
+        return fromCents(toCents(v));
+    }
+
+    /** Converte para centavos com HALF_UP, com o mesmo resultado de {@link #round2}. */
+    static long toCents(double v) {
+        if (!(Math.abs(v) < LIMITE_PONTO_FIXO)) {
+            return BigDecimal.valueOf(v).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        }
+        // HALF_UP arredonda para longe do zero: simétrico em torno de 0
+        return v < 0 ? -centsHalfUp(-v) : centsHalfUp(v);
+    }
+
+    static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+
+    private static long centsHalfUp(double v) {
+        long r = (long) (v * 100.0 + 0.5);
+        // r é correto se mid(r - 1) <= v < mid(r), com mid(k) = (2k + 1) / 200.0
+        while (r > 0 && v < (2 * r - 1) / 200.0) r--;
+        while (v >= (2 * r + 1) / 200.0) r++;
+        return r;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package org.example.checkout;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Carrinho em arrays paralelos (uma posição por linha), para carrinhos grandes.
+ *
+ * Os laços de subtotal de {@link CheckoutService#checkout(PrimitiveCart, CustomerTier, boolean,
+ * String, double, String, java.time.LocalDate, java.time.LocalDate)} percorrem só arrays
+ * primitivos, sem desreferenciar objetos nem comparar strings, o que permite ao JIT
+ * desenrolar e vetorizar as somas.
+ *
+ * Quando todos os preços são valores exatos em centavos e o volume é pequeno o bastante
+ * para a soma em double não errar meio centavo, os subtotais são somados em {@code long};
+ * caso contrário, em double na ordem das linhas. Nos dois casos o resultado é o mesmo do
+ * checkout com {@code List<Item>}.
+ */
+public final class PrimitiveCart {
+
+    /** Código de categoria de itens tributáveis. */
+    public static final byte TRIBUTAVEL = 0;
+    /** Código de categoria de itens isentos (ver {@link CategoryRegistry}). */
+    public static final byte ISENTO = 1;
+
+    /**
+     * Limite de volume × (linhas + 2), em reais, abaixo do qual o erro acumulado da soma
+     * em double fica bem abaixo de meio centavo (erro relativo por operação de 2^-53).
+     */
+    private static final double LIMITE_SOMA_EXATA = 1e12;
+
+    private final CategoryRegistry registro;
+    private double[] precos;
+    private long[] precosCents;
+    private int[] quantidades;
+    private byte[] categorias;
+    private int size;
+    private boolean centavosExatos = true;
+    private double volume;
+
+    public PrimitiveCart() {
+        this(16);
+    }
+
+    /** Carrinho com as categorias do {@link CategoryRegistry#padrao() registro padrão}. */
+    public PrimitiveCart(int capacidade) {
+        this(CategoryRegistry.padrao(), capacidade);
+    }
+
+    /** Carrinho que resolve a isenção das categorias em {@code registro}, ao acrescentar cada linha. */
+    public PrimitiveCart(CategoryRegistry registro, int capacidade) {
+        if (capacidade < 0) throw new IllegalArgumentException("capacidade < 0");
+        this.registro = Objects.requireNonNull(registro, "registro");
+        precos = new double[capacidade];
+        precosCents = new long[capacidade];
+        quantidades = new int[capacidade];
+        categorias = new byte[capacidade];
+    }
+
+    /** Carrinho com os itens, classificados pelo {@link CategoryRegistry#padrao() registro padrão}. */
+    public static PrimitiveCart of(List<Item> itens) {
+        return of(itens, CategoryRegistry.padrao());
+    }
+
+    /** Carrinho com os itens, classificados pelo registro (o {@link CheckoutService#categorias()} que vai precificá-lo). */
+    public static PrimitiveCart of(List<Item> itens, CategoryRegistry registro) {
+        Objects.requireNonNull(itens, "itens");
+        PrimitiveCart c = new PrimitiveCart(registro, itens.size());
+        boolean[] isentas = registro.isentas();
+        for (Item i : itens) {
+            c.add(i.isenta(registro, isentas) ? ISENTO : TRIBUTAVEL, i.getPrecoUnitario(), i.getQuantidade());
+        }
+        return c;
+    }
+
+    /** Acrescenta uma linha, com as mesmas validações de {@link Item}. */
+    public PrimitiveCart add(String categoria, double precoUnitario, int quantidade) {
+        Objects.requireNonNull(categoria, "categoria");
+        return add(codigo(categoria), precoUnitario, quantidade);
+    }
+
+    /** Acrescenta uma linha com a categoria já codificada ({@link #TRIBUTAVEL} ou {@link #ISENTO}). */
+    public PrimitiveCart add(byte categoria, double precoUnitario, int quantidade) {
+        if (precoUnitario < 0) throw new IllegalArgumentException("precoUnitario < 0");
+        if (quantidade <= 0) throw new IllegalArgumentException("quantidade <= 0");
+        if (categoria != TRIBUTAVEL && categoria != ISENTO) throw new IllegalArgumentException("categoria inválida: " + categoria);
+        if (size == precos.length) crescer();
+
+        long cents = Money.toCents(precoUnitario);
+        precos[size] = precoUnitario;
+        precosCents[size] = cents;
+        quantidades[size] = quantidade;
+        categorias[size] = categoria;
+        size++;
+
+        double linha = precoUnitario * quantidade;
+        volume += linha;
+        centavosExatos &= Money.fromCents(cents) == precoUnitario && !Double.isInfinite(linha);
+        return this;
+    }
+
+    /** Código da categoria no registro deste carrinho, como está agora; não registra a categoria. */
+    public byte codigo(String categoria) {
+        return registro.isenta(categoria) ? ISENTO : TRIBUTAVEL;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double precoUnitario(int linha) {
+        Objects.checkIndex(linha, size);
+        return precos[linha];
+    }
+
+    public int quantidade(int linha) {
+        Objects.checkIndex(linha, size);
+        return quantidades[linha];
+    }
+
+    public byte categoria(int linha) {
+        Objects.checkIndex(linha, size);
+        return categorias[linha];
+    }
+
+    /** Soma exata em centavos: equivale a somar em double e arredondar no fim. */
+    boolean somaEmCentavos() {
+        return centavosExatos && volume * (size + 2) < LIMITE_SOMA_EXATA;
+    }
+
+    /** Subtotal e subtotal tributável em centavos: {@code {subtotal, tributavel}}. */
+    void subtotaisCents(long[] out) {
+        final long[] p = precosCents;
+        final int[] q = quantidades;
+        final byte[] c = categorias;
+        final int n = size;
+        long subtotal = 0;
+        long isento = 0;
+        for (int i = 0; i < n; i++) {
+            long s = p[i] * q[i];
+            subtotal += s;
+            // c[i] é 0 ou 1: soma sem desvio
+            isento += s * c[i];
+        }
+        out[0] = subtotal;
+        out[1] = subtotal - isento;
+    }
+
+    /** Mesmas somas em double, na ordem das linhas, como no checkout com lista. */
+    void subtotais(double[] out) {
+        final double[] p = precos;
+        final int[] q = quantidades;
+        final byte[] c = categorias;
+        final int n = size;
+        double subtotal = 0.0;
+        double tributavel = 0.0;
+        for (int i = 0; i < n; i++) {
+            double s = p[i] * q[i];
+            subtotal += s;
+            if (c[i] == TRIBUTAVEL) tributavel += s;
+        }
+        out[0] = subtotal;
+        out[1] = tributavel;
+    }
+
+    private void crescer() {
+        int nova = Math.max(16, precos.length * 2);
+        precos = Arrays.copyOf(precos, nova);
+        precosCents = Arrays.copyOf(precosCents, nova);
+        quantidades = Arrays.copyOf(quantidades, nova);
+        categorias = Arrays.copyOf(categorias, nova);
+    }
+}
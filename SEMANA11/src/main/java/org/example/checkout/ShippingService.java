@@ -1,9 +1,46 @@
 package org.example.checkout;
 
+import java.nio.file.Path;
+import java.util.Objects;
+
 public class ShippingService {
 
+    private final Path arquivo;
+    private volatile ShippingTable tabela;
+
+    /** Tabela padrão de {@code fretes.csv} no classpath. */
+    public ShippingService() {
+        this.arquivo = null;
+        this.tabela = ShippingTable.padrao();
+    }
+
+    /** Tabela de um arquivo local; veja {@link ShippingTable} para o formato. */
+    public ShippingService(Path arquivo) {
+        this.arquivo = Objects.requireNonNull(arquivo, "arquivo");
+        this.tabela = ShippingTable.load(arquivo);
+    }
+
+    /** Relê o arquivo informado no construtor; se inválido, a tabela atual continua valendo. */
+    public void reload() {
+        if (arquivo == null) throw new IllegalStateException("ShippingService sem arquivo de fretes");
+        this.tabela = ShippingTable.load(arquivo);
+    }
+
+    /** Tabela em uso; muda de identidade a cada reload. */
+    ShippingTable tabela() {
+        return tabela;
+    }
+
+    /**
+     * Id da região (sem espaços nas pontas e sem diferenciar caixa); regiões não
+     * cadastradas recebem o id da tarifa padrão. Só vale para a tabela atual.
+     */
+    public int regionId(String region) {
+        return tabela.regionId(region);
+    }
+
     /**
-     * Frete:
+     * Frete (tabela padrão):
      * - grátis se freeShipping == true OU subtotal >= 300
      * - senão por região/peso:
      *   SUL/SUDESTE: 20/35/50
@@ -13,20 +50,16 @@ public class ShippingService {
     public double calculate(String region, double weight, double subtotal, boolean freeShipping) {
         if (weight < 0) throw new IllegalArgumentException("weight < 0");
 
-        if (freeShipping || subtotal >= 300.0) return 0.0;
-
-        String r = region == null ? "" : region.trim().toUpperCase();
-
-        if ("SUL".equals(r) || "SUDESTE".equals(r)) {
-            if (weight <= 2.0) return 20.0;
-            if (weight <= 5.0) return 35.0;
-            return 50.0;
-        } else if ("NORTE".equals(r)) {
-            if (weight <= 2.0) return 30.0;
-            if (weight <= 5.0) return 55.0;
-            return 80.0;
-        } else {
-            return 40.0;
-        }
+        ShippingTable t = tabela;
+        return t.frete(t.regionId(region), weight, subtotal, freeShipping);
+    }
+
+    /** Como {@link #calculate(String, double, double, boolean)}, com a região já resolvida por {@link #regionId}. */
+    public double calculate(int regionId, double weight, double subtotal, boolean freeShipping) {
+        if (weight < 0) throw new IllegalArgumentException("weight < 0");
+
+        ShippingTable t = tabela;
+        if (!t.validRegionId(regionId)) throw new IllegalArgumentException("regionId inválido: " + regionId);
+        return t.frete(regionId, weight, subtotal, freeShipping);
     }
 }
@@ -0,0 +1,189 @@
+package org.example.checkout;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matriz imutável de frete: região (id denso via {@link CodeIndex}) x faixa de peso.
+ *
+ * Os limites de todas as regiões ficam num único {@code double[]}; a faixa é achada
+ * por busca binária no trecho da região. A região padrão ({@code *}) tem o último id.
+ *
+ * Formato do arquivo:
+ * <pre>
+ * gratisAPartirDe=300
+ * SUL;2 5;20 35 50
+ * *;;40
+ * </pre>
+ */
+final class ShippingTable {
+
+    static final String RECURSO_PADRAO = "/fretes.csv";
+    private static final String PADRAO = "*";
+    private static final String GRATIS = "gratisAPartirDe";
+
+    private final CodeIndex regioes;
+    private final double gratisAPartirDe;
+    private final double[] limites;
+    private final double[] valores;
+    /** Trecho da região r: limites[inicio[r], inicio[r + 1]) e valores[inicio[r] + r, ...]. */
+    private final int[] inicio;
+
+    private ShippingTable(CodeIndex regioes, double gratisAPartirDe, double[] limites, double[] valores, int[] inicio) {
+        this.regioes = regioes;
+        this.gratisAPartirDe = gratisAPartirDe;
+        this.limites = limites;
+        this.valores = valores;
+        this.inicio = inicio;
+    }
+
+    static ShippingTable padrao() {
+        return Padrao.TABELA;
+    }
+
+    private static final class Padrao {
+        static final ShippingTable TABELA = carregarRecurso();
+
+        private static ShippingTable carregarRecurso() {
+            InputStream in = ShippingTable.class.getResourceAsStream(RECURSO_PADRAO);
+            if (in == null) throw new IllegalStateException("recurso não encontrado: " + RECURSO_PADRAO);
+            try (Reader r = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return parse(r, RECURSO_PADRAO);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static ShippingTable load(Path arquivo) {
+        try (Reader r = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return parse(r, arquivo.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static ShippingTable parse(Reader reader, String origem) throws IOException {
+        List<String> nomes = new ArrayList<>();
+        List<double[]> limitesPorRegiao = new ArrayList<>();
+        List<double[]> valoresPorRegiao = new ArrayList<>();
+        double[][] padrao = null;
+        double gratis = Double.POSITIVE_INFINITY;
+
+        BufferedReader in = new BufferedReader(reader);
+        String linha;
+        int n = 0;
+        while ((linha = in.readLine()) != null) {
+            n++;
+            String l = linha.strip();
+            if (l.isEmpty() || l.startsWith("#")) continue;
+            try {
+                if (l.startsWith(GRATIS)) {
+                    String[] kv = l.split("=", -1);
+                    if (kv.length != 2 || !kv[0].strip().equals(GRATIS)) throw new IllegalArgumentException("linha inválida");
+                    gratis = Double.parseDouble(kv[1].strip());
+                    continue;
+                }
+                String[] c = l.split(";", -1);
+                if (c.length != 3) throw new IllegalArgumentException("esperados 3 campos, encontrados " + c.length);
+                double[] lim = numeros(c[1]);
+                double[] val = numeros(c[2]);
+                validar(lim, val);
+                String regiao = c[0].strip();
+                if (regiao.equals(PADRAO)) {
+                    if (padrao != null) throw new IllegalArgumentException("região '*' repetida");
+                    padrao = new double[][]{lim, val};
+                } else {
+                    nomes.add(regiao);
+                    limitesPorRegiao.add(lim);
+                    valoresPorRegiao.add(val);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(origem + ":" + n + ": " + e.getMessage(), e);
+            }
+        }
+        if (padrao == null) throw new IllegalArgumentException(origem + ": falta a região '*'");
+        limitesPorRegiao.add(padrao[0]);
+        valoresPorRegiao.add(padrao[1]);
+
+        CodeIndex indice;
+        try {
+            indice = CodeIndex.of(nomes);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(origem + ": " + e.getMessage(), e);
+        }
+        int regioes = limitesPorRegiao.size();
+        int[] inicio = new int[regioes + 1];
+        for (int r = 0; r < regioes; r++) inicio[r + 1] = inicio[r] + limitesPorRegiao.get(r).length;
+        double[] limites = new double[inicio[regioes]];
+        double[] valores = new double[inicio[regioes] + regioes];
+        for (int r = 0; r < regioes; r++) {
+            double[] lim = limitesPorRegiao.get(r);
+            System.arraycopy(lim, 0, limites, inicio[r], lim.length);
+            double[] val = valoresPorRegiao.get(r);
+            System.arraycopy(val, 0, valores, inicio[r] + r, val.length);
+        }
+        return new ShippingTable(indice, gratis, limites, valores, inicio);
+    }
+
+    private static double[] numeros(String campo) {
+        String s = campo.strip();
+        if (s.isEmpty()) return new double[0];
+        String[] partes = s.split("\\s+");
+        double[] v = new double[partes.length];
+        for (int i = 0; i < partes.length; i++) v[i] = Double.parseDouble(partes[i]);
+        return v;
+    }
+
+    private static void validar(double[] limites, double[] valores) {
+        if (valores.length != limites.length + 1) {
+            throw new IllegalArgumentException("esperados " + (limites.length + 1) + " valores, encontrados " + valores.length);
+        }
+        for (int i = 0; i < limites.length; i++) {
+            if (!(limites[i] >= 0) || (i > 0 && !(limites[i] > limites[i - 1]))) {
+                throw new IllegalArgumentException("limites de peso devem ser crescentes e >= 0");
+            }
+        }
+        for (double v : valores) {
+            if (!(v >= 0)) throw new IllegalArgumentException("valor de frete inválido: " + v);
+        }
+    }
+
+    /** Id da região, ou o id da região padrão quando não cadastrada. Não aloca. */
+    int regionId(String region) {
+        int id = regioes.find(region);
+        return id == CodeIndex.NAO_ENCONTRADO ? regioes.size() : id;
+    }
+
+    boolean validRegionId(int id) {
+        return id >= 0 && id <= regioes.size();
+    }
+
+    /** Frete de uma região já resolvida: zero com frete grátis ou subtotal a partir do mínimo. */
+    double frete(int regionId, double weight, double subtotal, boolean freeShipping) {
+        if (freeShipping || subtotal >= gratisAPartirDe) return 0.0;
+        return rate(regionId, weight);
+    }
+
+    /** Valor da faixa de peso da região: primeiro limite >= peso (peso NaN cai na última faixa). */
+    double rate(int regionId, double weight) {
+        int lo = inicio[regionId];
+        int hi = inicio[regionId + 1];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (!(limites[mid] >= weight)) lo = mid + 1;
+            else hi = mid;
+        }
+        // faixa (lo - inicio[r]) da região r fica em valores[inicio[r] + r + faixa]
+        return valores[lo + regionId];
+    }
+}
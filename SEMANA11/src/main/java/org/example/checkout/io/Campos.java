@@ -0,0 +1,41 @@
+package org.example.checkout.io;
+
+import org.example.checkout.CustomerTier;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/** Conversão dos campos textuais dos arquivos de carrinho. */
+final class Campos {
+    private Campos() {}
+
+    static String texto(String s) {
+        return s == null || s.isEmpty() ? null : s;
+    }
+
+    static CustomerTier tier(String s) {
+        return s == null || s.isBlank() ? CustomerTier.BASIC : CustomerTier.valueOf(s.strip().toUpperCase(Locale.ROOT));
+    }
+
+    static boolean booleano(String s) {
+        if (s == null || s.isBlank()) return false;
+        String v = s.strip();
+        if (v.equalsIgnoreCase("true")) return true;
+        if (v.equalsIgnoreCase("false")) return false;
+        throw new IllegalArgumentException("booleano inválido: " + s);
+    }
+
+    static double numero(String s, String campo) {
+        if (s == null || s.isBlank()) throw new IllegalArgumentException("campo obrigatório: " + campo);
+        return Double.parseDouble(s.strip());
+    }
+
+    static int inteiro(String s, String campo) {
+        if (s == null || s.isBlank()) throw new IllegalArgumentException("campo obrigatório: " + campo);
+        return Integer.parseInt(s.strip());
+    }
+
+    static LocalDate data(String s, LocalDate padrao) {
+        return s == null || s.isBlank() ? padrao : LocalDate.parse(s.strip());
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.checkout.io;
+
+import org.example.checkout.CheckoutRequest;
+
+import java.util.Objects;
+
+/**
+ * Carrinho lido de arquivo: identificador de origem + parâmetros do checkout, ou a
+ * mensagem de erro quando o carrinho não pôde ser lido (e então {@code request} é null).
+ */
+public final class CartEntry {
+    public final String id;
+    public final CheckoutRequest request;
+    public final String erro;
+
+    public CartEntry(String id, CheckoutRequest request) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.request = Objects.requireNonNull(request, "request");
+        this.erro = null;
+    }
+
+    private CartEntry(String id, String erro) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.request = null;
+        this.erro = Objects.requireNonNull(erro, "erro");
+    }
+
+    /** Carrinho inválido: a leitura segue com o próximo. */
+    public static CartEntry erro(String id, String mensagem) {
+        return new CartEntry(id, String.valueOf(mensagem));
+    }
+
+    public boolean valido() {
+        return erro == null;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.checkout.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Lê carrinhos um a um de um arquivo, sem carregá-lo inteiro em memória.
+ */
+public interface CartReader extends Closeable {
+
+    int BUFFER = 1 << 16;
+
+    /**
+     * Próximo carrinho, ou {@code null} no fim do arquivo. Um carrinho mal formado vem como
+     * {@link CartEntry#erro} e não interrompe a leitura dos seguintes.
+     */
+    CartEntry next() throws IOException;
+
+    /**
+     * Abre o leitor pela extensão: {@code .jsonl}/{@code .ndjson} ou {@code .csv}.
+     * {@code hoje} é usado quando o carrinho não informa a data.
+     */
+    static CartReader open(Path arquivo, LocalDate hoje) throws IOException {
+        String nome = arquivo.getFileName().toString().toLowerCase();
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(arquivo), StandardCharsets.UTF_8), BUFFER);
+        if (nome.endsWith(".jsonl") || nome.endsWith(".ndjson")) return new JsonlCartReader(in, hoje);
+        if (nome.endsWith(".csv")) return new CsvCartReader(in, hoje);
+        in.close();
+        throw new IllegalArgumentException("formato não suportado (use .jsonl ou .csv): " + arquivo);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.checkout.io;
+
+import org.example.checkout.CheckoutResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escreve um resultado por linha, separado por {@code ;}, com valores em reais
+ * formatados a partir dos centavos (sem notação científica nem arredondamento).
+ */
+public final class CheckoutResultWriter implements Closeable, Flushable {
+
+    static final String CABECALHO = "id;subtotal;discountValue;tax;shipping;total";
+
+    private final BufferedWriter out;
+    private final StringBuilder sb = new StringBuilder(96);
+
+    public CheckoutResultWriter(Writer out) throws IOException {
+        this.out = out instanceof BufferedWriter b ? b : new BufferedWriter(out, CartReader.BUFFER);
+        this.out.write(CABECALHO);
+        this.out.newLine();
+    }
+
+    public void write(String id, CheckoutResult r) throws IOException {
+        sb.setLength(0);
+        sb.append(id);
+        reais(r.subtotalCents);
+        reais(r.discountCents);
+        reais(r.taxCents);
+        reais(r.shippingCents);
+        reais(r.totalCents);
+        out.append(sb);
+        out.newLine();
+    }
+
+    /** Linha de carrinho que não pôde ser precificado. */
+    public void writeError(String id, String mensagem) throws IOException {
+        sb.setLength(0);
+        sb.append(id).append(";ERRO;").append(mensagem.replace(';', ',').replace('\n', ' '));
+        out.append(sb);
+        out.newLine();
+    }
+
+    private void reais(long cents) {
+        sb.append(';');
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long c = cents % 100;
+        sb.append(cents / 100).append('.').append(c < 10 ? "0" : "").append(c);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.checkout.io;
+
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.Item;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Um item por linha, separado por {@code ;}, com cabeçalho. Linhas consecutivas com o
+ * mesmo {@code id} formam um carrinho; os campos do carrinho vêm da primeira delas.
+ * <pre>
+ * id;tier;primeiraCompra;region;peso;couponCode;today;couponExpiryInclusive;categoria;precoUnitario;quantidade
+ * c1;GOLD;false;SUL;2.5;DESC10;2025-01-10;;BOOK;39.90;2
+ * c1;GOLD;false;SUL;2.5;DESC10;2025-01-10;;ROUPA;80.00;1
+ * </pre>
+ * Colunas de carrinho ausentes no cabeçalho assumem o padrão.
+ */
+final class CsvCartReader implements CartReader {
+
+    private static final String[] OBRIGATORIAS = {"id", "precoUnitario", "quantidade"};
+
+    private final BufferedReader in;
+    private final LocalDate hoje;
+    private final Map<String, Integer> colunas = new HashMap<>();
+    private String[] pendente;
+    private long linha;
+
+    CsvCartReader(BufferedReader in, LocalDate hoje) throws IOException {
+        this.in = in;
+        this.hoje = hoje;
+        String cabecalho = in.readLine();
+        linha++;
+        if (cabecalho == null) return;
+        String[] nomes = cabecalho.split(";", -1);
+        for (int i = 0; i < nomes.length; i++) colunas.put(nomes[i].strip(), i);
+        for (String c : OBRIGATORIAS) {
+            if (!colunas.containsKey(c)) throw new IllegalArgumentException("cabeçalho sem a coluna " + c);
+        }
+        pendente = ler();
+    }
+
+    private String[] ler() throws IOException {
+        String s;
+        while ((s = in.readLine()) != null) {
+            linha++;
+            if (!s.isBlank()) return s.split(";", -1);
+        }
+        return null;
+    }
+
+    private String campo(String[] c, String nome) {
+        Integer i = colunas.get(nome);
+        return i == null || i >= c.length ? null : c[i].strip();
+    }
+
+    @Override
+    public CartEntry next() throws IOException {
+        if (pendente == null) return null;
+        String[] primeira = pendente;
+        long linhaInicial = linha;
+        String id = campo(primeira, "id");
+        if (id == null) id = Long.toString(linhaInicial);
+        try {
+            List<Item> itens = new ArrayList<>();
+            do {
+                String categoria = campo(pendente, "categoria");
+                itens.add(new Item(categoria == null ? "" : categoria,
+                        Campos.numero(campo(pendente, "precoUnitario"), "precoUnitario"),
+                        Campos.inteiro(campo(pendente, "quantidade"), "quantidade")));
+                pendente = ler();
+            } while (pendente != null && id.equals(campo(pendente, "id")));
+
+            String peso = campo(primeira, "peso");
+            CheckoutRequest req = new CheckoutRequest(itens,
+                    Campos.tier(campo(primeira, "tier")),
+                    Campos.booleano(campo(primeira, "primeiraCompra")),
+                    Campos.texto(campo(primeira, "region")),
+                    peso == null || peso.isEmpty() ? 0.0 : Campos.numero(peso, "peso"),
+                    Campos.texto(campo(primeira, "couponCode")),
+                    Campos.data(campo(primeira, "today"), hoje),
+                    Campos.data(campo(primeira, "couponExpiryInclusive"), null));
+            return new CartEntry(id, req);
+        } catch (RuntimeException e) {
+            // descarta o resto das linhas do carrinho e segue com o próximo
+            while (pendente != null && id.equals(campo(pendente, "id"))) pendente = ler();
+            return CartEntry.erro(id, "carrinho " + id + " (linha " + linhaInicial + "): " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
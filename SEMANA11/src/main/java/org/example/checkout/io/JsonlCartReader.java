@@ -0,0 +1,219 @@
+package org.example.checkout.io;
+
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.Item;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Um carrinho JSON por linha, com os nomes de campo de {@link CheckoutRequest}:
+ * <pre>
+ * {"id":"c1","tier":"GOLD","primeiraCompra":false,"region":"SUL","peso":2.5,
+ *  "couponCode":"DESC10","today":"2025-01-10","couponExpiryInclusive":null,
+ *  "itens":[{"categoria":"BOOK","precoUnitario":39.9,"quantidade":2}]}
+ * </pre>
+ * Só {@code itens} e, em cada item, {@code precoUnitario} e {@code quantidade} são obrigatórios.
+ */
+final class JsonlCartReader implements CartReader {
+
+    private final BufferedReader in;
+    private final LocalDate hoje;
+    private long linha;
+
+    JsonlCartReader(BufferedReader in, LocalDate hoje) {
+        this.in = in;
+        this.hoje = hoje;
+    }
+
+    @Override
+    public CartEntry next() throws IOException {
+        String s;
+        while ((s = in.readLine()) != null) {
+            linha++;
+            if (s.isBlank()) continue;
+            Map<String, Object> o = null;
+            try {
+                o = new Json(s).objeto();
+                return carrinho(o);
+            } catch (RuntimeException e) {
+                // sem id legível, o carrinho é identificado pela linha, como quando o campo falta
+                Object id = o == null ? null : o.get("id");
+                return CartEntry.erro(id instanceof String t ? t : Long.toString(linha),
+                        "linha " + linha + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private CartEntry carrinho(Map<String, Object> o) {
+        Object itensJson = o.get("itens");
+        if (!(itensJson instanceof List<?> lista)) throw new IllegalArgumentException("campo obrigatório: itens");
+        List<Item> itens = new ArrayList<>(lista.size());
+        for (Object i : lista) {
+            if (!(i instanceof Map<?, ?> item)) throw new IllegalArgumentException("item inválido");
+            Object categoria = item.get("categoria");
+            itens.add(new Item(categoria == null ? "" : (String) categoria,
+                    Campos.numero((String) item.get("precoUnitario"), "precoUnitario"),
+                    Campos.inteiro((String) item.get("quantidade"), "quantidade")));
+        }
+        Object id = o.get("id");
+        Object peso = o.get("peso");
+        CheckoutRequest req = new CheckoutRequest(itens,
+                Campos.tier((String) o.get("tier")),
+                Campos.booleano((String) o.get("primeiraCompra")),
+                (String) o.get("region"),
+                peso == null ? 0.0 : Campos.numero((String) peso, "peso"),
+                (String) o.get("couponCode"),
+                Campos.data((String) o.get("today"), hoje),
+                Campos.data((String) o.get("couponExpiryInclusive"), null));
+        return new CartEntry(id == null ? Long.toString(linha) : (String) id, req);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Parser JSON mínimo: objetos viram {@code Map}, arrays {@code List};
+     * strings, números e booleanos ficam como texto, para conversão por {@link Campos}.
+     * O aninhamento é limitado a {@value #PROFUNDIDADE_MAXIMA} níveis, para uma linha
+     * maliciosa virar erro de leitura e não estourar a pilha.
+     */
+    private static final class Json {
+        /** O formato usa 3 níveis (carrinho, itens, item); a folga cobre campos extras. */
+        static final int PROFUNDIDADE_MAXIMA = 64;
+
+        private final String s;
+        private int p;
+        private int profundidade;
+
+        Json(String s) {
+            this.s = s;
+        }
+
+        Map<String, Object> objeto() {
+            Object v = valor();
+            espacos();
+            if (p != s.length()) throw erro("conteúdo após o objeto");
+            if (!(v instanceof Map)) throw erro("esperado um objeto");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> m = (Map<String, Object>) v;
+            return m;
+        }
+
+        private Object valor() {
+            espacos();
+            if (p >= s.length()) throw erro("fim inesperado");
+            char c = s.charAt(p);
+            switch (c) {
+                case '{':
+                case '[':
+                    if (++profundidade > PROFUNDIDADE_MAXIMA) throw erro("aninhamento acima de " + PROFUNDIDADE_MAXIMA + " níveis");
+                    Object v = c == '{' ? mapa() : lista();
+                    profundidade--;
+                    return v;
+                case '"': return string();
+                default: return literal();
+            }
+        }
+
+        private Map<String, Object> mapa() {
+            Map<String, Object> m = new HashMap<>();
+            p++;
+            espacos();
+            if (consumir('}')) return m;
+            do {
+                espacos();
+                if (p >= s.length() || s.charAt(p) != '"') throw erro("esperado nome de campo");
+                String k = string();
+                espacos();
+                if (!consumir(':')) throw erro("esperado ':'");
+                m.put(k, valor());
+                espacos();
+            } while (consumir(','));
+            if (!consumir('}')) throw erro("esperado '}'");
+            return m;
+        }
+
+        private List<Object> lista() {
+            List<Object> l = new ArrayList<>();
+            p++;
+            espacos();
+            if (consumir(']')) return l;
+            do {
+                l.add(valor());
+                espacos();
+            } while (consumir(','));
+            if (!consumir(']')) throw erro("esperado ']'");
+            return l;
+        }
+
+        private String string() {
+            p++;
+            StringBuilder sb = null;
+            int ini = p;
+            while (p < s.length()) {
+                char c = s.charAt(p);
+                if (c == '"') {
+                    String r = sb == null ? s.substring(ini, p) : sb.append(s, ini, p).toString();
+                    p++;
+                    return r;
+                }
+                if (c == '\\') {
+                    if (sb == null) sb = new StringBuilder();
+                    sb.append(s, ini, p);
+                    if (++p >= s.length()) break;
+                    char e = s.charAt(p++);
+                    switch (e) {
+                        case 'n': sb.append('\n'); break;
+                        case 't': sb.append('\t'); break;
+                        case 'r': sb.append('\r'); break;
+                        case 'b': sb.append('\b'); break;
+                        case 'f': sb.append('\f'); break;
+                        case 'u':
+                            if (p + 4 > s.length()) throw erro("escape \\u incompleto");
+                            sb.append((char) Integer.parseInt(s.substring(p, p + 4), 16));
+                            p += 4;
+                            break;
+                        default: sb.append(e);
+                    }
+                    ini = p;
+                } else {
+                    p++;
+                }
+            }
+            throw erro("string não terminada");
+        }
+
+        private String literal() {
+            int ini = p;
+            while (p < s.length() && ",}] \t".indexOf(s.charAt(p)) < 0) p++;
+            String t = s.substring(ini, p);
+            if (t.isEmpty()) throw erro("valor esperado");
+            return t.equals("null") ? null : t;
+        }
+
+        private boolean consumir(char c) {
+            if (p < s.length() && s.charAt(p) == c) {
+                p++;
+                return true;
+            }
+            return false;
+        }
+
+        private void espacos() {
+            while (p < s.length() && Character.isWhitespace(s.charAt(p))) p++;
+        }
+
+        private IllegalArgumentException erro(String msg) {
+            return new IllegalArgumentException("JSON inválido na coluna " + (p + 1) + ": " + msg);
+        }
+    }
+}
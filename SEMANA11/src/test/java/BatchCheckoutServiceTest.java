@@ -0,0 +1,152 @@
+import org.example.checkout.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchCheckoutServiceTest {
+
+    private final CouponService couponSvc = new CouponService();
+    private final ShippingService shipSvc = new ShippingService();
+    private final CheckoutService service = new CheckoutService(couponSvc, shipSvc);
+    private final BatchCheckoutService batch = new BatchCheckoutService(couponSvc, shipSvc);
+
+    private static final String[] CATEGORIAS = {"BOOK", "ELETRONICO", "ROUPA"};
+    private static final String[] REGIOES = {"SUL", "SUDESTE", "NORTE", "NORDESTE", null};
+    private static final String[] CUPONS = {null, "", "DESC10", "DESC20", "FRETEGRATIS", "INVALIDO"};
+
+    private static List<CheckoutRequest> carrinhos(int n, long seed) {
+        var rnd = new Random(seed);
+        var hoje = LocalDate.of(2025, 1, 10);
+        var lista = new ArrayList<CheckoutRequest>(n);
+        for (int c = 0; c < n; c++) {
+            var itens = new ArrayList<Item>();
+            int qtdItens = 1 + rnd.nextInt(5);
+            for (int i = 0; i < qtdItens; i++) {
+                itens.add(new Item(CATEGORIAS[rnd.nextInt(CATEGORIAS.length)],
+                        rnd.nextInt(20_000) / 100.0, 1 + rnd.nextInt(3)));
+            }
+            lista.add(new CheckoutRequest(itens,
+                    CustomerTier.values()[rnd.nextInt(3)], rnd.nextBoolean(),
+                    REGIOES[rnd.nextInt(REGIOES.length)], rnd.nextInt(100) / 10.0,
+                    CUPONS[rnd.nextInt(CUPONS.length)], hoje,
+                    rnd.nextBoolean() ? null : hoje.plusDays(rnd.nextInt(11) - 5)));
+        }
+        return lista;
+    }
+
+    private static void assertMesmoResultado(CheckoutResult esperado, CheckoutResult atual) {
+        assertEquals(esperado.subtotal, atual.subtotal);
+        assertEquals(esperado.discountValue, atual.discountValue);
+        assertEquals(esperado.tax, atual.tax);
+        assertEquals(esperado.shipping, atual.shipping);
+        assertEquals(esperado.total, atual.total);
+    }
+
+    @Test
+    public void loteDeveProduzirOsMesmosResultadosQueOCheckoutIndividualEmOrdem() {
+        var lista = carrinhos(2_000, 42L);
+
+        var resultados = batch.checkoutAll(lista);
+
+        assertEquals(lista.size(), resultados.size());
+        for (int i = 0; i < lista.size(); i++) {
+            var c = lista.get(i);
+            var esperado = service.checkout(c.itens, c.tier, c.primeiraCompra, c.region, c.peso,
+                    c.couponCode, c.today, c.couponExpiryInclusive);
+            assertMesmoResultado(esperado, resultados.get(i));
+        }
+    }
+
+    @Test
+    public void loteViaStreamDeveManterAOrdemDeEncontro() {
+        var lista = carrinhos(500, 7L);
+
+        var porLista = batch.checkoutAll(lista);
+        var porStream = batch.checkoutAll(lista.stream()).toList();
+
+        assertEquals(porLista.size(), porStream.size());
+        for (int i = 0; i < porLista.size(); i++) {
+            assertMesmoResultado(porLista.get(i), porStream.get(i));
+        }
+    }
+
+    @Test
+    public void memosLimitadosMantemOsResultadosComEntradasVariadas() {
+        // mais códigos e regiões distintos que o limite do memo: ele recomeça vazio no meio do lote
+        var rnd = new Random(3L);
+        var hoje = LocalDate.of(2025, 1, 10);
+        var lista = new ArrayList<CheckoutRequest>();
+        for (int c = 0; c < 5_000; c++) {
+            String cupom = c % 3 == 0 ? CUPONS[rnd.nextInt(CUPONS.length)] : "X" + c;
+            String regiao = c % 2 == 0 ? REGIOES[rnd.nextInt(REGIOES.length)] : "R" + c;
+            lista.add(new CheckoutRequest(List.of(new Item("ROUPA", rnd.nextInt(40_000) / 100.0, 1)),
+                    CustomerTier.BASIC, false, regiao, rnd.nextInt(100) / 10.0, cupom,
+                    hoje.plusDays(rnd.nextInt(30)), hoje.plusDays(rnd.nextInt(30))));
+        }
+
+        var resultados = batch.checkoutAll(lista.stream()).toList();
+
+        for (int i = 0; i < lista.size(); i++) {
+            var c = lista.get(i);
+            assertMesmoResultado(service.checkout(c.itens, c.tier, c.primeiraCompra, c.region, c.peso,
+                    c.couponCode, c.today, c.couponExpiryInclusive), resultados.get(i));
+        }
+    }
+
+    @Test
+    public void deveLancarErroNoLoteQuandoPesoNegativo() {
+        var hoje = LocalDate.now();
+        var lista = List.of(new CheckoutRequest(List.of(new Item("ROUPA", 10.0, 1)),
+                CustomerTier.BASIC, false, "SUL", -1.0, null, hoje, null));
+
+        assertThrows(IllegalArgumentException.class, () -> batch.checkoutAll(lista));
+    }
+
+    @Test
+    public void loteUsaAsCategoriasIsentasDoRegistroInformado() {
+        var registro = new CategoryRegistry();
+        registro.registrarIsenta("REVISTA");
+        var comRegistro = new CheckoutService(couponSvc, shipSvc, null, registro);
+        var lote = new BatchCheckoutService(couponSvc, shipSvc, java.util.concurrent.ForkJoinPool.commonPool(), registro);
+        var c = new CheckoutRequest(List.of(new Item(registro, "revista", 100.0, 1)), CustomerTier.BASIC, false,
+                "SUL", 1.0, null, LocalDate.of(2025, 1, 10), null);
+
+        var r = lote.checkoutAll(List.of(c)).get(0);
+
+        assertEquals(0, r.taxCents);
+        assertMesmoResultado(comRegistro.checkout(c.itens, c.tier, c.primeiraCompra, c.region, c.peso,
+                c.couponCode, c.today, c.couponExpiryInclusive), r);
+    }
+
+    @Test
+    public void loteViaStreamRodaNoPoolInformado() {
+        var pool = new java.util.concurrent.ForkJoinPool(2);
+        var threads = java.util.concurrent.ConcurrentHashMap.<Thread>newKeySet();
+        var frete = new ShippingService() {
+            @Override
+            public double calculate(String region, double weight, double subtotal, boolean freeShipping) {
+                threads.add(Thread.currentThread());
+                return super.calculate(region, weight, subtotal, freeShipping);
+            }
+        };
+        try {
+            var lote = new BatchCheckoutService(couponSvc, frete, pool);
+            var lista = carrinhos(3_000, 11L);
+
+            var resultados = lote.checkoutAll(lista.stream()).toList();
+
+            assertEquals(lista.size(), resultados.size());
+            assertFalse(threads.isEmpty());
+            for (Thread t : threads) {
+                assertTrue(t instanceof java.util.concurrent.ForkJoinWorkerThread w && w.getPool() == pool, t.getName());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+import org.example.checkout.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingCheckoutServiceTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 1, 10);
+    private static final String[] CATEGORIAS = {"BOOK", "ELETRONICO", "ROUPA"};
+    private static final String[] REGIOES = {"SUL", "sul ", "NORTE", "NORDESTE", null};
+    private static final String[] CUPONS = {null, "", "DESC10", " desc10", "DESC20", "FRETEGRATIS", "INVALIDO"};
+
+    @TempDir
+    Path dir;
+
+    private final RelogioManual relogio = new RelogioManual();
+    private final CheckoutService semCache = new CheckoutService(new CouponService(), new ShippingService());
+
+    private CachingCheckoutService comCache(int capacidade) {
+        return new CachingCheckoutService(new CouponService(), new ShippingService(),
+                capacidade, Duration.ofMinutes(5), relogio);
+    }
+
+    private static CheckoutResult checkout(CheckoutService s, List<Item> itens, String region, String cupom,
+                                           LocalDate expiry) {
+        return s.checkout(itens, CustomerTier.SILVER, true, region, 3.0, cupom, HOJE, expiry);
+    }
+
+    private static void assertMesmoResultado(CheckoutResult esperado, CheckoutResult atual) {
+        assertEquals(esperado.subtotalCents, atual.subtotalCents);
+        assertEquals(esperado.discountCents, atual.discountCents);
+        assertEquals(esperado.taxCents, atual.taxCents);
+        assertEquals(esperado.shippingCents, atual.shippingCents);
+        assertEquals(esperado.totalCents, atual.totalCents);
+    }
+
+    @Test
+    void resultadosIguaisAoServicoSemCache() {
+        var svc = comCache(10_000);
+        var rnd = new Random(3);
+        for (int c = 0; c < 5_000; c++) {
+            var itens = new ArrayList<Item>();
+            // poucos carrinhos distintos, para haver repetição
+            var r = new Random(rnd.nextInt(200));
+            for (int i = 0, n = 1 + r.nextInt(4); i < n; i++) {
+                itens.add(new Item(CATEGORIAS[r.nextInt(3)], r.nextInt(20_000) / 100.0, 1 + r.nextInt(3)));
+            }
+            String region = REGIOES[rnd.nextInt(REGIOES.length)];
+            String cupom = CUPONS[rnd.nextInt(CUPONS.length)];
+            LocalDate expiry = rnd.nextBoolean() ? null : HOJE.plusDays(rnd.nextInt(3) - 1);
+            assertMesmoResultado(checkout(semCache, itens, region, cupom, expiry),
+                    checkout(svc, itens, region, cupom, expiry));
+        }
+        assertEquals(5_000, svc.hits() + svc.misses());
+        assertTrue(svc.hits() > 2_500, "hits: " + svc.hits());
+    }
+
+    @Test
+    void normalizaCupomRegiaoEDatasIrrelevantes() {
+        var svc = comCache(100);
+        var itens = List.of(new Item("ROUPA", 120.0, 1));
+
+        CheckoutResult primeiro = checkout(svc, itens, "SUL", "DESC10", null);
+        assertSame(primeiro, checkout(svc, itens, " sul", " desc10 ", null));
+        // DESC10 não usa a validade do checkout
+        assertSame(primeiro, checkout(svc, itens, "SUL", "Desc10", HOJE.minusDays(1)));
+        assertEquals(1, svc.misses());
+
+        // cupons desconhecidos e ausentes são o mesmo carrinho
+        CheckoutResult semCupom = checkout(svc, itens, "NORDESTE", null, null);
+        assertSame(semCupom, checkout(svc, itens, "NORDESTE", "NAOEXISTE", HOJE));
+        // regiões sem tarifa própria caem todas na padrão
+        assertSame(semCupom, checkout(svc, itens, "CENTRO-OESTE", "", null));
+        assertEquals(2, svc.misses());
+        assertEquals(4, svc.hits());
+    }
+
+    @Test
+    void validadeEntraNaChaveQuandoOCupomUsa() {
+        var svc = comCache(100);
+        var itens = List.of(new Item("ROUPA", 150.0, 1));
+
+        assertMesmoResultado(checkout(semCache, itens, "SUL", "DESC20", HOJE),
+                checkout(svc, itens, "SUL", "DESC20", HOJE));
+        assertMesmoResultado(checkout(semCache, itens, "SUL", "DESC20", HOJE.minusDays(1)),
+                checkout(svc, itens, "SUL", "DESC20", HOJE.minusDays(1)));
+        assertEquals(2, svc.misses());
+        checkout(svc, itens, "SUL", "DESC20", HOJE.minusDays(1));
+        assertEquals(1, svc.hits());
+    }
+
+    @Test
+    void expiraPorTempo() {
+        var svc = comCache(100);
+        var itens = List.of(new Item("ROUPA", 10.0, 1));
+
+        checkout(svc, itens, "SUL", null, null);
+        relogio.avancar(Duration.ofMinutes(4));
+        checkout(svc, itens, "SUL", null, null);
+        assertEquals(1, svc.hits());
+
+        relogio.avancar(Duration.ofMinutes(2));
+        checkout(svc, itens, "SUL", null, null);
+        assertEquals(2, svc.misses());
+        assertEquals(1, svc.evictions());
+    }
+
+    @Test
+    void removeOMenosUsadoAoPassarDaCapacidade() {
+        var svc = comCache(2);
+        var a = List.of(new Item("ROUPA", 1.0, 1));
+        var b = List.of(new Item("ROUPA", 2.0, 1));
+        var c = List.of(new Item("ROUPA", 3.0, 1));
+
+        checkout(svc, a, "SUL", null, null);
+        checkout(svc, b, "SUL", null, null);
+        checkout(svc, a, "SUL", null, null);
+        checkout(svc, c, "SUL", null, null);
+        assertEquals(2, svc.size());
+        assertEquals(1, svc.evictions());
+
+        checkout(svc, a, "SUL", null, null);
+        assertEquals(2, svc.hits());
+        checkout(svc, b, "SUL", null, null);
+        assertEquals(4, svc.misses());
+    }
+
+    @Test
+    void reloadDaTabelaEsvaziaOCache() throws IOException {
+        Path arquivo = Files.write(dir.resolve("cupons.csv"), List.of("PROMO;0.10;false;;;;false"));
+        var cupons = new CouponService(arquivo);
+        var svc = new CachingCheckoutService(cupons, new ShippingService(), 100, Duration.ofHours(1), relogio);
+        var itens = List.of(new Item("ROUPA", 100.0, 1));
+
+        CheckoutResult antes = checkout(svc, itens, "SUL", "PROMO", null);
+        Files.write(arquivo, List.of("PROMO;0.25;false;;;;false"));
+        cupons.reload();
+        CheckoutResult depois = checkout(svc, itens, "SUL", "PROMO", null);
+
+        assertEquals(0, svc.hits());
+        assertMesmoResultado(new CheckoutService(cupons, new ShippingService())
+                .checkout(itens, CustomerTier.SILVER, true, "SUL", 3.0, "PROMO", HOJE, null), depois);
+        assertNotSame(antes, depois);
+    }
+
+    @Test
+    void servicosCustomizadosNaoSaoNormalizados() {
+        var cupons = new CouponService() {
+            @Override
+            public CouponResult evaluate(String code, LocalDate today, LocalDate expiryInclusive, double subtotal) {
+                return super.evaluate("x".equals(code) ? "FRETEGRATIS" : code, today, expiryInclusive, subtotal);
+            }
+        };
+        var svc = new CachingCheckoutService(cupons, new ShippingService(), 100, Duration.ofHours(1), relogio);
+        var itens = List.of(new Item("ROUPA", 100.0, 1));
+
+        CheckoutResult semCupom = checkout(svc, itens, "SUL", "y", null);
+        CheckoutResult comCupom = checkout(svc, itens, "SUL", "x", null);
+        assertTrue(semCupom.shippingCents > 0);
+        assertEquals(0, comCupom.shippingCents);
+        assertEquals(2, svc.misses());
+    }
+
+    @Test
+    void validaArgumentosComoOServico() {
+        var svc = comCache(10);
+        assertThrows(NullPointerException.class, () -> checkout(svc, null, "SUL", null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> svc.checkout(List.of(), CustomerTier.BASIC, false, "SUL", -1.0, null, HOJE, null));
+        assertEquals(0, svc.size());
+        assertThrows(IllegalArgumentException.class, () -> comCache(0));
+    }
+
+    private static final class RelogioManual extends Clock {
+        private Instant agora = Instant.parse("2025-01-10T10:00:00Z");
+
+        void avancar(Duration d) {
+            agora = agora.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
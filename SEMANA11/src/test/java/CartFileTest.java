@@ -0,0 +1,198 @@
+import org.example.CartPricingMain;
+import org.example.checkout.*;
+import org.example.checkout.io.CartEntry;
+import org.example.checkout.io.CartReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CartFileTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 1, 10);
+
+    @TempDir
+    Path dir;
+
+    private static final String JSONL = """
+            {"id":"c1","tier":"GOLD","primeiraCompra":false,"region":"SUL","peso":2.5,"couponCode":"DESC10","itens":[{"categoria":"BOOK","precoUnitario":39.9,"quantidade":2},{"categoria":"ROUPA","precoUnitario":80,"quantidade":1}]}
+
+            {"id":"c2","tier":"silver","primeiraCompra":true,"region":"NORTE","peso":7,"couponCode":null,"today":"2025-02-01","itens":[{"categoria":"ELETRONICO","precoUnitario":1999.99,"quantidade":1}]}
+            {"id":"c3","itens":[{"precoUnitario":10.5,"quantidade":3}]}
+            {"id":"c4","tier":"BASIC","region":"SUDESTE","peso":1,"couponCode":"FRETEGRATIS","couponExpiryInclusive":"2025-01-09","itens":[{"categoria":"ROUPA","precoUnitario":120,"quantidade":2}]}
+            {"id":"c5","tier":"GOLD","region":"NORDESTE","peso":12,"couponCode":"DESC20","itens":[{"categoria":"BOOK","precoUnitario":150,"quantidade":1}]}
+            """;
+
+    private static final String CSV = """
+            id;tier;primeiraCompra;region;peso;couponCode;today;couponExpiryInclusive;categoria;precoUnitario;quantidade
+            c1;GOLD;false;SUL;2.5;DESC10;;;BOOK;39.9;2
+            c1;GOLD;false;SUL;2.5;DESC10;;;ROUPA;80;1
+            c2;silver;true;NORTE;7;;2025-02-01;;ELETRONICO;1999.99;1
+            c3;;;;;;;;;10.5;3
+
+            c4;BASIC;;SUDESTE;1;FRETEGRATIS;;2025-01-09;ROUPA;120;2
+            c5;GOLD;;NORDESTE;12;DESC20;;;BOOK;150;1
+            """;
+
+    private List<CartEntry> lerTodos(Path arquivo) throws IOException {
+        List<CartEntry> lista = new ArrayList<>();
+        try (CartReader in = CartReader.open(arquivo, HOJE)) {
+            CartEntry e;
+            while ((e = in.next()) != null) lista.add(e);
+        }
+        return lista;
+    }
+
+    private Path escrever(String nome, String conteudo) throws IOException {
+        Path p = dir.resolve(nome);
+        Files.writeString(p, conteudo, StandardCharsets.UTF_8);
+        return p;
+    }
+
+    @Test
+    void jsonlECsvProduzemOsMesmosCarrinhos() throws IOException {
+        List<CartEntry> json = lerTodos(escrever("carrinhos.jsonl", JSONL));
+        List<CartEntry> csv = lerTodos(escrever("carrinhos.csv", CSV));
+
+        assertEquals(5, json.size());
+        assertEquals(5, csv.size());
+        for (int i = 0; i < json.size(); i++) {
+            CheckoutRequest a = json.get(i).request, b = csv.get(i).request;
+            assertEquals(json.get(i).id, csv.get(i).id);
+            assertEquals(a.itens.size(), b.itens.size());
+            for (int j = 0; j < a.itens.size(); j++) {
+                assertEquals(a.itens.get(j).getCategoria(), b.itens.get(j).getCategoria());
+                assertEquals(a.itens.get(j).getPrecoUnitarioCents(), b.itens.get(j).getPrecoUnitarioCents());
+                assertEquals(a.itens.get(j).getQuantidade(), b.itens.get(j).getQuantidade());
+            }
+            assertEquals(a.tier, b.tier);
+            assertEquals(a.primeiraCompra, b.primeiraCompra);
+            assertEquals(a.region, b.region);
+            assertEquals(a.peso, b.peso);
+            assertEquals(a.couponCode, b.couponCode);
+            assertEquals(a.today, b.today);
+            assertEquals(a.couponExpiryInclusive, b.couponExpiryInclusive);
+        }
+
+        CheckoutRequest c2 = json.get(1).request;
+        assertEquals(CustomerTier.SILVER, c2.tier);
+        assertEquals(LocalDate.of(2025, 2, 1), c2.today);
+        assertNull(c2.couponCode);
+
+        CheckoutRequest c3 = json.get(2).request;
+        assertEquals(CustomerTier.BASIC, c3.tier);
+        assertEquals(HOJE, c3.today);
+        assertNull(c3.region);
+    }
+
+    @Test
+    void precificaArquivoEmLotesNaOrdemDeEntrada() throws IOException {
+        Path entrada = escrever("carrinhos.jsonl", JSONL);
+        Path saida = dir.resolve("saida.csv");
+
+        CartPricingMain.main(new String[]{entrada.toString(), saida.toString(), "--lote=2", "--hoje=2025-01-10"});
+
+        List<String> linhas = Files.readAllLines(saida, StandardCharsets.UTF_8);
+        assertEquals("id;subtotal;discountValue;tax;shipping;total", linhas.get(0));
+        assertEquals(6, linhas.size());
+
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        List<CartEntry> carrinhos = lerTodos(entrada);
+        for (int i = 0; i < carrinhos.size(); i++) {
+            CheckoutRequest c = carrinhos.get(i).request;
+            CheckoutResult r = service.checkout(c.itens, c.tier, c.primeiraCompra, c.region, c.peso,
+                    c.couponCode, c.today, c.couponExpiryInclusive);
+            String[] col = linhas.get(i + 1).split(";");
+            assertEquals(carrinhos.get(i).id, col[0]);
+            assertEquals(r.subtotalCents, centavos(col[1]));
+            assertEquals(r.discountCents, centavos(col[2]));
+            assertEquals(r.taxCents, centavos(col[3]));
+            assertEquals(r.shippingCents, centavos(col[4]));
+            assertEquals(r.totalCents, centavos(col[5]));
+        }
+    }
+
+    @Test
+    void erroDeLeituraApontaCarrinhoELinhaESegue() throws IOException {
+        Path csv = escrever("ruim.csv", """
+                id;precoUnitario;quantidade
+                a;10;1
+                b;-5;1
+                b;7;1
+                c;abc;1
+                d;3;2
+                """);
+        try (CartReader in = CartReader.open(csv, HOJE)) {
+            assertTrue(in.next().valido());
+            CartEntry b = in.next();
+            assertFalse(b.valido());
+            assertEquals("b", b.id);
+            assertNull(b.request);
+            assertTrue(b.erro.contains("carrinho b"), b.erro);
+            assertTrue(b.erro.contains("linha 3"), b.erro);
+            CartEntry c = in.next();
+            assertEquals("c", c.id);
+            assertTrue(c.erro.contains("linha 5"), c.erro);
+            CartEntry d = in.next();
+            assertEquals("d", d.id);
+            assertEquals(2, d.request.itens.get(0).getQuantidade());
+            assertNull(in.next());
+        }
+    }
+
+    @Test
+    void linhasMalFormadasViramErroNaSaidaSemInterromper() throws IOException {
+        Path entrada = escrever("misto.jsonl", """
+                {"id":"ok1","itens":[{"categoria":"ROUPA","precoUnitario":10,"quantidade":1}]}
+                {"id":"quebrado","itens":[{"precoUnitario":10,
+                {"id":"negativo","itens":[{"precoUnitario":-1,"quantidade":1}]}
+                {"id":"ok2","itens":[{"categoria":"BOOK","precoUnitario":20,"quantidade":2}]}
+                {"id":"pesoNegativo","peso":-2,"itens":[{"precoUnitario":5,"quantidade":1}]}
+                """);
+        Path saida = dir.resolve("saida.csv");
+
+        CartPricingMain.main(new String[]{entrada.toString(), saida.toString(), "--lote=3", "--hoje=2025-01-10"});
+
+        List<String> linhas = Files.readAllLines(saida, StandardCharsets.UTF_8);
+        assertEquals(6, linhas.size());
+        assertTrue(linhas.get(1).startsWith("ok1;10.00;"), linhas.get(1));
+        assertTrue(linhas.get(2).startsWith("2;ERRO;linha 2: JSON inválido"), linhas.get(2));
+        assertTrue(linhas.get(3).startsWith("negativo;ERRO;linha 3: "), linhas.get(3));
+        assertTrue(linhas.get(4).startsWith("ok2;40.00;"), linhas.get(4));
+        assertTrue(linhas.get(5).startsWith("pesoNegativo;ERRO;"), linhas.get(5));
+    }
+
+    @Test
+    void aninhamentoProfundoViraErroDoCarrinho() throws IOException {
+        String fundo = "[".repeat(100_000) + "]".repeat(100_000);
+        Path entrada = escrever("fundo.jsonl",
+                "{\"id\":\"fundo\",\"itens\":" + fundo + "}\n"
+                        + "{\"id\":\"ok\",\"itens\":[{\"precoUnitario\":10,\"quantidade\":1}]}\n");
+
+        List<CartEntry> lidos = lerTodos(entrada);
+
+        assertEquals(2, lidos.size());
+        assertFalse(lidos.get(0).valido());
+        assertEquals("1", lidos.get(0).id);   // a linha não chegou a ser lida: vale o número dela
+        assertTrue(lidos.get(0).erro.contains("aninhamento"), lidos.get(0).erro);
+        assertTrue(lidos.get(1).valido());
+    }
+
+    @Test
+    void rejeitaExtensaoDesconhecida() throws IOException {
+        Path txt = escrever("carrinhos.txt", "");
+        assertThrows(IllegalArgumentException.class, () -> CartReader.open(txt, HOJE));
+    }
+
+    private static long centavos(String reais) {
+        return new java.math.BigDecimal(reais).movePointRight(2).longValueExact();
+    }
+}
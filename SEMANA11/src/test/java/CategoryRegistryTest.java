@@ -0,0 +1,139 @@
+import org.example.checkout.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CategoryRegistryTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 1, 10);
+
+    private final CategoryRegistry registro = new CategoryRegistry();
+    private final CheckoutService service = new CheckoutService(new CouponService(), new ShippingService(), null, registro);
+
+    private CheckoutResult checkout(CheckoutService s, Item item) {
+        return s.checkout(List.of(item), CustomerTier.BASIC, false, "SUL", 1.0, null, HOJE, null);
+    }
+
+    @Test
+    void bookEhIsentaEIgnoraCaixa() {
+        assertEquals(CategoryRegistry.BOOK, registro.id("BOOK"));
+        assertEquals(CategoryRegistry.BOOK, registro.id("book"));
+        assertEquals(CategoryRegistry.BOOK, registro.id("BoOk"));
+        assertTrue(registro.isenta(CategoryRegistry.BOOK));
+        assertTrue(registro.isenta("bOOK"));
+    }
+
+    @Test
+    void itemDevolveACategoriaComoInformadaEGuardaOId() {
+        assertEquals("book", new Item("book", 10.0, 1).getCategoria());
+        assertEquals(CategoryRegistry.BOOK, new Item("book", 10.0, 1).getCategoriaId());
+        Item eletronico = new Item(registro, "Eletronico", 10.0, 1);
+        assertEquals("Eletronico", eletronico.getCategoria());
+        assertEquals(registro.id("ELETRONICO"), eletronico.getCategoriaId());
+    }
+
+    @Test
+    void consultarNaoRegistra() {
+        assertFalse(registro.isenta("nunca-vista"));
+        assertEquals(CategoryRegistry.OUTRAS, registro.buscar("NUNCA-VISTA"));
+        checkout(new CheckoutService(new CouponService(), new ShippingService(), null, registro),
+                new Item("so-no-padrao", 10.0, 1));
+        assertEquals(1, registro.size());
+    }
+
+    @Test
+    void naoFazTrim() {
+        // "BOOK ".equalsIgnoreCase("BOOK") é false: continua tributável
+        int id = registro.id("BOOK ");
+        assertNotEquals(CategoryRegistry.BOOK, id);
+        assertFalse(registro.isenta(id));
+    }
+
+    @Test
+    void mesmaCategoriaMesmoId() {
+        int a = registro.id("ELETRONICO");
+        assertEquals(a, registro.id("eletronico"));
+        assertEquals(a, registro.id("Eletronico"));
+        assertEquals("ELETRONICO", registro.nome(a));
+        assertFalse(registro.isenta(a));
+        assertEquals(2, registro.size());
+        assertEquals(a, registro.buscar("eLETRONICO"));
+    }
+
+    @Test
+    void registrosSaoIndependentes() {
+        registro.registrarIsenta("REVISTA");
+        assertTrue(registro.isenta("revista"));
+        assertFalse(new CategoryRegistry().isenta("revista"));
+        assertFalse(CategoryRegistry.padrao().isenta("revista"));
+    }
+
+    @Test
+    void novaCategoriaIsentaNaoPagaImposto() {
+        service.categorias().registrarIsenta("REVISTA");
+        CheckoutResult revista = checkout(service, new Item(registro, "revista", 100.0, 1));
+        CheckoutResult livro = checkout(service, new Item(registro, "BOOK", 100.0, 1));
+        assertEquals(0, revista.taxCents);
+        assertEquals(livro.totalCents, revista.totalCents);
+        // item criado no registro padrão: resolvido pelo nome no registro do serviço
+        assertEquals(0, checkout(service, new Item("REVISTA", 100.0, 1)).taxCents);
+        PrimitiveCart c = new PrimitiveCart(service.categorias(), 1).add("Revista", 100.0, 1);
+        assertEquals(PrimitiveCart.ISENTO, c.categoria(0));
+        assertEquals(PrimitiveCart.ISENTO, PrimitiveCart.of(List.of(new Item(registro, "revista", 1.0, 1)), registro).categoria(0));
+
+        CheckoutService outro = new CheckoutService(new CouponService(), new ShippingService());
+        assertEquals(1200, checkout(outro, new Item("revista", 100.0, 1)).taxCents);
+    }
+
+    @Test
+    void isencaoNaoDependeDaOrdem() {
+        Item jogo = new Item(registro, "JOGO", 100.0, 1);
+        assertEquals(1200, checkout(service, jogo).taxCents);
+
+        assertEquals(service.categorias().id("jogo"), service.categorias().registrarIsenta("Jogo"));
+        assertEquals(0, checkout(service, jogo).taxCents);
+        // registrar de novo como isenta o que já é isenta não muda nada
+        assertEquals(CategoryRegistry.BOOK, service.categorias().registrarIsenta("Book"));
+    }
+
+    @Test
+    void cresceAlemDaCapacidadeInicial() {
+        for (int i = 0; i < 1_000; i++) assertEquals(i + 2, registro.id("cat-" + i));
+        registro.registrarIsenta("cat-999");
+        assertEquals(1_001, registro.size());
+        assertEquals("cat-0", registro.nome(2));
+        assertTrue(registro.isenta(1_001));
+        assertFalse(registro.isenta(1_000));
+    }
+
+    @Test
+    void acimaDoLimiteCategoriasFicamEmOutrasSemPerderAIsencao() {
+        for (int i = 0; i < CategoryRegistry.LIMITE; i++) registro.id("cat-" + i);
+        assertEquals(CategoryRegistry.LIMITE + 1, registro.size());
+
+        Item extra = new Item(registro, "extra", 100.0, 1);
+        assertEquals(CategoryRegistry.OUTRAS, extra.getCategoriaId());
+        assertEquals(CategoryRegistry.LIMITE + 1, registro.size());
+        assertEquals(1200, checkout(service, extra).taxCents);
+
+        registro.registrarIsenta("EXTRA");
+        assertEquals(0, checkout(service, extra).taxCents);
+    }
+
+    @Test
+    void registroConcorrenteAtribuiUmIdPorCategoria() {
+        int[] ids = IntStream.range(0, 10_000).parallel()
+                .map(i -> registro.id((i % 2 == 0 ? "conc-" : "CONC-") + (i % 50)))
+                .toArray();
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i % 100], ids[i]);
+            assertEquals(ids[i % 50], ids[i]);
+        }
+        assertEquals(50, IntStream.of(ids).distinct().count());
+        assertEquals(51, registro.size());
+    }
+}
@@ -0,0 +1,142 @@
+import org.example.checkout.*;
+import org.example.checkout.CheckoutMetrics.Etapa;
+import org.example.checkout.CheckoutMetrics.ResultadoCupom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckoutMetricsTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 1, 10);
+
+    private final CheckoutMetrics metrics = new CheckoutMetrics();
+    private final CheckoutService service = new CheckoutService(new CouponService(), new ShippingService(), metrics);
+    private final CheckoutService semMetricas = new CheckoutService(new CouponService(), new ShippingService());
+
+    private CheckoutResult checkout(CheckoutService s, CustomerTier tier, boolean primeira, String cupom, double preco) {
+        return s.checkout(List.of(new Item("ROUPA", preco, 1)), tier, primeira, "SUL", 2.0, cupom, HOJE, null);
+    }
+
+    @Test
+    void cronometraTodasAsEtapas() {
+        for (int i = 0; i < 10; i++) checkout(service, CustomerTier.BASIC, false, null, 10.0);
+        service.checkout(PrimitiveCart.of(List.of(new Item("BOOK", 5.0, 2))), CustomerTier.GOLD, false,
+                "NORTE", 1.0, "DESC10", HOJE, null);
+
+        CheckoutMetrics.Snapshot s = metrics.snapshot();
+        assertEquals(11, s.checkouts());
+        for (Etapa e : Etapa.values()) {
+            CheckoutMetrics.TimerSnapshot t = s.etapas().get(e);
+            assertEquals(11, t.count(), e.name());
+            assertTrue(t.totalNanos() >= t.maxNanos(), e.name());
+            assertTrue(t.mediaNanos() >= 0, e.name());
+        }
+    }
+
+    @Test
+    void contaResultadosDeCupomPorCodigo() {
+        checkout(service, CustomerTier.BASIC, false, "DESC10", 50.0);
+        checkout(service, CustomerTier.BASIC, false, " desc10", 50.0);
+        checkout(service, CustomerTier.BASIC, false, "DESC20", 50.0);   // abaixo do mínimo
+        checkout(service, CustomerTier.BASIC, false, "DESC20", 150.0);
+        checkout(service, CustomerTier.BASIC, false, "NAOEXISTE", 50.0);
+        checkout(service, CustomerTier.BASIC, false, "OUTRO", 50.0);
+        checkout(service, CustomerTier.BASIC, false, null, 50.0);
+        checkout(service, CustomerTier.BASIC, false, "  ", 50.0);
+
+        checkout(service, CustomerTier.BASIC, false, "FRETEGRATIS", 50.0);
+
+        Map<String, Map<ResultadoCupom, Long>> c = metrics.snapshot().cupons();
+        assertEquals(Map.of(ResultadoCupom.APLICADO, 2L), c.get("DESC10"));
+        assertEquals(Map.of(ResultadoCupom.APLICADO, 1L, ResultadoCupom.REJEITADO, 1L), c.get("DESC20"));
+        assertEquals(Map.of(ResultadoCupom.APLICADO, 1L), c.get("FRETEGRATIS"));
+        assertEquals(Map.of(ResultadoCupom.DESCONHECIDO, 2L, ResultadoCupom.SEM_CUPOM, 2L),
+                c.get(CheckoutMetrics.FORA_DA_TABELA));
+        assertEquals(4, c.size());
+    }
+
+    @Test
+    void contaTetoSoQuandoODescontoPassaDeTrintaPorCento() {
+        checkout(service, CustomerTier.GOLD, true, "DESC20", 200.0);    // 35% → 30%
+        checkout(service, CustomerTier.GOLD, true, "DESC10", 200.0);    // 25%
+        checkout(service, CustomerTier.SILVER, false, "DESC20", 200.0); // 25%
+        assertEquals(1, metrics.snapshot().tetoAtingido());
+        assertEquals(60.0, checkout(semMetricas, CustomerTier.GOLD, true, "DESC20", 200.0).discountValue);
+    }
+
+    @Test
+    void contaCupomPelaRegraAvaliadaMesmoComReloadNoMeio(@TempDir Path dir) throws IOException {
+        Path f = Files.write(dir.resolve("cupons.csv"), List.of("A1;0.05;false;;;;false"));
+        Path outro = Files.write(dir.resolve("outro.csv"), List.of("B2;0.07;false;;;;false"));
+        CouponService cupons = new CouponService(f) {
+            @Override
+            public CouponResult evaluate(String code, LocalDate today, LocalDate expiry, double subtotal) {
+                CouponResult r = super.evaluate(code, today, expiry, subtotal);
+                reload(outro);
+                return r;
+            }
+        };
+        CheckoutService s = new CheckoutService(cupons, new ShippingService(), metrics);
+
+        checkout(s, CustomerTier.BASIC, false, "a1", 50.0);
+
+        assertEquals(Map.of("A1", Map.of(ResultadoCupom.APLICADO, 1L)), metrics.snapshot().cupons());
+    }
+
+    @Test
+    void freteGratisAcimaDoPesoNaoContaComoAplicado() {
+        service.checkout(List.of(new Item("ROUPA", 50.0, 1)), CustomerTier.BASIC, false, "SUL", 5.0,
+                "FRETEGRATIS", HOJE, null);
+        service.checkout(List.of(new Item("ROUPA", 50.0, 1)), CustomerTier.BASIC, false, "SUL", 5.5,
+                "FRETEGRATIS", HOJE, null);
+        assertEquals(Map.of(ResultadoCupom.APLICADO, 1L, ResultadoCupom.SEM_EFEITO, 1L),
+                metrics.snapshot().cupons().get("FRETEGRATIS"));
+    }
+
+    @Test
+    void naoAlteraOResultado() {
+        for (CustomerTier tier : CustomerTier.values()) {
+            for (String cupom : new String[]{null, "DESC10", "DESC20", "FRETEGRATIS", "X"}) {
+                CheckoutResult a = checkout(semMetricas, tier, true, cupom, 123.45);
+                CheckoutResult b = checkout(service, tier, true, cupom, 123.45);
+                assertEquals(a.totalCents, b.totalCents);
+                assertEquals(a.discountCents, b.discountCents);
+                assertEquals(a.shippingCents, b.shippingCents);
+            }
+        }
+    }
+
+    @Test
+    void registroConcorrenteNaoPerdeContagens() {
+        IntStream.range(0, 20_000).parallel()
+                .forEach(i -> checkout(service, CustomerTier.BASIC, false, i % 2 == 0 ? "DESC10" : null, 10.0));
+        CheckoutMetrics.Snapshot s = metrics.snapshot();
+        assertEquals(20_000, s.checkouts());
+        assertEquals(20_000, s.etapas().get(Etapa.FRETE).count());
+        assertEquals(10_000L, s.cupons().get("DESC10").get(ResultadoCupom.APLICADO));
+    }
+
+    @Test
+    void exportaSnapshotComNomesPontuados() {
+        checkout(service, CustomerTier.BASIC, false, "FRETEGRATIS", 10.0);
+        Map<String, Number> m = metrics.snapshot().toMap();
+        assertEquals(1L, m.get("checkout.count"));
+        assertEquals(0L, m.get("checkout.desconto.teto"));
+        assertEquals(1L, m.get("checkout.etapa.cupom.count"));
+        assertTrue(m.containsKey("checkout.etapa.frete.max.nanos"));
+        assertEquals(1L, m.get("checkout.cupom.FRETEGRATIS.aplicado"));
+
+        metrics.reset();
+        assertEquals(0L, metrics.snapshot().toMap().get("checkout.count"));
+        assertTrue(metrics.snapshot().cupons().isEmpty());
+    }
+}
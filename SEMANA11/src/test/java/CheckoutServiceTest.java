@@ -72,7 +72,7 @@ public class CheckoutServiceTest {
         var resExpirado = service.checkout(
                 List.of(new Item("ELETRONICO", 100.00, 1)),
                 CustomerTier.BASIC, false, "SUL", 3.0,
-                "DESC20", LocalDate.now().plusDays(10), null
+                "DESC20", LocalDate.now().plusDays(10), LocalDate.now()
         );
 
         var resInvalido = service.checkout(
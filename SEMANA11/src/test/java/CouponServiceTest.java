@@ -0,0 +1,120 @@
+import org.example.checkout.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CouponServiceTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 12, 10);
+
+    @TempDir
+    Path dir;
+
+    private Path arquivo(String... linhas) throws IOException {
+        return Files.write(dir.resolve("cupons.csv"), List.of(linhas));
+    }
+
+    @Test
+    public void deveIgnorarCaixaEEspacosNoCodigo() {
+        var svc = new CouponService();
+
+        assertEquals(0.10, svc.evaluate("  desc10 ", HOJE, null, 10.0).discountPercent, 0.0001);
+        assertTrue(svc.evaluate("freteGratis", HOJE, null, 10.0).freeShipping);
+        assertEquals(0.0, svc.evaluate("DESC 10", HOJE, null, 10.0).discountPercent, 0.0001);
+        assertEquals(0.0, svc.evaluate("   ", HOJE, null, 10.0).discountPercent, 0.0001);
+    }
+
+    @Test
+    public void deveRespeitarSubtotalMinimoEValidadeDoCheckoutNoDesc20() {
+        var svc = new CouponService();
+
+        assertEquals(0.0, svc.evaluate("DESC20", HOJE, null, 99.99).discountPercent, 0.0001);
+        assertEquals(0.20, svc.evaluate("DESC20", HOJE, HOJE, 100.0).discountPercent, 0.0001);
+        assertEquals(0.0, svc.evaluate("DESC20", HOJE, HOJE.minusDays(1), 100.0).discountPercent, 0.0001);
+    }
+
+    @Test
+    public void deveCarregarRegrasDeArquivoComJanelaDeValidade() throws IOException {
+        var svc = new CouponService(arquivo(
+                "# codigo;percentual;freteGratis;subtotalMinimo;validoDe;validoAte;usaValidadeDoCheckout",
+                "NATAL;0.15;false;;2025-12-01;2025-12-25;false",
+                "ENVIO50;0;true;50;;;false"));
+
+        assertEquals(2, svc.size());
+        assertEquals(0.15, svc.evaluate("natal", HOJE, null, 10.0).discountPercent, 0.0001);
+        assertEquals(0.0, svc.evaluate("NATAL", LocalDate.of(2025, 11, 30), null, 10.0).discountPercent, 0.0001);
+        assertEquals(0.0, svc.evaluate("NATAL", LocalDate.of(2025, 12, 26), null, 10.0).discountPercent, 0.0001);
+        assertFalse(svc.evaluate("ENVIO50", HOJE, null, 49.99).freeShipping);
+        assertTrue(svc.evaluate("ENVIO50", HOJE, null, 50.0).freeShipping);
+        assertEquals(0.0, svc.evaluate("DESC10", HOJE, null, 10.0).discountPercent, 0.0001);
+    }
+
+    @Test
+    public void reloadDeveTrocarAsRegrasEManterAsAtuaisQuandoArquivoInvalido() throws IOException {
+        Path f = arquivo("A1;0.05;false;;;;false");
+        var svc = new CouponService(f);
+        assertEquals(0.05, svc.evaluate("A1", HOJE, null, 10.0).discountPercent, 0.0001);
+
+        Files.write(f, List.of("B2;0.07;false;;;;false"));
+        svc.reload();
+        assertEquals(0.0, svc.evaluate("A1", HOJE, null, 10.0).discountPercent, 0.0001);
+        assertEquals(0.07, svc.evaluate("B2", HOJE, null, 10.0).discountPercent, 0.0001);
+
+        Files.write(f, List.of("B2;0.07;false;;;;false", "b2;0.09;false;;;;false"));
+        var erro = assertThrows(IllegalArgumentException.class, svc::reload);
+        assertTrue(erro.getMessage().contains("duplicado"));
+        assertEquals(0.07, svc.evaluate("B2", HOJE, null, 10.0).discountPercent, 0.0001);
+    }
+
+    @Test
+    public void reloadComOutroArquivoPassaASerOArquivoRelido() throws IOException {
+        var svc = new CouponService(arquivo("A1;0.05;false;;;;false"));
+        Path outro = Files.write(dir.resolve("outro.csv"), List.of("C3;0.03;false;;;;false"));
+
+        svc.reload(outro);
+        Files.write(outro, List.of("C3;0.04;false;;;;false"));
+        svc.reload();
+
+        assertEquals(0.04, svc.evaluate("C3", HOJE, null, 10.0).discountPercent, 0.0001);
+        assertEquals(0.0, svc.evaluate("A1", HOJE, null, 10.0).discountPercent, 0.0001);
+    }
+
+    @Test
+    public void resultadosCompartilhadosNaoPodemSerAlterados() {
+        var svc = new CouponService();
+        assertSame(svc.evaluate("DESC10", HOJE, null, 10.0), svc.evaluate("desc10", HOJE, null, 50.0));
+        for (var campo : CouponResult.class.getFields()) {
+            assertTrue(java.lang.reflect.Modifier.isFinal(campo.getModifiers()), campo.getName());
+        }
+    }
+
+    @Test
+    public void deveSuportarMilharesDeCodigos() throws IOException {
+        var linhas = new ArrayList<String>();
+        for (int i = 0; i < 20_000; i++) {
+            linhas.add("CAMP" + i + ";" + (i % 30) / 100.0 + ";false;;;;false");
+        }
+        var svc = new CouponService(Files.write(dir.resolve("muitos.csv"), linhas));
+
+        assertEquals(20_000, svc.size());
+        for (int i = 0; i < 20_000; i += 997) {
+            assertEquals((i % 30) / 100.0, svc.evaluate("camp" + i, HOJE, null, 10.0).discountPercent, 0.0001);
+        }
+        assertEquals(0.0, svc.evaluate("CAMP20000", HOJE, null, 10.0).discountPercent, 0.0001);
+    }
+
+    @Test
+    public void deveApontarLinhaInvalida() throws IOException {
+        var erro = assertThrows(IllegalArgumentException.class,
+                () -> new CouponService(arquivo("OK;0.1;false;;;;false", "RUIM;abc;false;;;;false")));
+        assertTrue(erro.getMessage().contains(":2:"), erro.getMessage());
+    }
+}
@@ -0,0 +1,161 @@
+import org.example.checkout.*;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara o checkout em centavos (long) com o caminho original em double/BigDecimal.
+ */
+public class MoneyDifferentialTest {
+
+    private final CouponService couponSvc = new CouponService();
+    private final ShippingService shipSvc = new ShippingService();
+    private final CheckoutService service = new CheckoutService(couponSvc, shipSvc);
+
+    private static final String[] CATEGORIAS = {"BOOK", "book", "ELETRONICO", "ROUPA"};
+    private static final String[] REGIOES = {"SUL", "SUDESTE", "NORTE", "NORDESTE", null};
+    private static final String[] CUPONS = {null, "", "DESC10", "DESC20", "FRETEGRATIS", "INVALIDO"};
+
+    private static double round2(double v) {
+        return BigDecimal.valueOf(v).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    /** Cópia do algoritmo original, com round2 via BigDecimal. */
+    private double[] checkoutReferencia(List<Item> itens, CustomerTier tier, boolean primeiraCompra,
+                                        String region, double peso, String couponCode,
+                                        LocalDate today, LocalDate couponExpiryInclusive) {
+        double subtotal = 0.0;
+        double subtotalTributavel = 0.0;
+        for (Item i : itens) {
+            double s = i.subtotal();
+            subtotal += s;
+            if (!"BOOK".equalsIgnoreCase(i.getCategoria())) {
+                subtotalTributavel += s;
+            }
+        }
+        subtotal = round2(subtotal);
+        subtotalTributavel = round2(subtotalTributavel);
+
+        double tierPct = (tier == CustomerTier.SILVER ? 0.05 : (tier == CustomerTier.GOLD ? 0.10 : 0.0));
+        double firstPct = (primeiraCompra && subtotal >= 50.0) ? 0.05 : 0.0;
+
+        CouponResult cr = couponSvc.evaluate(couponCode, today, couponExpiryInclusive, subtotal);
+        double totalPct = tierPct + firstPct + cr.discountPercent;
+        if (totalPct > 0.30) totalPct = 0.30;
+
+        double discountValue = round2(subtotal * totalPct);
+        double baseAposDesconto = round2(subtotal - discountValue);
+
+        double proporcaoTributavel = (subtotal == 0.0) ? 0.0 : (subtotalTributavel / subtotal);
+        double baseTributavelAposDesc = round2(baseAposDesconto * proporcaoTributavel);
+        double tax = round2(baseTributavelAposDesc * 0.12);
+
+        boolean freeByCouponWeight = cr.freeShipping && peso <= 5.0;
+        double shipping = shipSvc.calculate(region, peso, baseAposDesconto, freeByCouponWeight);
+
+        double total = round2(baseAposDesconto + tax + shipping);
+        return new double[]{subtotal, discountValue, tax, shipping, total};
+    }
+
+    private static double precoAleatorio(Random rnd) {
+        switch (rnd.nextInt(4)) {
+            case 0: return rnd.nextInt(100_000) / 100.0;          // centavos
+            case 1: return rnd.nextInt(1_000_000) / 1000.0;       // 3 casas, muitos pontos médios
+            case 2: return rnd.nextInt(10_000) + 0.005;           // ponto médio explícito
+            default: return rnd.nextDouble() * 5_000;             // double qualquer
+        }
+    }
+
+    @Test
+    public void checkoutEmCentavosDeveSerIdenticoAoCaminhoBigDecimal() {
+        var rnd = new Random(20240611L);
+        var hoje = LocalDate.of(2025, 1, 10);
+
+        for (int n = 0; n < 50_000; n++) {
+            int qtdItens = 1 + rnd.nextInt(rnd.nextInt(10) == 0 ? 200 : 8);
+            var itens = new ArrayList<Item>(qtdItens);
+            for (int i = 0; i < qtdItens; i++) {
+                itens.add(new Item(CATEGORIAS[rnd.nextInt(CATEGORIAS.length)],
+                        precoAleatorio(rnd), 1 + rnd.nextInt(5)));
+            }
+            var tier = CustomerTier.values()[rnd.nextInt(3)];
+            boolean primeira = rnd.nextBoolean();
+            var regiao = REGIOES[rnd.nextInt(REGIOES.length)];
+            double peso = rnd.nextInt(100) / 10.0;
+            var cupom = CUPONS[rnd.nextInt(CUPONS.length)];
+            var validade = rnd.nextBoolean() ? null : hoje.plusDays(rnd.nextInt(11) - 5);
+
+            double[] esperado = checkoutReferencia(itens, tier, primeira, regiao, peso, cupom, hoje, validade);
+            var res = service.checkout(itens, tier, primeira, regiao, peso, cupom, hoje, validade);
+
+            String ctx = "carrinho " + n;
+            assertEquals(esperado[0], res.subtotal, ctx);
+            assertEquals(esperado[1], res.discountValue, ctx);
+            assertEquals(esperado[2], res.tax, ctx);
+            assertEquals(esperado[3], res.shipping, ctx);
+            assertEquals(esperado[4], res.total, ctx);
+            assertEquals(Math.round(esperado[4] * 100), res.totalCents, ctx);
+        }
+    }
+
+    @Test
+    public void arredondamentoDeValorUnicoDeveCoincidirComBigDecimal() {
+        var rnd = new Random(99L);
+        var hoje = LocalDate.now();
+
+        for (int n = 0; n < 200_000; n++) {
+            double v = n < 100_000 ? n / 1000.0 : precoAleatorio(rnd) * (1 + rnd.nextInt(1000));
+            var res = service.checkout(List.of(new Item("BOOK", v, 1)),
+                    CustomerTier.BASIC, false, "SUL", 1.0, null, hoje, null);
+
+            assertEquals(round2(v), res.subtotal, "valor " + v);
+        }
+    }
+
+    @Test
+    public void itemEmCentavosDeveEquivalerAoPrecoEmReais() {
+        var item = Item.ofCents("ROUPA", 1999, 3);
+
+        assertEquals(19.99, item.getPrecoUnitario());
+        assertEquals(1999, item.getPrecoUnitarioCents());
+        assertEquals(5997, item.subtotalCents());
+        assertEquals(101, new Item("ROUPA", 1.005, 1).getPrecoUnitarioCents());
+        assertThrows(IllegalArgumentException.class, () -> Item.ofCents("ROUPA", -1, 1));
+    }
+
+    private static long centsReferencia(double v) {
+        return BigDecimal.valueOf(v).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    @Test
+    public void centavosDevemCoincidirComBigDecimalDosDoisLadosDoLimiteDoPontoFixo() {
+        double limite = 0x1p43;
+        // acima de 2^43 o caminho em ponto fixo errava: ...175 em vez de ...174
+        assertEquals(880317524203174L, new Item("ROUPA", 8.803175242031744E12, 1).getPrecoUnitarioCents());
+
+        List<Double> valores = new ArrayList<>();
+        double abaixo = limite;
+        double acima = limite;
+        for (int i = 0; i < 2_000; i++) {
+            abaixo = Math.nextDown(abaixo);
+            valores.add(abaixo);
+            valores.add(acima);
+            acima = Math.nextUp(acima);
+        }
+        var rnd = new Random(43L);
+        for (int i = 0; i < 100_000; i++) {
+            valores.add(limite / 2 + rnd.nextDouble() * limite / 2);     // [2^42, 2^43)
+            valores.add(limite + rnd.nextDouble() * (1e13 - limite));     // [2^43, 1e13)
+        }
+        for (double v : valores) {
+            assertEquals(centsReferencia(v), new Item("ROUPA", v, 1).getPrecoUnitarioCents(), "valor " + v);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import org.example.checkout.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimitiveCartTest {
+
+    private final CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+    private static final LocalDate HOJE = LocalDate.of(2025, 1, 10);
+    private static final String[] CATEGORIAS = {"BOOK", "book", "ELETRONICO", "ROUPA"};
+
+    private void assertMesmoResultado(List<Item> itens, CustomerTier tier, String cupom) {
+        CheckoutResult esperado = service.checkout(itens, tier, true, "SUL", 3.0, cupom, HOJE, null);
+        CheckoutResult atual = service.checkout(PrimitiveCart.of(itens, service.categorias()), tier, true, "SUL", 3.0, cupom, HOJE, null);
+        assertEquals(esperado.subtotalCents, atual.subtotalCents);
+        assertEquals(esperado.discountCents, atual.discountCents);
+        assertEquals(esperado.taxCents, atual.taxCents);
+        assertEquals(esperado.shippingCents, atual.shippingCents);
+        assertEquals(esperado.totalCents, atual.totalCents);
+    }
+
+    private static List<Item> itens(Random rnd, int n, int escalaPreco) {
+        List<Item> itens = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            itens.add(new Item(CATEGORIAS[rnd.nextInt(CATEGORIAS.length)],
+                    rnd.nextInt(20_000 * escalaPreco) / (100.0 * escalaPreco), 1 + rnd.nextInt(50)));
+        }
+        return itens;
+    }
+
+    @Test
+    void mesmoResultadoDaListaComPrecosEmCentavos() {
+        Random rnd = new Random(7);
+        for (int c = 0; c < 2_000; c++) {
+            int n = c % 10 == 0 ? 1 + rnd.nextInt(5_000) : 1 + rnd.nextInt(20);
+            assertMesmoResultado(itens(rnd, n, 1), CustomerTier.values()[rnd.nextInt(3)],
+                    rnd.nextBoolean() ? "DESC20" : null);
+        }
+    }
+
+    @Test
+    void mesmoResultadoDaListaComFracoesDeCentavo() {
+        Random rnd = new Random(11);
+        for (int c = 0; c < 2_000; c++) {
+            assertMesmoResultado(itens(rnd, 1 + rnd.nextInt(200), 1000), CustomerTier.GOLD, null);
+        }
+    }
+
+    @Test
+    void mesmoResultadoDaListaComVolumeAlto() {
+        List<Item> itens = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            itens.add(new Item(i % 3 == 0 ? "BOOK" : "ROUPA", 987_654.31 + i, 1_000_000));
+        }
+        assertMesmoResultado(itens, CustomerTier.BASIC, null);
+    }
+
+    @Test
+    void carrinhoVazio() {
+        assertMesmoResultado(List.of(), CustomerTier.SILVER, null);
+    }
+
+    @Test
+    void cresceAlemDaCapacidadeInicial() {
+        PrimitiveCart c = new PrimitiveCart(0);
+        for (int i = 0; i < 100; i++) c.add(i % 2 == 0 ? "Book" : "ROUPA", i, i + 1);
+        assertEquals(100, c.size());
+        assertEquals(PrimitiveCart.ISENTO, c.categoria(0));
+        assertEquals(PrimitiveCart.TRIBUTAVEL, c.categoria(99));
+        assertEquals(99.0, c.precoUnitario(99));
+        assertEquals(100, c.quantidade(99));
+        assertThrows(IndexOutOfBoundsException.class, () -> c.quantidade(100));
+    }
+
+    @Test
+    void validaComoItem() {
+        PrimitiveCart c = new PrimitiveCart();
+        assertThrows(IllegalArgumentException.class, () -> c.add("ROUPA", -0.01, 1));
+        assertThrows(IllegalArgumentException.class, () -> c.add("ROUPA", 1.0, 0));
+        assertThrows(IllegalArgumentException.class, () -> c.add((byte) 7, 1.0, 1));
+        assertThrows(NullPointerException.class, () -> c.add((String) null, 1.0, 1));
+        assertEquals(0, c.size());
+    }
+}
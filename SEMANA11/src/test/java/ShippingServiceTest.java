@@ -0,0 +1,97 @@
+import org.example.checkout.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShippingServiceTest {
+
+    @TempDir
+    Path dir;
+
+    /** Cadeia if/else original, para comparação. */
+    private static double freteOriginal(String region, double weight, double subtotal, boolean freeShipping) {
+        if (freeShipping || subtotal >= 300.0) return 0.0;
+        String r = region == null ? "" : region.trim().toUpperCase();
+        if ("SUL".equals(r) || "SUDESTE".equals(r)) {
+            if (weight <= 2.0) return 20.0;
+            if (weight <= 5.0) return 35.0;
+            return 50.0;
+        } else if ("NORTE".equals(r)) {
+            if (weight <= 2.0) return 30.0;
+            if (weight <= 5.0) return 55.0;
+            return 80.0;
+        } else {
+            return 40.0;
+        }
+    }
+
+    @Test
+    public void tabelaPadraoDeveCoincidirComAsRegrasOriginais() {
+        var ship = new ShippingService();
+        String[] regioes = {"SUL", " sul ", "Sudeste", "NORTE", "norte", "NORDESTE", "", null, "CENTRO-OESTE"};
+        double[] pesos = {0.0, 1.0, 2.0, Math.nextUp(2.0), 4.99, 5.0, Math.nextUp(5.0), 10.0, 1000.0};
+        double[] subtotais = {0.0, 299.99, 300.0, 1000.0};
+
+        for (String r : regioes) {
+            for (double p : pesos) {
+                for (double s : subtotais) {
+                    for (boolean gratis : new boolean[]{false, true}) {
+                        assertEquals(freteOriginal(r, p, s, gratis), ship.calculate(r, p, s, gratis),
+                                r + "/" + p + "/" + s + "/" + gratis);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void calculoPorIdDeRegiaoDeveCoincidirComPorNome() {
+        var ship = new ShippingService();
+        var rnd = new Random(1L);
+        String[] regioes = {"SUL", "SUDESTE", "NORTE", "NORDESTE", null};
+        for (int i = 0; i < 1_000; i++) {
+            String r = regioes[rnd.nextInt(regioes.length)];
+            double p = rnd.nextInt(100) / 10.0;
+            double s = rnd.nextInt(40_000) / 100.0;
+            assertEquals(ship.calculate(r, p, s, false), ship.calculate(ship.regionId(r), p, s, false));
+        }
+        assertEquals(ship.regionId("NORDESTE"), ship.regionId("CENTRO-OESTE"));
+        assertThrows(IllegalArgumentException.class, () -> ship.calculate(99, 1.0, 10.0, false));
+    }
+
+    @Test
+    public void deveCarregarTabelaDeArquivo() throws IOException {
+        Path f = Files.write(dir.resolve("fretes.csv"), List.of(
+                "gratisAPartirDe=500",
+                "SUL;1 3 10;10 15 25 60",
+                "NORDESTE;5;45 70",
+                "*;;55"));
+        var ship = new ShippingService(f);
+
+        assertEquals(10.0, ship.calculate("sul", 1.0, 100.0, false));
+        assertEquals(15.0, ship.calculate("SUL", 2.5, 100.0, false));
+        assertEquals(60.0, ship.calculate("SUL", 11.0, 100.0, false));
+        assertEquals(70.0, ship.calculate("NORDESTE", 6.0, 100.0, false));
+        assertEquals(55.0, ship.calculate("NORTE", 1.0, 100.0, false));
+        assertEquals(55.0, ship.calculate("NORTE", 1.0, 499.99, false));
+        assertEquals(0.0, ship.calculate("NORTE", 1.0, 500.0, false));
+    }
+
+    @Test
+    public void deveRejeitarTabelaInvalida() throws IOException {
+        Path semPadrao = Files.write(dir.resolve("a.csv"), List.of("SUL;2;20 30"));
+        Path faixasErradas = Files.write(dir.resolve("b.csv"), List.of("SUL;5 2;20 30 40", "*;;40"));
+        Path valoresFaltando = Files.write(dir.resolve("c.csv"), List.of("SUL;2 5;20 30", "*;;40"));
+
+        assertThrows(IllegalArgumentException.class, () -> new ShippingService(semPadrao));
+        assertThrows(IllegalArgumentException.class, () -> new ShippingService(faixasErradas));
+        assertThrows(IllegalArgumentException.class, () -> new ShippingService(valoresFaltando));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.config;
+
+import com.teste.spring.teste.config.ObservabilidadeConfig;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/** Mesmas métricas de persistência e endpoint da aplicação de clientes. */
+@Configuration
+@Import(ObservabilidadeConfig.class)
+public class ObservabilidadeImport {
+}
@@ -1,11 +1,24 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.PessoaDTO;
+import com.example.demo.dto.ResultadoImportacaoPessoas;
+import com.example.demo.service.PessoaExportService;
+import com.example.demo.service.PessoaImportacaoService;
 import com.example.demo.service.PessoaService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -15,19 +28,76 @@ public class PessoaController {
     @Autowired
     private PessoaService pessoaService;
 
+    @Autowired
+    private PessoaExportService pessoaExportService;
+
+    @Autowired
+    private PessoaImportacaoService pessoaImportacaoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<PessoaDTO> criar(@RequestBody PessoaDTO dto) {
         return ResponseEntity.ok(pessoaService.salvar(dto));
     }
 
+    /**
+     * Importação em lote: um array JSON ou NDJSON (uma pessoa por linha). O corpo é lido
+     * pessoa a pessoa enquanto grava, sem montar a lista em memória. CPF repetido responde
+     * 409 com os totais já gravados e a posição da primeira pessoa não gravada.
+     */
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<ResultadoImportacaoPessoas> importar(InputStream corpo) throws IOException {
+        try (MappingIterator<PessoaDTO> dtos = objectMapper.readerFor(PessoaDTO.class).readValues(corpo)) {
+            ResultadoImportacaoPessoas r = pessoaImportacaoService.importar(dtos);
+            return ResponseEntity.status(r.getErro() == null ? HttpStatus.OK : HttpStatus.CONFLICT).body(r);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PessoaDTO> buscarPorId(@PathVariable Long id) {
         return ResponseEntity.ok(pessoaService.buscarPorId(id));
     }
 
+    @GetMapping(params = "cpf")
+    public ResponseEntity<PessoaDTO> buscarPorCpf(@RequestParam String cpf) {
+        return ResponseEntity.ok(pessoaService.buscarPorCpf(cpf));
+    }
+
+    /** Busca por prefixo do nome, sem diferenciar maiúsculas nem acentos. */
+    @GetMapping(params = "nome")
+    public ResponseEntity<List<PessoaDTO>> buscarPorNome(@RequestParam String nome,
+                                                         @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(pessoaService.buscarPorNome(nome, limite));
+    }
+
+    /**
+     * No máximo {@value PessoaService#LIMITE_LISTAGEM} pessoas, em ordem de id. Se houver mais,
+     * a resposta leva um {@code Link} para {@code /export}, a listagem completa; para percorrer
+     * em partes há {@code /pagina}.
+     */
     @GetMapping
     public ResponseEntity<List<PessoaDTO>> listarTodos() {
-        return ResponseEntity.ok(pessoaService.listarTodos());
+        Slice<PessoaDTO> pessoas = pessoaService.listarTodos();
+        ResponseEntity.BodyBuilder r = ResponseEntity.ok();
+        if (pessoas.hasNext()) r.header(HttpHeaders.LINK, "</api/pessoas/export>; rel=\"alternate\"");
+        return r.body(pessoas.getContent());
+    }
+
+    @GetMapping("/pagina")
+    public ResponseEntity<Slice<PessoaDTO>> listarPagina(@RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(pessoaService.listarPagina(page, size));
+    }
+
+    /** Exportação completa em NDJSON, uma pessoa por linha, sem montar a lista em memória. */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        StreamingResponseBody corpo = pessoaExportService::exportar;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(corpo);
     }
 
     @PutMapping("/{id}")
@@ -40,4 +110,13 @@ public class PessoaController {
         pessoaService.deletar(id);
         return ResponseEntity.noContent().build();
     }
+
+    // CPF repetido: a unique uk_pessoa_cpf barra no insert/update
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> integridade(DataIntegrityViolationException ex) {
+        String causa = String.valueOf(ex.getMostSpecificCause().getMessage());
+        String msg = causa.toLowerCase().contains("uk_pessoa_cpf")
+                ? "CPF já cadastrado" : "Dados violam uma restrição do banco";
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(msg);
+    }
 }
@@ -9,6 +9,16 @@ public class PessoaDTO {
     private String cpf;
     private List<TrabalhoDTO> trabalhos;
 
+    public PessoaDTO() {
+    }
+
+    public PessoaDTO(Long id, String nome, String cpf, List<TrabalhoDTO> trabalhos) {
+        this.id = id;
+        this.nome = nome;
+        this.cpf = cpf;
+        this.trabalhos = trabalhos;
+    }
+
     // Getters e Setters
     public Long getId() {
         return id;
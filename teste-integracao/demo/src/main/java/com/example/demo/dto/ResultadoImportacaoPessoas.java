@@ -0,0 +1,41 @@
+package com.example.demo.dto;
+
+/**
+ * Totais de uma importação em lote de pessoas e a vazão obtida. Se a importação parou numa
+ * pessoa que viola uma restrição (CPF repetido), traz a posição dela e o motivo.
+ */
+public class ResultadoImportacaoPessoas {
+
+    private final long pessoas;
+    private final long trabalhos;
+    private final int transacoes;
+    private final long duracaoMs;
+    private final double linhasPorSegundo;
+    private final Long posicaoFalha;
+    private final String erro;
+
+    public ResultadoImportacaoPessoas(long pessoas, long trabalhos, int transacoes, long duracaoNanos) {
+        this(pessoas, trabalhos, transacoes, duracaoNanos, null, null);
+    }
+
+    public ResultadoImportacaoPessoas(long pessoas, long trabalhos, int transacoes, long duracaoNanos,
+                                      Long posicaoFalha, String erro) {
+        this.pessoas = pessoas;
+        this.trabalhos = trabalhos;
+        this.transacoes = transacoes;
+        this.duracaoMs = duracaoNanos / 1_000_000;
+        this.linhasPorSegundo = duracaoNanos == 0 ? 0.0 : (pessoas + trabalhos) * 1e9 / duracaoNanos;
+        this.posicaoFalha = posicaoFalha;
+        this.erro = erro;
+    }
+
+    public long getPessoas() { return pessoas; }
+    public long getTrabalhos() { return trabalhos; }
+    public int getTransacoes() { return transacoes; }
+    public long getDuracaoMs() { return duracaoMs; }
+    /** Pessoas mais trabalhos inseridos por segundo. */
+    public double getLinhasPorSegundo() { return linhasPorSegundo; }
+    /** Posição na entrada (a primeira é 1) da primeira pessoa não gravada; null se tudo foi gravado. */
+    public Long getPosicaoFalha() { return posicaoFalha; }
+    public String getErro() { return erro; }
+}
@@ -5,6 +5,14 @@ public class TrabalhoDTO {
     private Long id;
     private String descricao;
 
+    public TrabalhoDTO() {
+    }
+
+    public TrabalhoDTO(Long id, String descricao) {
+        this.id = id;
+        this.descricao = descricao;
+    }
+
     // Getters e Setters
     public Long getId() {
         return id;
@@ -1,19 +1,38 @@
 package com.example.demo.entity;
 
 import jakarta.persistence.*;
+import java.text.Normalizer;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_pessoa_cpf", columnNames = "cpf")
+}, indexes = {
+        // busca por prefixo do nome, já ordenada (desempate pelo id)
+        @Index(name = "idx_pessoa_nome_busca", columnList = "nome_busca, id")
+})
 public class Pessoa {
 
+    private static final Pattern FORMATACAO_CPF = Pattern.compile("[\\s.\\-/]");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}");
+
+    // sequência com pooling: IDENTITY impede o Hibernate de agrupar inserts em lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pessoa_seq")
+    @SequenceGenerator(name = "pessoa_seq", sequenceName = "pessoa_seq", allocationSize = 50)
     private Long id;
 
     private String nome;
 
+    /** Sem pontuação nem espaços (ver {@link #normalizarCpf}). */
     private String cpf;
 
+    /** Nome em minúsculas e sem acentos, para busca por prefixo. */
+    @Column(name = "nome_busca")
+    private String nomeBusca;
+
     @OneToMany(mappedBy = "pessoa", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Trabalho> trabalhos;
 
@@ -32,6 +51,7 @@ public class Pessoa {
 
     public void setNome(String nome) {
         this.nome = nome;
+        this.nomeBusca = normalizarNome(nome);
     }
 
     public String getCpf() {
@@ -39,7 +59,11 @@ public class Pessoa {
     }
 
     public void setCpf(String cpf) {
-        this.cpf = cpf;
+        this.cpf = normalizarCpf(cpf);
+    }
+
+    public String getNomeBusca() {
+        return nomeBusca;
     }
 
     public List<Trabalho> getTrabalhos() {
@@ -49,4 +73,17 @@ public class Pessoa {
     public void setTrabalhos(List<Trabalho> trabalhos) {
         this.trabalhos = trabalhos;
     }
+
+    /** "123.456.789-00" e "12345678900" viram o mesmo valor; vazio vira null (não colide na unique). */
+    public static String normalizarCpf(String cpf) {
+        if (cpf == null) return null;
+        String s = FORMATACAO_CPF.matcher(cpf).replaceAll("");
+        return s.isEmpty() ? null : s;
+    }
+
+    public static String normalizarNome(String nome) {
+        if (nome == null) return null;
+        String s = Normalizer.normalize(nome.strip(), Normalizer.Form.NFD);
+        return ACENTOS.matcher(s).replaceAll("").toLowerCase(Locale.ROOT);
+    }
 }
@@ -5,8 +5,10 @@ import jakarta.persistence.*;
 @Entity
 public class Trabalho {
 
+    // sequência com pooling: IDENTITY impede o Hibernate de agrupar inserts em lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trabalho_seq")
+    @SequenceGenerator(name = "trabalho_seq", sequenceName = "trabalho_seq", allocationSize = 50)
     private Long id;
 
     private String descricao;
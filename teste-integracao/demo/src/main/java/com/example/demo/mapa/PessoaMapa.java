@@ -0,0 +1,72 @@
+package com.example.demo.mapa;
+
+import com.example.demo.dto.PessoaDTO;
+import com.example.demo.dto.TrabalhoDTO;
+import com.example.demo.entity.Pessoa;
+import com.example.demo.entity.Trabalho;
+import com.example.demo.repository.PessoaTrabalhoLinha;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class PessoaMapa {
+
+    public static PessoaDTO toDTO(Pessoa pessoa) {
+        List<Trabalho> trabalhos = pessoa.getTrabalhos();
+        List<TrabalhoDTO> dtos;
+        if (trabalhos == null) {
+            dtos = Collections.emptyList();
+        } else {
+            dtos = new ArrayList<>(trabalhos.size());
+            for (Trabalho t : trabalhos) dtos.add(new TrabalhoDTO(t.getId(), t.getDescricao()));
+        }
+        return new PessoaDTO(pessoa.getId(), pessoa.getNome(), pessoa.getCpf(), dtos);
+    }
+
+    /** Nova entidade (sem id) com os trabalhos do DTO já ligados a ela. */
+    public static Pessoa toEntity(PessoaDTO dto) {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(dto.getNome());
+        pessoa.setCpf(dto.getCpf());
+        List<TrabalhoDTO> dtos = dto.getTrabalhos();
+        List<Trabalho> trabalhos = new ArrayList<>(dtos == null ? 0 : dtos.size());
+        if (dtos != null) {
+            for (TrabalhoDTO t : dtos) {
+                Trabalho trabalho = new Trabalho();
+                trabalho.setDescricao(t.getDescricao());
+                trabalho.setPessoa(pessoa);
+                trabalhos.add(trabalho);
+            }
+        }
+        pessoa.setTrabalhos(trabalhos);
+        return pessoa;
+    }
+
+    /**
+     * Monta as pessoas a partir das linhas do join, que devem vir ordenadas por pessoa.
+     * {@code pessoas} é só a capacidade inicial da lista de saída.
+     */
+    public static List<PessoaDTO> agrupar(List<PessoaTrabalhoLinha> linhas, int pessoas) {
+        List<PessoaDTO> r = new ArrayList<>(pessoas);
+        PessoaDTO atual = null;
+        for (PessoaTrabalhoLinha l : linhas) {
+            if (atual == null || !atual.getId().equals(l.pessoaId())) {
+                atual = novaPessoa(l);
+                r.add(atual);
+            }
+            adicionarTrabalho(atual, l);
+        }
+        return r;
+    }
+
+    public static PessoaDTO novaPessoa(PessoaTrabalhoLinha l) {
+        return new PessoaDTO(l.pessoaId(), l.nome(), l.cpf(), new ArrayList<>());
+    }
+
+    public static void adicionarTrabalho(PessoaDTO pessoa, PessoaTrabalhoLinha l) {
+        if (l.trabalhoId() != null) {
+            pessoa.getTrabalhos().add(new TrabalhoDTO(l.trabalhoId(), l.descricao()));
+        }
+    }
+}
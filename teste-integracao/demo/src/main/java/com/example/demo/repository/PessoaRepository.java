@@ -1,9 +1,54 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Pessoa;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface PessoaRepository extends JpaRepository<Pessoa, Long> {
+
+    // Leitura em duas etapas: primeiro uma página de ids (paginar um join de coleção
+    // paginaria linhas, não pessoas), depois as linhas pessoa x trabalho dessas pessoas numa
+    // única consulta. Duas consultas por página, independente de quantas pessoas ou trabalhos,
+    // e nenhuma entidade gerenciada: as linhas viram DTO direto (ver PessoaMapa).
+
+    @Query("select p.id from Pessoa p where p.id > :ultimoId order by p.id")
+    List<Long> findIdsAposId(@Param("ultimoId") Long ultimoId, Limit limit);
+
+    @Query("select p.id from Pessoa p order by p.id")
+    Slice<Long> findIds(Pageable pageable);
+
+    @Query(SELECT_LINHAS + " where p.id in :ids order by p.id, t.id")
+    List<PessoaTrabalhoLinha> findLinhasByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_LINHAS + " where p.id = :id order by t.id")
+    List<PessoaTrabalhoLinha> findLinhasById(@Param("id") Long id);
+
+    @Query(SELECT_LINHAS + " where p.cpf = :cpf order by t.id")
+    List<PessoaTrabalhoLinha> findLinhasByCpf(@Param("cpf") String cpf);
+
+    /** Ids por prefixo de {@code nomeBusca}: varredura de intervalo em idx_pessoa_nome_busca, já na ordem. */
+    @Query("select p.id from Pessoa p where p.nomeBusca like :prefixo escape '\\' order by p.nomeBusca, p.id")
+    List<Long> findIdsByNomePrefixo(@Param("prefixo") String prefixo, Limit limit);
+
+    /** Todas as linhas pessoa x trabalho ordenadas por pessoa, lidas sob demanda. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_LINHAS + " order by p.id, t.id")
+    Stream<PessoaTrabalhoLinha> streamPessoasComTrabalhos();
+
+    String SELECT_LINHAS = "select new com.example.demo.repository.PessoaTrabalhoLinha(p.id, p.nome, p.cpf, t.id, t.descricao)"
+            + " from Pessoa p left join p.trabalhos t";
 }
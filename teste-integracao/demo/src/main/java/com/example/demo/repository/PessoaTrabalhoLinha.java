@@ -0,0 +1,8 @@
+package com.example.demo.repository;
+
+/**
+ * Uma linha do left join pessoa x trabalho, lida direto da consulta sem instanciar
+ * entidades. Pessoas sem trabalho vêm com {@code trabalhoId} e {@code descricao} nulos.
+ */
+public record PessoaTrabalhoLinha(Long pessoaId, String nome, String cpf, Long trabalhoId, String descricao) {
+}
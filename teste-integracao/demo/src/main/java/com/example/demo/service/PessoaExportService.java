@@ -0,0 +1,70 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PessoaDTO;
+import com.example.demo.mapa.PessoaMapa;
+import com.example.demo.repository.PessoaRepository;
+import com.example.demo.repository.PessoaTrabalhoLinha;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta todas as pessoas com seus trabalhos como NDJSON (uma pessoa por linha).
+ *
+ * Lê linhas planas pessoa x trabalho, ordenadas por pessoa, com um cursor só-para-frente,
+ * e monta cada pessoa ao ver a próxima: só uma pessoa fica em memória por vez e nenhuma
+ * entidade entra no contexto de persistência.
+ */
+@Service
+public class PessoaExportService {
+
+    static final int LINHAS_POR_FLUSH = 500;
+
+    private final PessoaRepository pessoaRepository;
+    private final ObjectWriter writer;
+
+    public PessoaExportService(PessoaRepository pessoaRepository, ObjectMapper mapper) {
+        this.pessoaRepository = pessoaRepository;
+        this.writer = mapper.writerFor(PessoaDTO.class);
+    }
+
+    /** Escreve as pessoas em ordem de id e devolve quantas foram escritas. Não fecha {@code out}. */
+    @Transactional(readOnly = true)
+    public long exportar(OutputStream out) throws IOException {
+        long pessoas = 0;
+        try (Stream<PessoaTrabalhoLinha> linhas = pessoaRepository.streamPessoasComTrabalhos();
+             JsonGenerator g = writer.createGenerator(out)) {
+            g.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            PessoaDTO atual = null;
+            Iterator<PessoaTrabalhoLinha> it = linhas.iterator();
+            while (it.hasNext()) {
+                PessoaTrabalhoLinha l = it.next();
+                if (atual == null || !atual.getId().equals(l.pessoaId())) {
+                    if (atual != null) {
+                        escrever(g, atual);
+                        if (++pessoas % LINHAS_POR_FLUSH == 0) g.flush();
+                    }
+                    atual = PessoaMapa.novaPessoa(l);
+                }
+                PessoaMapa.adicionarTrabalho(atual, l);
+            }
+            if (atual != null) {
+                escrever(g, atual);
+                pessoas++;
+            }
+        }
+        return pessoas;
+    }
+
+    private void escrever(JsonGenerator g, PessoaDTO dto) throws IOException {
+        writer.writeValue(g, dto);
+        g.writeRaw('\n');
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PessoaDTO;
+import com.example.demo.dto.ResultadoImportacaoPessoas;
+import com.example.demo.entity.Pessoa;
+import com.example.demo.mapa.PessoaMapa;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Importação de muitas pessoas, com seus trabalhos, a partir de um iterador (lido do corpo
+ * da requisição sob demanda).
+ *
+ * As pessoas são gravadas em transações de {@code pessoas.importacao.por-transacao} (1000); dentro de cada uma,
+ * flush e clear a cada {@value #LOTE} pessoas, de modo que os inserts de pessoa e de trabalho
+ * saem em lotes JDBC ordenados ({@code hibernate.order_inserts}) e nem o contexto de
+ * persistência nem a entrada crescem com o tamanho da importação.
+ *
+ * Antes de cada lote, uma consulta confere os CPFs contra o banco (e entre si). Um CPF
+ * repetido encerra a importação: as pessoas anteriores a ele ficam gravadas e o resultado
+ * traz a posição dele e o motivo. Se mesmo assim a unique {@code uk_pessoa_cpf} barrar
+ * (gravação concorrente), a transação corrente é desfeita e a posição informada é a da
+ * primeira pessoa dela.
+ *
+ * Uma falha de leitura (JSON malformado) desfaz só a transação corrente e é propagada:
+ * as anteriores já estão gravadas.
+ */
+@Service
+public class PessoaImportacaoService {
+
+    /** Igual a {@code hibernate.jdbc.batch_size}: um flush por lote JDBC. */
+    static final int LOTE = 50;
+
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final int pessoasPorTransacao;
+
+    public PessoaImportacaoService(EntityManager em, PlatformTransactionManager transactionManager,
+                                   @Value("${pessoas.importacao.por-transacao:1000}") int pessoasPorTransacao) {
+        if (pessoasPorTransacao <= 0) throw new IllegalArgumentException("pessoasPorTransacao <= 0");
+        this.em = em;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.pessoasPorTransacao = pessoasPorTransacao;
+    }
+
+    /** Grava as pessoas do iterador até o fim ou até a primeira que viola uma restrição; linhas nulas são ignoradas. */
+    public ResultadoImportacaoPessoas importar(Iterator<PessoaDTO> dtos) {
+        long inicio = System.nanoTime();
+        Progresso p = new Progresso();
+        int transacoes = 0;
+        while (p.erro == null && dtos.hasNext()) {
+            long lidasAntes = p.lidas;
+            try {
+                long[] t = tx.execute(status -> gravar(dtos, p));
+                p.pessoas += t[0];
+                p.trabalhos += t[1];
+                transacoes++;
+            } catch (PersistenceException | DataIntegrityViolationException e) {
+                p.falhar(lidasAntes + 1, mensagem(e));
+            }
+        }
+        return new ResultadoImportacaoPessoas(p.pessoas, p.trabalhos, transacoes, System.nanoTime() - inicio,
+                p.posicaoFalha, p.erro);
+    }
+
+    /** Uma transação: até {@code pessoasPorTransacao} pessoas. Devolve {@code {pessoas, trabalhos}} gravados nela. */
+    private long[] gravar(Iterator<PessoaDTO> dtos, Progresso p) {
+        long[] totais = new long[2];
+        List<Pessoa> lote = new ArrayList<>(LOTE);
+        long[] posicoes = new long[LOTE];
+        int n = 0;
+        while (n < pessoasPorTransacao && dtos.hasNext()) {
+            lote.clear();
+            while (lote.size() < LOTE && n + lote.size() < pessoasPorTransacao && dtos.hasNext()) {
+                PessoaDTO d = dtos.next();
+                p.lidas++;
+                if (d == null) continue;
+                posicoes[lote.size()] = p.lidas;
+                lote.add(PessoaMapa.toEntity(d));
+            }
+            int repetida = cpfRepetido(lote);
+            int ate = repetida < 0 ? lote.size() : repetida;
+            for (int i = 0; i < ate; i++) {
+                Pessoa pessoa = lote.get(i);
+                em.persist(pessoa);
+                totais[0]++;
+                totais[1] += pessoa.getTrabalhos().size();
+            }
+            n += ate;
+            em.flush();
+            em.clear();
+            if (repetida >= 0) {
+                p.falhar(posicoes[repetida], "CPF já cadastrado: " + lote.get(repetida).getCpf());
+                break;
+            }
+        }
+        return totais;
+    }
+
+    /** Índice da primeira pessoa do lote com CPF já gravado (ou repetido no próprio lote), ou -1. */
+    private int cpfRepetido(List<Pessoa> lote) {
+        Set<String> cpfs = new HashSet<>();
+        for (Pessoa pessoa : lote) {
+            if (pessoa.getCpf() != null) cpfs.add(pessoa.getCpf());
+        }
+        if (cpfs.isEmpty()) return -1;
+        // o que a transação já gravou foi enviado no flush anterior: a consulta enxerga
+        Set<String> existentes = new HashSet<>(em.createQuery(
+                        "select p.cpf from Pessoa p where p.cpf in :cpfs", String.class)
+                .setParameter("cpfs", cpfs)
+                .getResultList());
+        Set<String> vistos = new HashSet<>();
+        for (int i = 0; i < lote.size(); i++) {
+            String cpf = lote.get(i).getCpf();
+            if (cpf != null && (existentes.contains(cpf) || !vistos.add(cpf))) return i;
+        }
+        return -1;
+    }
+
+    private static String mensagem(RuntimeException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (String.valueOf(t.getMessage()).toLowerCase().contains("uk_pessoa_cpf")) return "CPF já cadastrado";
+        }
+        return "Dados violam uma restrição do banco";
+    }
+
+    /** Contagem corrente da importação; {@code lidas} inclui as linhas nulas. */
+    private static final class Progresso {
+        long lidas;
+        long pessoas;
+        long trabalhos;
+        Long posicaoFalha;
+        String erro;
+
+        void falhar(long posicao, String motivo) {
+            posicaoFalha = posicao;
+            erro = motivo;
+        }
+    }
+}
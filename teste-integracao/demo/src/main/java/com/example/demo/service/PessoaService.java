@@ -4,17 +4,35 @@ import com.example.demo.dto.PessoaDTO;
 import com.example.demo.dto.TrabalhoDTO;
 import com.example.demo.entity.Pessoa;
 import com.example.demo.entity.Trabalho;
+import com.example.demo.mapa.PessoaMapa;
 import com.example.demo.repository.PessoaRepository;
+import com.example.demo.repository.PessoaTrabalhoLinha;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class PessoaService {
 
+    /** Pessoas carregadas por vez ao listar todas. */
+    static final int LOTE_LEITURA = 500;
+    public static final int TAMANHO_MAXIMO_PAGINA = 1000;
+    /** Máximo de pessoas em {@link #listarTodos()}; a listagem completa é a exportação. */
+    public static final int LIMITE_LISTAGEM = 2 * LOTE_LEITURA;
+
     @Autowired
     private PessoaRepository pessoaRepository;
 
@@ -34,67 +52,130 @@ public class PessoaService {
         } else {
             pessoa.setTrabalhos(new java.util.ArrayList<>());
         }
-        return toDTO(pessoaRepository.save(pessoa));
+        return PessoaMapa.toDTO(pessoaRepository.save(pessoa));
     }
 
     public PessoaDTO buscarPorId(Long id) {
-        Pessoa pessoa = pessoaRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Pessoa não encontrada"));
-        return toDTO(pessoa);
+        List<PessoaTrabalhoLinha> linhas = pessoaRepository.findLinhasById(id);
+        if (linhas.isEmpty()) {
+            throw new EntityNotFoundException("Pessoa não encontrada");
+        }
+        return PessoaMapa.agrupar(linhas, 1).get(0);
+    }
+
+    public PessoaDTO buscarPorCpf(String cpf) {
+        String normalizado = Pessoa.normalizarCpf(cpf);
+        List<PessoaTrabalhoLinha> linhas = normalizado == null ? List.of() : pessoaRepository.findLinhasByCpf(normalizado);
+        if (linhas.isEmpty()) {
+            throw new EntityNotFoundException("Pessoa não encontrada");
+        }
+        return PessoaMapa.agrupar(linhas, 1).get(0);
+    }
+
+    /**
+     * Pessoas cujo nome começa com {@code prefixo} (sem diferenciar maiúsculas nem acentos),
+     * em ordem de nome. Ids pelo índice de nome e depois as linhas dessas pessoas: duas consultas.
+     */
+    public List<PessoaDTO> buscarPorNome(String prefixo, int limite) {
+        String normalizado = Pessoa.normalizarNome(prefixo);
+        if (normalizado == null || normalizado.isEmpty()) return List.of();
+        String like = normalizado.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<Long> ids = pessoaRepository.findIdsByNomePrefixo(like, Limit.of(Math.max(1, Math.min(limite, TAMANHO_MAXIMO_PAGINA))));
+        if (ids.isEmpty()) return List.of();
+
+        // as linhas vêm por id; devolve na ordem de nome dos ids
+        Map<Long, PessoaDTO> porId = new HashMap<>();
+        for (PessoaDTO p : PessoaMapa.agrupar(pessoaRepository.findLinhasByIdIn(ids), ids.size())) porId.put(p.getId(), p);
+        List<PessoaDTO> r = new ArrayList<>(ids.size());
+        for (Long id : ids) r.add(porId.get(id));
+        return r;
+    }
+
+    /**
+     * As primeiras {@value #LIMITE_LISTAGEM} pessoas por id, com trabalhos, lidas em lotes de
+     * {@value #LOTE_LEITURA}: duas consultas por lote em vez de uma por pessoa, direto para DTO.
+     * As linhas são projeções, não entidades: nada fica no contexto de persistência, que com
+     * open-in-view dura a requisição inteira. {@code hasNext} indica que ficaram pessoas de fora,
+     * e quem precisa de todas usa {@link PessoaExportService} ou {@link #listarPagina}.
+     */
+    public Slice<PessoaDTO> listarTodos() {
+        List<PessoaDTO> todas = new ArrayList<>();
+        Long ultimoId = 0L;
+        while (todas.size() < LIMITE_LISTAGEM) {
+            List<Long> ids = pessoaRepository.findIdsAposId(ultimoId, Limit.of(LOTE_LEITURA));
+            if (ids.isEmpty()) break;
+            todas.addAll(PessoaMapa.agrupar(pessoaRepository.findLinhasByIdIn(ids), ids.size()));
+            ultimoId = ids.get(ids.size() - 1);
+            if (ids.size() < LOTE_LEITURA) {
+                return new SliceImpl<>(todas, PageRequest.of(0, LIMITE_LISTAGEM), false);
+            }
+        }
+        // no limite: um id a mais só para saber se a lista foi cortada
+        boolean cortada = !pessoaRepository.findIdsAposId(ultimoId, Limit.of(1)).isEmpty();
+        return new SliceImpl<>(todas, PageRequest.of(0, LIMITE_LISTAGEM), cortada);
     }
 
-    public List<PessoaDTO> listarTodos() {
-        return pessoaRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Uma página de pessoas por id, sem consulta de total (Slice). Página negativa vira a
+     * primeira e o tamanho fica entre 1 e {@value #TAMANHO_MAXIMO_PAGINA}.
+     */
+    public Slice<PessoaDTO> listarPagina(int page, int size) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, TAMANHO_MAXIMO_PAGINA)));
+        Slice<Long> ids = pessoaRepository.findIds(pageable);
+        List<PessoaDTO> conteudo = ids.hasContent()
+                ? PessoaMapa.agrupar(pessoaRepository.findLinhasByIdIn(ids.getContent()), ids.getNumberOfElements())
+                : List.of();
+        return new SliceImpl<>(conteudo, pageable, ids.hasNext());
     }
 
+    /**
+     * Atualiza nome, cpf e trabalhos. Os trabalhos são mesclados pelo id: os que vieram com id
+     * desta pessoa são alterados no lugar, os sem id (ou com id desconhecido/repetido) são
+     * inseridos e os que não vieram são removidos. Só as linhas que mudaram geram comandos.
+     */
+    @Transactional
     public PessoaDTO atualizar(Long id, PessoaDTO dto) {
         Pessoa pessoa = pessoaRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Pessoa não encontrada"));
 
         pessoa.setNome(dto.getNome());
         pessoa.setCpf(dto.getCpf());
+        mesclarTrabalhos(pessoa, dto.getTrabalhos() == null ? List.of() : dto.getTrabalhos());
 
-        if (pessoa.getTrabalhos() != null) {
-            pessoa.getTrabalhos().clear();
-        } else {
-            pessoa.setTrabalhos(new java.util.ArrayList<>());
+        return PessoaMapa.toDTO(pessoaRepository.save(pessoa));
+    }
+
+    private static void mesclarTrabalhos(Pessoa pessoa, List<TrabalhoDTO> dtos) {
+        List<Trabalho> atuais = pessoa.getTrabalhos();
+        if (atuais == null) {
+            atuais = new ArrayList<>();
+            pessoa.setTrabalhos(atuais);
+        }
+        Map<Long, TrabalhoDTO> porId = new HashMap<>();
+        for (TrabalhoDTO t : dtos) {
+            if (t.getId() != null) porId.putIfAbsent(t.getId(), t);
         }
 
-        List<Trabalho> trabalhos = dto.getTrabalhos().stream().map(t -> {
+        // a coleção é alterada no lugar: orphanRemoval apaga só os que saírem dela
+        Set<Long> mantidos = new HashSet<>();
+        atuais.removeIf(t -> {
+            TrabalhoDTO d = porId.get(t.getId());
+            if (d == null) return true;
+            mantidos.add(t.getId());
+            t.setDescricao(d.getDescricao());
+            return false;
+        });
+
+        for (TrabalhoDTO t : dtos) {
+            if (t.getId() != null && porId.get(t.getId()) == t && mantidos.contains(t.getId())) continue;
             Trabalho trabalho = new Trabalho();
             trabalho.setDescricao(t.getDescricao());
             trabalho.setPessoa(pessoa);
-            return trabalho;
-        }).collect(Collectors.toList());
-
-        pessoa.setTrabalhos(trabalhos);
-
-        return toDTO(pessoaRepository.save(pessoa));
+            atuais.add(trabalho);
+        }
     }
 
     public void deletar(Long id) {
         pessoaRepository.deleteById(id);
     }
-
-    private PessoaDTO toDTO(Pessoa pessoa) {
-        PessoaDTO dto = new PessoaDTO();
-        dto.setId(pessoa.getId());
-        dto.setNome(pessoa.getNome());
-        dto.setCpf(pessoa.getCpf());
-        if (pessoa.getTrabalhos() != null) {
-            dto.setTrabalhos(pessoa.getTrabalhos().stream()
-                    .map(t -> {
-                        TrabalhoDTO tDTO = new TrabalhoDTO();
-                        tDTO.setId(t.getId());
-                        tDTO.setDescricao(t.getDescricao());
-                        return tDTO;
-                    })
-                    .collect(Collectors.toList()));
-        } else {
-            dto.setTrabalhos(java.util.Collections.emptyList());
-        }
-        return dto;
-    }
 }
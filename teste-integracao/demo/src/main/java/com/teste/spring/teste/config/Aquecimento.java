@@ -0,0 +1,80 @@
+package com.teste.spring.teste.config;
+
+import com.teste.spring.teste.dto.PaginaCursor;
+import com.teste.spring.teste.model.Cliente;
+import com.teste.spring.teste.repository.ClienteRepository;
+import com.teste.spring.teste.service.ClienteCache;
+import com.teste.spring.teste.service.ClienteService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aquecimento antes de receber tráfego ({@code aquecimento.enabled=true}, ligado no perfil prod).
+ *
+ * Lê as primeiras páginas de clientes pelo mesmo caminho da listagem e as põe no cache, e roda
+ * uma vez as consultas mais usadas, para que a tradução JPQL→SQL do Hibernate e os planos do H2
+ * já existam na primeira requisição. Como é um {@link ApplicationRunner}, o Spring Boot só marca
+ * a aplicação como pronta (readiness ACCEPTING_TRAFFIC) quando ele termina.
+ */
+@Component
+@ConditionalOnProperty(name = "aquecimento.enabled", havingValue = "true")
+public class Aquecimento implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(Aquecimento.class);
+
+    // só para preparar as consultas por email; não precisa existir
+    private static final String EMAIL_AQUECIMENTO = "aquecimento@localhost";
+
+    private final ClienteService service;
+    private final ClienteRepository repo;
+    private final ClienteCache cache;
+    private final int paginas;
+    private final int tamanhoPagina;
+
+    private volatile int clientesAquecidos = -1;
+
+    public Aquecimento(ClienteService service, ClienteRepository repo, ClienteCache cache,
+                       @Value("${aquecimento.paginas:10}") int paginas,
+                       @Value("${aquecimento.tamanho-pagina:100}") int tamanhoPagina) {
+        this.service = service;
+        this.repo = repo;
+        this.cache = cache;
+        this.paginas = paginas;
+        this.tamanhoPagina = Math.min(tamanhoPagina, ClienteService.TAMANHO_MAXIMO_CURSOR);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long inicio = System.nanoTime();
+        int clientes = 0;
+        String cursor = null;
+        for (int p = 0; p < paginas; p++) {
+            PaginaCursor<Cliente> pagina = service.listarPorCursor(cursor, tamanhoPagina, "id,asc");
+            cache.preencher(pagina.getContent());
+            clientes += pagina.getContent().size();
+            cursor = pagina.getProximoCursor();
+            if (cursor == null) break;
+        }
+
+        repo.findPaginaDto(PageRequest.of(0, tamanhoPagina, Sort.by("id")));
+        service.listarPorCursor(null, tamanhoPagina, "nome,asc");
+        repo.existsByEmail(EMAIL_AQUECIMENTO);
+        repo.findIdByEmail(EMAIL_AQUECIMENTO);
+        repo.findByEmail(EMAIL_AQUECIMENTO);
+
+        clientesAquecidos = clientes;
+        log.info("Aquecimento: {} clientes no cache em {} ms", clientes, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /** Clientes postos no cache pelo aquecimento; -1 enquanto não terminou. */
+    public int getClientesAquecidos() {
+        return clientesAquecidos;
+    }
+}
@@ -0,0 +1,52 @@
+package com.teste.spring.teste.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teste.spring.teste.service.ClienteCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * Cache em processo dos clientes lidos por id e por email (Caffeine: W-TinyLFU, limitado
+ * por tamanho e com expiração como rede de segurança).
+ *
+ * O gerenciador é transaction-aware: remoções feitas dentro de uma transação só valem
+ * depois do commit, então quem lê antes do commit não recarrega a versão antiga num cache
+ * já limpo. Isso não fecha a corrida toda: um leitor que buscou no banco antes do commit
+ * pode gravar a versão antiga depois da remoção. A expiração curta limita quanto tempo
+ * essa versão fica no cache.
+ * No perfil {@code l2cache} o cache do Spring sai de cena e quem guarda os clientes é o
+ * cache de segundo nível do Hibernate.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    @Profile("!l2cache")
+    public CacheManager cacheManager(@Value("${clientes.cache.tamanho:10000}") long tamanho,
+                                     @Value("${clientes.cache.expiracao:1m}") Duration expiracao) {
+        CaffeineCacheManager manager = new CaffeineCacheManager(ClienteCache.CLIENTES, ClienteCache.CLIENTES_POR_EMAIL);
+        manager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(tamanho)
+                .expireAfterWrite(expiracao)
+                .recordStats());
+        // só os caches declarados acima
+        manager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(manager);
+    }
+
+    @Bean
+    @Profile("l2cache")
+    public CacheManager semCacheDeServico() {
+        return new NoOpCacheManager();
+    }
+}
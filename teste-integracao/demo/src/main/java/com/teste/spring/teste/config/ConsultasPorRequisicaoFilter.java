@@ -0,0 +1,99 @@
+package com.teste.spring.teste.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registra quantos comandos SQL cada requisição executou, por endpoint, na métrica
+ * {@value #METRICA}, e loga como possível N+1 as que passam do limite de alerta.
+ *
+ * Respostas assíncronas ({@code StreamingResponseBody}, {@code Callable}) são contadas por
+ * inteiro: o contador fica num atributo da requisição, o {@link #interceptor()} o associa
+ * à thread que executa o corpo, e o registro só acontece no despacho assíncrono final.
+ */
+public class ConsultasPorRequisicaoFilter extends OncePerRequestFilter {
+
+    public static final String METRICA = "http.server.requests.queries";
+
+    private static final String ATRIBUTO = ConsultasPorRequisicaoFilter.class.getName() + ".contador";
+
+    private static final Logger log = LoggerFactory.getLogger(ConsultasPorRequisicaoFilter.class);
+
+    private final MeterRegistry registry;
+    private final int alerta;
+
+    public ConsultasPorRequisicaoFilter(MeterRegistry registry, int alerta) {
+        this.registry = registry;
+        this.alerta = alerta;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AtomicInteger contador = (AtomicInteger) request.getAttribute(ATRIBUTO);
+        if (contador == null) {
+            request.setAttribute(ATRIBUTO, ContadorDeConsultas.iniciar());
+        } else {
+            ContadorDeConsultas.associar(contador);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int consultas = ContadorDeConsultas.encerrar();
+            // corpo ainda sendo produzido em outra thread: registra no despacho assíncrono
+            if (!request.isAsyncStarted()) registrar(request, consultas);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, int consultas) {
+        // o padrão da rota (/api/clientes/{id}), não a URL, para não explodir o número de séries
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao == null ? "UNKNOWN" : padrao.toString();
+        DistributionSummary.builder(METRICA)
+                .description("Comandos SQL executados por requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(consultas);
+        if (consultas > alerta) {
+            log.warn("Possível N+1: {} {} executou {} comandos SQL", request.getMethod(), uri, consultas);
+        }
+    }
+
+    /** Conta na thread do MVC que executa o corpo assíncrono, no contador da requisição. */
+    public static CallableProcessingInterceptor interceptor() {
+        return new CallableProcessingInterceptor() {
+            @Override
+            public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+                Object contador = request.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST);
+                if (contador != null) ContadorDeConsultas.associar((AtomicInteger) contador);
+            }
+
+            @Override
+            public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object resultado) {
+                ContadorDeConsultas.encerrar();
+            }
+        };
+    }
+}
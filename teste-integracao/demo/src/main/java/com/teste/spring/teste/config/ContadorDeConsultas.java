@@ -0,0 +1,43 @@
+package com.teste.spring.teste.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conta os comandos SQL preparados pela thread atual entre {@link #iniciar()} e
+ * {@link #encerrar()}. Registrado no Hibernate como {@link StatementInspector}, então vê
+ * tudo o que passa pelo JPA (consultas, cargas por id, inserts em lote), sem log de SQL.
+ * Um mesmo contador pode ser {@link #associar associado} a outra thread, como a que
+ * escreve um {@code StreamingResponseBody}, para somar o trabalho assíncrono da requisição.
+ */
+public class ContadorDeConsultas implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> CONTADOR = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger c = CONTADOR.get();
+        if (c != null) c.incrementAndGet();
+        return sql;
+    }
+
+    /** Começa a contar nesta thread com um contador novo, que é devolvido. */
+    public static AtomicInteger iniciar() {
+        AtomicInteger c = new AtomicInteger();
+        CONTADOR.set(c);
+        return c;
+    }
+
+    /** Passa a contar nesta thread no contador dado, já iniciado em outra. */
+    public static void associar(AtomicInteger contador) {
+        CONTADOR.set(contador);
+    }
+
+    /** Comandos contados desde {@link #iniciar()}; para de contar nesta thread. */
+    public static int encerrar() {
+        AtomicInteger c = CONTADOR.get();
+        CONTADOR.remove();
+        return c == null ? 0 : c.get();
+    }
+}
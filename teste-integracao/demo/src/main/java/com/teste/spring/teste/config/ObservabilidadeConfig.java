@@ -0,0 +1,54 @@
+package com.teste.spring.teste.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.DispatcherType;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Métricas de persistência das duas aplicações (clientes e pessoas): contador de comandos
+ * SQL por requisição e o endpoint {@code /actuator/persistencia}. Latência por endpoint,
+ * estatísticas do Hibernate e o log de consultas lentas vêm do application.properties.
+ * A aplicação de pessoas importa esta configuração.
+ */
+@Configuration
+public class ObservabilidadeConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorDeConsultas() {
+        return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorDeConsultas());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConsultasPorRequisicaoFilter> consultasPorRequisicaoFilter(
+            MeterRegistry registry, @Value("${observabilidade.consultas-por-requisicao.alerta:20}") int alerta) {
+        FilterRegistrationBean<ConsultasPorRequisicaoFilter> bean =
+                new FilterRegistrationBean<>(new ConsultasPorRequisicaoFilter(registry, alerta));
+        bean.addUrlPatterns("/api/*");
+        bean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return bean;
+    }
+
+    /** Leva o contador da requisição à thread que escreve respostas assíncronas (exports). */
+    @Bean
+    public WebMvcConfigurer contagemAssincrona() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(ConsultasPorRequisicaoFilter.interceptor());
+            }
+        };
+    }
+
+    @Bean
+    public PersistenciaEndpoint persistenciaEndpoint(EntityManagerFactory emf, MeterRegistry registry) {
+        return new PersistenciaEndpoint(emf, registry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.teste.spring.teste.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/persistencia}: resumo das estatísticas do Hibernate, consultas mais
+ * caras, consultas lentas e comandos SQL por requisição em cada endpoint. Um POST zera
+ * as estatísticas do Hibernate.
+ */
+@Endpoint(id = "persistencia")
+public class PersistenciaEndpoint {
+
+    static final int TOP_CONSULTAS = 10;
+
+    private final EntityManagerFactory emf;
+    private final MeterRegistry registry;
+
+    public PersistenciaEndpoint(EntityManagerFactory emf, MeterRegistry registry) {
+        this.emf = emf;
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> resumo() {
+        Statistics s = estatisticas();
+        Map<String, Object> r = new LinkedHashMap<>();
+
+        Map<String, Long> totais = new LinkedHashMap<>();
+        totais.put("comandosPreparados", s.getPrepareStatementCount());
+        totais.put("consultasExecutadas", s.getQueryExecutionCount());
+        totais.put("entidadesCarregadas", s.getEntityLoadCount());
+        totais.put("entidadesBuscadas", s.getEntityFetchCount());
+        totais.put("colecoesCarregadas", s.getCollectionLoadCount());
+        totais.put("colecoesBuscadas", s.getCollectionFetchCount());
+        totais.put("transacoes", s.getTransactionCount());
+        totais.put("cache2Acertos", s.getSecondLevelCacheHitCount());
+        totais.put("cache2Faltas", s.getSecondLevelCacheMissCount());
+        r.put("totais", totais);
+
+        r.put("consultasMaisCaras", consultasMaisCaras(s));
+        r.put("consultasLentas", s.getSlowQueries());
+        r.put("comandosPorRequisicao", comandosPorRequisicao());
+        return r;
+    }
+
+    @WriteOperation
+    public void zerar() {
+        estatisticas().clear();
+    }
+
+    private List<Map<String, Object>> consultasMaisCaras(Statistics s) {
+        return Arrays.stream(s.getQueries())
+                .map(q -> Map.entry(q, s.getQueryStatistics(q)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> e) ->
+                        e.getValue().getExecutionTotalTime()).reversed())
+                .limit(TOP_CONSULTAS)
+                .map(e -> {
+                    QueryStatistics q = e.getValue();
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("consulta", e.getKey());
+                    m.put("execucoes", q.getExecutionCount());
+                    m.put("totalMs", q.getExecutionTotalTime());
+                    m.put("mediaMs", q.getExecutionAvgTime());
+                    m.put("maxMs", q.getExecutionMaxTime());
+                    m.put("linhas", q.getExecutionRowCount());
+                    return m;
+                })
+                .toList();
+    }
+
+    private Map<String, Object> comandosPorRequisicao() {
+        Map<String, Object> r = new LinkedHashMap<>();
+        registry.find(ConsultasPorRequisicaoFilter.METRICA).summaries().forEach(d -> {
+            HistogramSnapshot h = d.takeSnapshot();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("requisicoes", h.count());
+            m.put("media", h.mean());
+            m.put("max", h.max());
+            r.put(d.getId().getTag("method") + " " + d.getId().getTag("uri"), m);
+        });
+        return r;
+    }
+
+    private Statistics estatisticas() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+}
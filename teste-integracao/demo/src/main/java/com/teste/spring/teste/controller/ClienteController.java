@@ -1,12 +1,25 @@
 package com.teste.spring.teste.controller;
 
 import com.teste.spring.teste.dto.ClienteDto;
+import com.teste.spring.teste.dto.PaginaCursor;
+import com.teste.spring.teste.dto.ResultadoImportacao;
 import com.teste.spring.teste.repository.ClienteRepository;
+import com.teste.spring.teste.service.ClienteCache;
+import com.teste.spring.teste.service.ClienteExportService;
+import com.teste.spring.teste.service.ClienteImportacaoService;
+import com.teste.spring.teste.service.ClienteIndiceBusca;
 import com.teste.spring.teste.service.ClienteService;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
 import com.teste.spring.teste.model.Cliente;
 import com.teste.spring.teste.mapa.ClienteMapa;
 import com.teste.spring.teste.exception.*;
@@ -17,10 +30,22 @@ public class ClienteController {
 
     private final ClienteService service;
     private final ClienteRepository repo;
+    private final ClienteExportService exportService;
+    private final ClienteImportacaoService importacaoService;
+    private final Validator validator;
+    private final ClienteCache cache;
+    private final ClienteIndiceBusca indiceBusca;
 
-    public ClienteController(ClienteService service, ClienteRepository repo) {
+    public ClienteController(ClienteService service, ClienteRepository repo, ClienteExportService exportService,
+                             ClienteImportacaoService importacaoService, Validator validator, ClienteCache cache,
+                             ClienteIndiceBusca indiceBusca) {
         this.service = service;
         this.repo = repo;
+        this.exportService = exportService;
+        this.importacaoService = importacaoService;
+        this.validator = validator;
+        this.cache = cache;
+        this.indiceBusca = indiceBusca;
     }
 
     @PostMapping
@@ -29,9 +54,33 @@ public class ClienteController {
         return ResponseEntity.status(HttpStatus.CREATED).body(ClienteMapa.toDTO(salvo));
     }
 
+    /** Importa vários clientes; cada linha é validada e respondida individualmente. */
+    @PostMapping("/lote")
+    public ResultadoImportacao importar(@RequestBody List<ClienteDto> dtos,
+                                        @RequestParam(defaultValue = "false") boolean upsert) {
+        return importacaoService.importar(dtos, upsert);
+    }
+
     @GetMapping("/{id}")
     public ClienteDto buscar(@PathVariable Long id) {
-        return ClienteMapa.toDTO(service.buscar(id));
+        return service.buscar(id);
+    }
+
+    @GetMapping(params = "email")
+    public ClienteDto buscarPorEmail(@RequestParam String email) {
+        return service.buscarPorEmail(email);
+    }
+
+    /** Busca por trecho de nome, email ou telefone no índice em memória; os {@code k} melhores primeiro. */
+    @GetMapping("/busca")
+    public List<ClienteDto> buscarTexto(@RequestParam String q, @RequestParam(defaultValue = "10") int k) {
+        return indiceBusca.buscar(q, k);
+    }
+
+    /** Acertos e faltas dos caches de clientes. */
+    @GetMapping("/cache")
+    public Map<String, Map<String, Number>> estatisticasCache() {
+        return cache.estatisticas();
     }
 
     @GetMapping
@@ -40,7 +89,24 @@ public class ClienteController {
                                    @RequestParam(defaultValue = "id,asc") String sort) {
         String[] s = sort.split(",");
         Pageable p = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(s[1]), s[0]));
-        return repo.findAll(p).map(ClienteMapa::toDTO);
+        return repo.findPaginaDto(p);
+    }
+
+    /** Listagem por cursor: passe o {@code proximoCursor} da resposta anterior para seguir. */
+    @GetMapping("/seek")
+    public PaginaCursor<ClienteDto> listarPorCursor(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "10") int size,
+                                                    @RequestParam(defaultValue = "id,asc") String sort) {
+        return service.listarPorCursor(cursor, size, sort).map(ClienteMapa::toDTO);
+    }
+
+    /** Todos os clientes em NDJSON, escritos enquanto são lidos do banco. */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        StreamingResponseBody corpo = exportService::exportar;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(corpo);
     }
 
     @PutMapping("/{id}")
@@ -49,6 +115,23 @@ public class ClienteController {
         return ClienteMapa.toDTO(atualizado);
     }
 
+    /** Atualiza só os campos enviados; os presentes passam pelas mesmas validações do PUT. */
+    @PatchMapping("/{id}")
+    public ClienteDto atualizarParcial(@PathVariable Long id, @RequestBody ClienteDto dto) {
+        validarPresentes(dto, "nome", dto.getNome());
+        validarPresentes(dto, "email", dto.getEmail());
+        validarPresentes(dto, "telefone", dto.getTelefone());
+        Cliente atualizado = service.atualizarParcial(id, ClienteMapa.toEntity(dto));
+        return ClienteMapa.toDTO(atualizado);
+    }
+
+    private void validarPresentes(ClienteDto dto, String campo, Object valor) {
+        if (valor == null) return;
+        for (ConstraintViolation<ClienteDto> v : validator.validateProperty(dto, campo)) {
+            throw new BusinessException(campo + ": " + v.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void excluir(@PathVariable Long id) {
@@ -64,4 +147,12 @@ public class ClienteController {
     public ResponseEntity<String> business(BusinessException ex) {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
     }
+    // corrida entre duas gravações do mesmo email: a checagem passou, a constraint barrou no commit
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> integridade(DataIntegrityViolationException ex) {
+        String causa = String.valueOf(ex.getMostSpecificCause().getMessage());
+        String msg = causa.toLowerCase().contains("uk_clientes_email")
+                ? "Email já cadastrado" : "Dados violam uma restrição do banco";
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(msg);
+    }
 }
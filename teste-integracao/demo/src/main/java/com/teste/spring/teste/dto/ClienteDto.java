@@ -14,6 +14,16 @@ public class ClienteDto {
     @Size(max = 20)
     private String telefone;
 
+    public ClienteDto() {}
+
+    // usado também pelas consultas "select new" do ClienteRepository
+    public ClienteDto(Long id, String nome, String email, String telefone) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.telefone = telefone;
+    }
+
     // getters/setters
     public Long getId() { return id; } public void setId(Long id) { this.id = id; }
     public String getNome() { return nome; } public void setNome(String nome) { this.nome = nome; }
@@ -0,0 +1,29 @@
+package com.teste.spring.teste.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem por cursor (keyset): sem total de elementos nem número de página.
+ * {@code proximoCursor} é opaco e vem {@code null} na última página.
+ */
+public class PaginaCursor<T> {
+    private final List<T> content;
+    private final int size;
+    private final String proximoCursor;
+
+    public PaginaCursor(List<T> content, int size, String proximoCursor) {
+        this.content = content;
+        this.size = size;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public <R> PaginaCursor<R> map(Function<? super T, ? extends R> f) {
+        return new PaginaCursor<>(content.stream().<R>map(f).toList(), size, proximoCursor);
+    }
+
+    public List<T> getContent() { return content; }
+    public int getSize() { return size; }
+    public String getProximoCursor() { return proximoCursor; }
+    public boolean isTemProxima() { return proximoCursor != null; }
+}
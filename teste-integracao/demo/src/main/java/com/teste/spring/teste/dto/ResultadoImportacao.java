@@ -0,0 +1,49 @@
+package com.teste.spring.teste.dto;
+
+import java.util.List;
+
+/** Resultado de uma importação em lote: totais e o desfecho de cada linha, na ordem de entrada. */
+public class ResultadoImportacao {
+
+    public enum Status { CRIADO, ATUALIZADO, ERRO }
+
+    public static class Linha {
+        private final int linha;
+        private final String email;
+        private final Status status;
+        private final Long id;
+        private final String erro;
+
+        public Linha(int linha, String email, Status status, Long id, String erro) {
+            this.linha = linha;
+            this.email = email;
+            this.status = status;
+            this.id = id;
+            this.erro = erro;
+        }
+
+        public int getLinha() { return linha; }
+        public String getEmail() { return email; }
+        public Status getStatus() { return status; }
+        public Long getId() { return id; }
+        public String getErro() { return erro; }
+    }
+
+    private final int criados;
+    private final int atualizados;
+    private final int erros;
+    private final List<Linha> linhas;
+
+    public ResultadoImportacao(int criados, int atualizados, int erros, List<Linha> linhas) {
+        this.criados = criados;
+        this.atualizados = atualizados;
+        this.erros = erros;
+        this.linhas = linhas;
+    }
+
+    public int getTotal() { return linhas.size(); }
+    public int getCriados() { return criados; }
+    public int getAtualizados() { return atualizados; }
+    public int getErros() { return erros; }
+    public List<Linha> getLinhas() { return linhas; }
+}
@@ -6,12 +6,7 @@ import com.teste.spring.teste.model.Cliente;
 
 public class ClienteMapa {
     public static ClienteDto toDTO(Cliente e) {
-        ClienteDto d = new ClienteDto();
-        d.setId(e.getId());
-        d.setNome(e.getNome());
-        d.setEmail(e.getEmail());
-        d.setTelefone(e.getTelefone());
-        return d;
+        return new ClienteDto(e.getId(), e.getNome(), e.getEmail(), e.getTelefone());
     }
     public static Cliente toEntity(ClienteDto d) {
         Cliente e = new Cliente();
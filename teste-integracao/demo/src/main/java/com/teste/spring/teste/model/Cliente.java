@@ -2,15 +2,28 @@ package com.teste.spring.teste.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "clientes", uniqueConstraints = {
         @UniqueConstraint(name = "uk_clientes_email", columnNames = "email")
+}, indexes = {
+        // listagem por cursor ordenada por nome (desempate pelo id)
+        @Index(name = "idx_clientes_nome_id", columnList = "nome, id")
 })
+// UPDATE só com as colunas alteradas (atualização parcial via PATCH)
+@DynamicUpdate
+// só tem efeito com o cache de segundo nível ligado (perfil l2cache)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clientes")
 public class Cliente {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // sequência com pooling: IDENTITY impede o Hibernate de agrupar inserts em lotes JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_seq")
+    @SequenceGenerator(name = "clientes_seq", sequenceName = "clientes_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank @Size(max = 120)
@@ -1,12 +1,61 @@
 package com.teste.spring.teste.repository;
 
 
+import com.teste.spring.teste.dto.ClienteDto;
 import com.teste.spring.teste.model.Cliente;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Optional<Cliente> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    /** Id do dono do email, sem carregar a entidade: uma consulta resolve o conflito no update. */
+    @Query("select c.id from Cliente c where c.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Query("select c.email from Cliente c where c.email in :emails")
+    Set<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    List<Cliente> findByEmailIn(Collection<String> emails);
+
+    // --- listagem por cursor: sem COUNT e sem OFFSET, só "depois da última chave" ---
+
+    List<Cliente> findAllBy(Sort sort, Limit limit);
+
+    List<Cliente> findByIdGreaterThan(Long id, Sort sort, Limit limit);
+
+    List<Cliente> findByIdLessThan(Long id, Sort sort, Limit limit);
+
+    @Query("select c from Cliente c where c.nome > :nome or (c.nome = :nome and c.id > :id)")
+    List<Cliente> findAposNome(@Param("nome") String nome, @Param("id") Long id, Sort sort, Limit limit);
+
+    @Query("select c from Cliente c where c.nome < :nome or (c.nome = :nome and c.id < :id)")
+    List<Cliente> findAntesDeNome(@Param("nome") String nome, @Param("id") Long id, Sort sort, Limit limit);
+
+    // --- leituras só para exibição: DTO direto da consulta, sem entidade no contexto de persistência ---
+
+    @Query(value = "select new com.teste.spring.teste.dto.ClienteDto(c.id, c.nome, c.email, c.telefone) from Cliente c",
+            countQuery = "select count(c) from Cliente c")
+    Page<ClienteDto> findPaginaDto(Pageable pageable);
+
+    /** Todos os clientes por id, lidos sob demanda; use dentro de uma transação e feche o stream. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.teste.spring.teste.dto.ClienteDto(c.id, c.nome, c.email, c.telefone) from Cliente c order by c.id")
+    Stream<ClienteDto> streamTodos();
 }
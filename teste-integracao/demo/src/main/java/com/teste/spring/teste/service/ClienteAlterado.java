@@ -0,0 +1,10 @@
+package com.teste.spring.teste.service;
+
+import com.teste.spring.teste.dto.ClienteDto;
+
+/**
+ * Publicado pelas escritas de clientes e consumido depois do commit (ver {@link ClienteIndiceBusca}).
+ * {@code cliente} é o estado gravado, ou nulo quando o cliente foi excluído.
+ */
+public record ClienteAlterado(Long id, ClienteDto cliente) {
+}
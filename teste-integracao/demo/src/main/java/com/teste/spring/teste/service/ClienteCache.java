@@ -0,0 +1,109 @@
+package com.teste.spring.teste.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.teste.spring.teste.dto.ClienteDto;
+import com.teste.spring.teste.mapa.ClienteMapa;
+import com.teste.spring.teste.model.Cliente;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Caches de clientes por id e por email: leitura, remoção nas escritas e estatísticas de acerto.
+ *
+ * O cache guarda um record imutável e cada leitura devolve um {@link ClienteDto} novo: o DTO
+ * tem setters, e quem alterasse o objeto em cache mudaria o que os próximos chamadores veem.
+ * As remoções recebem o email antigo, que o cache por email precisa e a escrita conhece.
+ */
+@Component
+public class ClienteCache {
+
+    public static final String CLIENTES = "clientes";
+    public static final String CLIENTES_POR_EMAIL = "clientesPorEmail";
+
+    private final CacheManager cacheManager;
+
+    public ClienteCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /** Cliente por id, do cache ou de {@code carregar} (guardado para as próximas leituras). */
+    public ClienteDto porId(Long id, Supplier<ClienteDto> carregar) {
+        return ler(CLIENTES, id, carregar);
+    }
+
+    /** Cliente por email, do cache ou de {@code carregar} (guardado para as próximas leituras). */
+    public ClienteDto porEmail(String email, Supplier<ClienteDto> carregar) {
+        return ler(CLIENTES_POR_EMAIL, email, carregar);
+    }
+
+    private ClienteDto ler(String nome, Object chave, Supplier<ClienteDto> carregar) {
+        Cache cache = cacheManager.getCache(nome);
+        Cache.ValueWrapper emCache = cache == null ? null : cache.get(chave);
+        if (emCache != null) return ((Copia) emCache.get()).dto();
+        ClienteDto dto = carregar.get();
+        // put, e não get(chave, carregador): só o put espera o commit, como as remoções
+        if (cache != null) cache.put(chave, Copia.de(dto));
+        return dto;
+    }
+
+    /** Tira o cliente dos dois caches; os emails nulos são ignorados. */
+    public void remover(Long id, String... emails) {
+        Cache porId = cacheManager.getCache(CLIENTES);
+        if (porId != null && id != null) porId.evict(id);
+        Cache porEmail = cacheManager.getCache(CLIENTES_POR_EMAIL);
+        if (porEmail == null) return;
+        for (String email : emails) {
+            if (email != null) porEmail.evict(email);
+        }
+    }
+
+    /** Põe cópias dos clientes nos dois caches, como se já tivessem sido buscados (aquecimento). */
+    public void preencher(Collection<Cliente> clientes) {
+        Cache porId = cacheManager.getCache(CLIENTES);
+        Cache porEmail = cacheManager.getCache(CLIENTES_POR_EMAIL);
+        for (Cliente c : clientes) {
+            Copia copia = Copia.de(ClienteMapa.toDTO(c));
+            if (porId != null) porId.put(c.getId(), copia);
+            if (porEmail != null) porEmail.put(c.getEmail(), copia);
+        }
+    }
+
+    /** Acertos, faltas, taxa de acerto, remoções por tamanho/expiração e tamanho de cada cache. */
+    public Map<String, Map<String, Number>> estatisticas() {
+        Map<String, Map<String, Number>> r = new LinkedHashMap<>();
+        for (String nome : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache instanceof TransactionAwareCacheDecorator d) cache = d.getTargetCache();
+            if (!(cache instanceof CaffeineCache c)) continue;
+            CacheStats s = c.getNativeCache().stats();
+            Map<String, Number> m = new LinkedHashMap<>();
+            m.put("hits", s.hitCount());
+            m.put("misses", s.missCount());
+            m.put("hitRatio", s.hitRate());
+            m.put("evictions", s.evictionCount());
+            m.put("size", c.getNativeCache().estimatedSize());
+            r.put(nome, m);
+        }
+        return r;
+    }
+
+    // valor guardado nos caches; imutável, então pode ser compartilhado entre os chamadores
+    private record Copia(Long id, String nome, String email, String telefone) {
+
+        static Copia de(ClienteDto d) {
+            return new Copia(d.getId(), d.getNome(), d.getEmail(), d.getTelefone());
+        }
+
+        ClienteDto dto() {
+            return new ClienteDto(id, nome, email, telefone);
+        }
+    }
+}
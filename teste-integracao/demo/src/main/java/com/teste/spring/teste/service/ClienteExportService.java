@@ -0,0 +1,51 @@
+package com.teste.spring.teste.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.teste.spring.teste.dto.ClienteDto;
+import com.teste.spring.teste.repository.ClienteRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta todos os clientes como NDJSON (um objeto JSON por linha), lendo o banco com
+ * um cursor só-para-frente direto em {@link ClienteDto}: nenhuma entidade é criada e a
+ * memória usada não depende do tamanho da tabela.
+ */
+@Service
+public class ClienteExportService {
+
+    /** Linhas enviadas ao cliente HTTP de cada vez. */
+    static final int LINHAS_POR_FLUSH = 500;
+
+    private final ClienteRepository repo;
+    private final ObjectWriter writer;
+
+    public ClienteExportService(ClienteRepository repo, ObjectMapper mapper) {
+        this.repo = repo;
+        this.writer = mapper.writerFor(ClienteDto.class);
+    }
+
+    /** Escreve os clientes em ordem de id e devolve quantos foram escritos. Não fecha {@code out}. */
+    @Transactional(readOnly = true)
+    public long exportar(OutputStream out) throws IOException {
+        long linhas = 0;
+        try (Stream<ClienteDto> clientes = repo.streamTodos();
+             JsonGenerator g = writer.createGenerator(out)) {
+            g.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<ClienteDto> it = clientes.iterator();
+            while (it.hasNext()) {
+                writer.writeValue(g, it.next());
+                g.writeRaw('\n');
+                if (++linhas % LINHAS_POR_FLUSH == 0) g.flush();
+            }
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,158 @@
+package com.teste.spring.teste.service;
+
+import com.teste.spring.teste.dto.ClienteDto;
+import com.teste.spring.teste.dto.ResultadoImportacao;
+import com.teste.spring.teste.dto.ResultadoImportacao.Linha;
+import com.teste.spring.teste.dto.ResultadoImportacao.Status;
+import com.teste.spring.teste.exception.BusinessException;
+import com.teste.spring.teste.mapa.ClienteMapa;
+import com.teste.spring.teste.model.Cliente;
+import com.teste.spring.teste.repository.ClienteRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de muitos clientes numa chamada.
+ *
+ * Emails repetidos no próprio lote são barrados em memória (vale a primeira ocorrência),
+ * os já cadastrados são descobertos com uma consulta {@code in} por bloco, e as inserções
+ * saem em lotes JDBC (ids de sequência com pooling e {@code hibernate.jdbc.batch_size}).
+ * Cada linha inválida vira um erro na resposta sem derrubar as demais.
+ */
+@Service
+public class ClienteImportacaoService {
+
+    public static final int MAXIMO_LINHAS = 10_000;
+    /** Igual a {@code hibernate.jdbc.batch_size}: um flush por lote JDBC. */
+    static final int LOTE = 50;
+    /** Tamanho máximo da lista de um {@code in (...)}. */
+    static final int BLOCO_CONSULTA = 1000;
+
+    private final ClienteRepository repo;
+    private final EntityManager em;
+    private final Validator validator;
+    private final ClienteCache cache;
+    private final ApplicationEventPublisher eventos;
+
+    public ClienteImportacaoService(ClienteRepository repo, EntityManager em, Validator validator, ClienteCache cache,
+                                    ApplicationEventPublisher eventos) {
+        this.repo = repo;
+        this.em = em;
+        this.validator = validator;
+        this.cache = cache;
+        this.eventos = eventos;
+    }
+
+    /**
+     * @param upsert se verdadeiro, emails já cadastrados atualizam nome e telefone do cliente
+     *               existente; senão a linha falha com "Email já cadastrado", como em {@code criar}.
+     */
+    @Transactional
+    public ResultadoImportacao importar(List<ClienteDto> dtos, boolean upsert) {
+        if (dtos.size() > MAXIMO_LINHAS) {
+            throw new BusinessException("Máximo de " + MAXIMO_LINHAS + " clientes por importação");
+        }
+        Linha[] linhas = new Linha[dtos.size()];
+
+        // 1) validação e duplicados dentro do lote
+        Map<String, Integer> primeiraLinha = new HashMap<>();
+        List<Integer> validas = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            ClienteDto d = dtos.get(i);
+            String erro = validar(d);
+            if (erro == null) {
+                Integer anterior = primeiraLinha.putIfAbsent(d.getEmail(), i);
+                if (anterior != null) erro = "Email repetido no lote (linha " + anterior + ")";
+            }
+            if (erro != null) {
+                linhas[i] = new Linha(i, d == null ? null : d.getEmail(), Status.ERRO, null, erro);
+            } else {
+                validas.add(i);
+            }
+        }
+
+        // 2) sem upsert, os emails já cadastrados só barram a linha: bastam as strings, em poucas consultas
+        Set<String> emailsExistentes = new HashSet<>();
+        if (!upsert) {
+            List<String> emails = validas.stream().map(i -> dtos.get(i).getEmail()).toList();
+            for (int ini = 0; ini < emails.size(); ini += BLOCO_CONSULTA) {
+                emailsExistentes.addAll(repo.findEmailsExistentes(emails.subList(ini, Math.min(emails.size(), ini + BLOCO_CONSULTA))));
+            }
+        }
+
+        // 3) inserções e atualizações, com flush/clear a cada lote JDBC. Com upsert, os existentes
+        // são lidos por lote, depois do clear anterior: entidades carregadas antes ficariam
+        // desanexadas e as alterações nelas não virariam UPDATE.
+        int criados = 0;
+        int atualizados = 0;
+        List<Object[]> pendentes = new ArrayList<>(LOTE);
+        for (int ini = 0; ini < validas.size(); ini += LOTE) {
+            List<Integer> lote = validas.subList(ini, Math.min(validas.size(), ini + LOTE));
+            Map<String, Cliente> existentes = new HashMap<>();
+            if (upsert) {
+                List<String> emails = lote.stream().map(i -> dtos.get(i).getEmail()).toList();
+                for (Cliente c : repo.findByEmailIn(emails)) existentes.put(c.getEmail(), c);
+            }
+            for (int i : lote) {
+                ClienteDto d = dtos.get(i);
+                Cliente existente = existentes.get(d.getEmail());
+                if (existente != null) {
+                    cache.remover(existente.getId(), existente.getEmail());
+                    existente.setNome(d.getNome());
+                    existente.setTelefone(d.getTelefone());
+                    pendentes.add(new Object[]{i, existente, Status.ATUALIZADO});
+                    atualizados++;
+                } else if (emailsExistentes.contains(d.getEmail())) {
+                    linhas[i] = new Linha(i, d.getEmail(), Status.ERRO, null, "Email já cadastrado");
+                } else {
+                    Cliente novo = ClienteMapa.toEntity(d);
+                    novo.setId(null);
+                    em.persist(novo);
+                    pendentes.add(new Object[]{i, novo, Status.CRIADO});
+                    criados++;
+                }
+            }
+            descarregar(pendentes, linhas);
+        }
+
+        int erros = linhas.length - criados - atualizados;
+        return new ResultadoImportacao(criados, atualizados, erros, List.of(linhas));
+    }
+
+    private void descarregar(List<Object[]> pendentes, Linha[] linhas) {
+        if (pendentes.isEmpty()) return;
+        em.flush();
+        for (Object[] p : pendentes) {
+            int i = (Integer) p[0];
+            Cliente c = (Cliente) p[1];
+            linhas[i] = new Linha(i, c.getEmail(), (Status) p[2], c.getId(), null);
+            eventos.publishEvent(new ClienteAlterado(c.getId(), ClienteMapa.toDTO(c)));
+        }
+        // o contexto de persistência não cresce com o tamanho da importação
+        em.clear();
+        pendentes.clear();
+    }
+
+    private String validar(ClienteDto d) {
+        if (d == null) return "Linha vazia";
+        Set<ConstraintViolation<ClienteDto>> violacoes = validator.validate(d);
+        if (violacoes.isEmpty()) return null;
+        return violacoes.stream()
+                .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+}
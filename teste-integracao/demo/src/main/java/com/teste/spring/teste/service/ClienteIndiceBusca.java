@@ -0,0 +1,353 @@
+package com.teste.spring.teste.service;
+
+import com.teste.spring.teste.dto.ClienteDto;
+import com.teste.spring.teste.exception.BusinessException;
+import com.teste.spring.teste.repository.ClienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas, em memória, sobre nome, email e telefone dos clientes.
+ *
+ * Cada campo é normalizado (minúsculas, sem acentos; telefone só com dígitos) e quebrado em
+ * trigramas; cada trigrama aponta para os ids que o contêm, num {@code long[]} ordenado (8 bytes
+ * por entrada). Uma busca intersecta as listas dos trigramas da consulta, percorrendo a menor
+ * e procurando cada id nas outras por busca binária, confere se a consulta aparece mesmo no
+ * campo e devolve os k melhores: campo igual, depois prefixo do campo, prefixo de palavra e
+ * trecho qualquer, com nome pesando mais que email e email mais que telefone.
+ * O custo cresce com quantos clientes têm todos os trigramas da consulta, não com o total.
+ *
+ * O índice é reconstruído quando a aplicação sobe (trigramas gerados em paralelo) e mantido
+ * pelos eventos {@link ClienteAlterado}, aplicados só depois do commit. Leituras concorrem
+ * entre si; escritas pegam o lock de escrita por alguns microssegundos.
+ */
+@Component
+public class ClienteIndiceBusca {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteIndiceBusca.class);
+
+    public static final int TAMANHO_MINIMO_CONSULTA = 3;
+    public static final int MAXIMO_RESULTADOS = 100;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}");
+    private static final Pattern NAO_DIGITOS = Pattern.compile("\\D");
+    // consulta com cara de telefone: só dígitos e pontuação de telefone
+    private static final Pattern TELEFONE = Pattern.compile("[\\d\\s()+\\-.]+");
+
+    private static final int PESO_NOME = 3;
+    private static final int PESO_EMAIL = 2;
+    private static final int PESO_TELEFONE = 1;
+
+    private final ClienteRepository repo;
+    private final TransactionTemplate leitura;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guardados pelo lock
+    private Map<Long, Doc> docs = new HashMap<>();
+    private Map<String, Ids> postings = new HashMap<>();
+    // não nulo durante uma reconstrução: alterações que chegaram depois da leitura do banco
+    private List<ClienteAlterado> pendentes;
+
+    public ClienteIndiceBusca(ClienteRepository repo, PlatformTransactionManager transactionManager) {
+        this.repo = repo;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    /**
+     * Documento indexado, um por cliente: os campos como gravados, para montar o DTO devolvido
+     * na busca, e já normalizados, para pontuar. Campo que a normalização não muda é guardado uma vez.
+     */
+    private static final class Doc {
+        final long id;
+        final String nomeOriginal;
+        final String emailOriginal;
+        final String telefoneOriginal;
+        final String nome;
+        final String email;
+        final String telefone;
+
+        Doc(ClienteDto c) {
+            this.id = c.getId();
+            this.nomeOriginal = c.getNome();
+            this.emailOriginal = c.getEmail();
+            this.telefoneOriginal = c.getTelefone();
+            this.nome = mesmo(nomeOriginal, normalizar(nomeOriginal));
+            this.email = mesmo(emailOriginal, normalizar(emailOriginal));
+            this.telefone = mesmo(telefoneOriginal, digitos(telefoneOriginal));
+        }
+
+        ClienteDto dto() {
+            return new ClienteDto(id, nomeOriginal, emailOriginal, telefoneOriginal);
+        }
+
+        Set<String> trigramas() {
+            Set<String> t = new HashSet<>();
+            adicionarTrigramas(nome, t);
+            adicionarTrigramas(email, t);
+            adicionarTrigramas(telefone, t);
+            return t;
+        }
+
+        private static String mesmo(String original, String normalizado) {
+            return normalizado != null && normalizado.equals(original) ? original : normalizado;
+        }
+    }
+
+    /** Ids em ordem crescente; o array cresce e encolhe no lugar, sem objeto por entrada. */
+    private static final class Ids {
+        long[] ids = new long[4];
+        int size;
+
+        void adicionar(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) return;
+            i = -i - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, i, ids, i + 1, size - i);
+            ids[i] = id;
+            size++;
+        }
+
+        void remover(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i < 0) return;
+            System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+            size--;
+        }
+
+        boolean contem(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        // depois da reconstrução: sem a folga das duplicações
+        void compactar() {
+            if (size < ids.length) ids = Arrays.copyOf(ids, size);
+        }
+    }
+
+    // antes dos ApplicationRunners: o índice fica pronto antes da readiness aceitar tráfego
+    @EventListener(ApplicationStartedEvent.class)
+    public void aoSubir() {
+        long inicio = System.nanoTime();
+        int n = reconstruir();
+        log.info("Índice de busca de clientes: {} clientes em {} ms", n, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /** Relê todos os clientes e troca o índice inteiro; devolve quantos foram indexados. */
+    public synchronized int reconstruir() {
+        lock.writeLock().lock();
+        try {
+            pendentes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<ClienteDto> clientes = leitura.execute(status -> {
+                try (Stream<ClienteDto> todos = repo.streamTodos()) {
+                    return todos.toList();
+                }
+            });
+            // a parte cara (normalizar e gerar trigramas) roda em paralelo; a ordem por id se mantém
+            List<Doc> lidos = clientes.parallelStream().map(Doc::new).toList();
+            List<Set<String>> trigramas = lidos.parallelStream().map(Doc::trigramas).toList();
+            Map<Long, Doc> novosDocs = new HashMap<>(lidos.size() * 4 / 3 + 1);
+            Map<String, Ids> novosPostings = new HashMap<>();
+            for (int i = 0; i < lidos.size(); i++) {
+                Doc d = lidos.get(i);
+                novosDocs.put(d.id, d);
+                for (String t : trigramas.get(i)) novosPostings.computeIfAbsent(t, k -> new Ids()).adicionar(d.id);
+            }
+            novosPostings.values().forEach(Ids::compactar);
+
+            lock.writeLock().lock();
+            try {
+                docs = novosDocs;
+                postings = novosPostings;
+                for (ClienteAlterado a : pendentes) aplicarSemLock(a);
+                return docs.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendentes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void aoAlterar(ClienteAlterado alteracao) {
+        lock.writeLock().lock();
+        try {
+            aplicarSemLock(alteracao);
+            if (pendentes != null) pendentes.add(alteracao);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void aplicarSemLock(ClienteAlterado a) {
+        Doc antigo = docs.remove(a.id());
+        if (antigo != null) {
+            for (String t : antigo.trigramas()) {
+                Ids lista = postings.get(t);
+                if (lista == null) continue;
+                lista.remover(antigo.id);
+                if (lista.size == 0) postings.remove(t);
+            }
+        }
+        if (a.cliente() == null) return;
+        Doc novo = new Doc(a.cliente());
+        docs.put(a.id(), novo);
+        for (String t : novo.trigramas()) {
+            postings.computeIfAbsent(t, k -> new Ids()).adicionar(novo.id);
+        }
+    }
+
+    /**
+     * Os {@code k} clientes que mais combinam com {@code consulta}, do melhor para o pior.
+     * A consulta precisa de ao menos {@value #TAMANHO_MINIMO_CONSULTA} caracteres.
+     */
+    public List<ClienteDto> buscar(String consulta, int k) {
+        String texto = normalizar(consulta);
+        if (texto == null || texto.length() < TAMANHO_MINIMO_CONSULTA) {
+            throw new BusinessException("A busca precisa de ao menos " + TAMANHO_MINIMO_CONSULTA + " caracteres");
+        }
+        String numero = TELEFONE.matcher(texto).matches() ? digitos(texto) : null;
+        if (numero != null && numero.length() < TAMANHO_MINIMO_CONSULTA) numero = null;
+        k = Math.max(1, Math.min(k, MAXIMO_RESULTADOS));
+
+        PriorityQueue<Acerto> melhores = new PriorityQueue<>(k + 1, PIOR_PRIMEIRO);
+        lock.readLock().lock();
+        try {
+            pontuar(listas(texto), null, texto, numero, k, melhores);
+            if (numero != null) {
+                // um cliente pode casar pelo texto e pelo número: não entra duas vezes
+                Set<Long> vistos = new HashSet<>();
+                for (Acerto a : melhores) vistos.add(a.doc().id);
+                pontuar(listas(numero), vistos, texto, numero, k, melhores);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ClienteDto> r = new ArrayList<>(melhores.size());
+        while (!melhores.isEmpty()) r.add(melhores.poll().doc().dto());
+        Collections.reverse(r);
+        return r;
+    }
+
+    /**
+     * Percorre a menor lista conferindo as demais (interseção sem conjunto intermediário)
+     * e mantém em {@code melhores} os {@code k} de maior pontuação.
+     */
+    private void pontuar(List<Ids> listas, Set<Long> vistos, String texto, String numero,
+                         int k, PriorityQueue<Acerto> melhores) {
+        if (listas.isEmpty()) return;
+        Ids menor = listas.get(0);
+        proximo:
+        for (int j = 0; j < menor.size; j++) {
+            long id = menor.ids[j];
+            for (int i = 1; i < listas.size(); i++) {
+                if (!listas.get(i).contem(id)) continue proximo;
+            }
+            Doc d = docs.get(id);
+            int pontos = Math.max(
+                    Math.max(PESO_NOME * pontos(d.nome, texto), PESO_EMAIL * pontos(d.email, texto)),
+                    numero == null ? 0 : PESO_TELEFONE * pontos(d.telefone, numero));
+            if (pontos == 0) continue;
+            if (melhores.size() == k && pontos < melhores.peek().pontos()) continue;
+            if (vistos != null && !vistos.add(id)) continue;
+            melhores.add(new Acerto(d, pontos));
+            if (melhores.size() > k) melhores.poll();
+        }
+    }
+
+    /** Quantos clientes estão no índice. */
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Acerto(Doc doc, int pontos) {}
+
+    // pior resultado no topo do heap, para ser descartado quando aparece um melhor:
+    // menos pontos, depois nome mais longo, depois id maior
+    private static final Comparator<Acerto> PIOR_PRIMEIRO = Comparator.comparingInt(Acerto::pontos)
+            .thenComparingInt(a -> a.doc().nome == null ? Integer.MIN_VALUE : -a.doc().nome.length())
+            .thenComparingLong(a -> -a.doc().id);
+
+    /** Listas dos trigramas de {@code texto}, da menor para a maior; vazia se algum trigrama não existe. */
+    private List<Ids> listas(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        adicionarTrigramas(texto, trigramas);
+        List<Ids> listas = new ArrayList<>(trigramas.size());
+        for (String t : trigramas) {
+            Ids lista = postings.get(t);
+            if (lista == null) return List.of();
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(l -> l.size));
+        return listas;
+    }
+
+    /** 4 campo igual, 3 prefixo do campo, 2 prefixo de palavra, 1 trecho qualquer, 0 não contém. */
+    private static int pontos(String campo, String consulta) {
+        if (campo == null) return 0;
+        int i = campo.indexOf(consulta);
+        if (i < 0) return 0;
+        if (i == 0) return campo.length() == consulta.length() ? 4 : 3;
+        while (i >= 0) {
+            if (!Character.isLetterOrDigit(campo.charAt(i - 1))) return 2;
+            i = campo.indexOf(consulta, i + 1);
+        }
+        return 1;
+    }
+
+    private static void adicionarTrigramas(String s, Set<String> out) {
+        if (s == null) return;
+        for (int i = 0; i + TAMANHO_MINIMO_CONSULTA <= s.length(); i++) {
+            out.add(s.substring(i, i + TAMANHO_MINIMO_CONSULTA));
+        }
+    }
+
+    private static String normalizar(String s) {
+        if (s == null) return null;
+        String n = Normalizer.normalize(s.strip(), Normalizer.Form.NFD);
+        return ACENTOS.matcher(n).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static String digitos(String s) {
+        return s == null ? null : NAO_DIGITOS.matcher(s).replaceAll("");
+    }
+}
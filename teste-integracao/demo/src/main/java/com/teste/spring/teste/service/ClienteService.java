@@ -1,20 +1,36 @@
 package com.teste.spring.teste.service;
 
 
+import com.teste.spring.teste.dto.ClienteDto;
+import com.teste.spring.teste.dto.PaginaCursor;
 import com.teste.spring.teste.exception.BusinessException;
 import com.teste.spring.teste.exception.NotFoundException;
+import com.teste.spring.teste.mapa.ClienteMapa;
 import com.teste.spring.teste.model.Cliente;
 import com.teste.spring.teste.repository.ClienteRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
 @Service
 public class ClienteService {
 
+    public static final int TAMANHO_MAXIMO_CURSOR = 1000;
+
     private final ClienteRepository repo;
+    private final ClienteCache cache;
+    private final ApplicationEventPublisher eventos;
 
-    public ClienteService(ClienteRepository repo) {
+    public ClienteService(ClienteRepository repo, ClienteCache cache, ApplicationEventPublisher eventos) {
         this.repo = repo;
+        this.cache = cache;
+        this.eventos = eventos;
     }
 
     @Transactional
@@ -22,30 +38,153 @@ public class ClienteService {
         if (repo.existsByEmail(c.getEmail())) {
             throw new BusinessException("Email já cadastrado");
         }
-        return repo.save(c);
+        Cliente salvo = repo.save(c);
+        cache.remover(salvo.getId(), salvo.getEmail());
+        publicar(salvo);
+        return salvo;
+    }
+
+    /**
+     * Lido pelo {@link ClienteCache}. O retorno é sempre um {@link ClienteDto} novo, nunca a
+     * entidade (que seria alterada e salva por quem a recebesse) nem o valor guardado no cache.
+     */
+    @Transactional(readOnly = true)
+    public ClienteDto buscar(Long id) {
+        return cache.porId(id, () -> ClienteMapa.toDTO(carregar(id)));
     }
 
     @Transactional(readOnly = true)
-    public Cliente buscar(Long id) {
+    public ClienteDto buscarPorEmail(String email) {
+        return cache.porEmail(email, () -> ClienteMapa.toDTO(
+                repo.findByEmail(email).orElseThrow(() -> new NotFoundException("Cliente não encontrado"))));
+    }
+
+    // as escritas trabalham sempre com a entidade do banco, nunca com o cache
+    private Cliente carregar(Long id) {
         return repo.findById(id).orElseThrow(() -> new NotFoundException("Cliente não encontrado"));
     }
 
     @Transactional
     public Cliente atualizar(Long id, Cliente dados) {
-        Cliente existente = buscar(id);
+        Cliente existente = carregar(id);
+        verificarEmail(id, existente, dados.getEmail());
+        cache.remover(id, existente.getEmail(), dados.getEmail());
         existente.setNome(dados.getNome());
         existente.setEmail(dados.getEmail());
         existente.setTelefone(dados.getTelefone());
-        if (repo.existsByEmail(existente.getEmail()) &&
-                repo.findByEmail(existente.getEmail()).map(e -> !e.getId().equals(id)).orElse(false)) {
+        return publicar(repo.save(existente));
+    }
+
+    /**
+     * Atualização parcial: campos nulos em {@code dados} ficam como estão. Com
+     * {@code @DynamicUpdate} o UPDATE leva só as colunas que mudaram, e nenhum é
+     * emitido se nada mudou.
+     */
+    @Transactional
+    public Cliente atualizarParcial(Long id, Cliente dados) {
+        Cliente existente = carregar(id);
+        cache.remover(id, existente.getEmail(), dados.getEmail());
+        if (dados.getEmail() != null) {
+            verificarEmail(id, existente, dados.getEmail());
+            existente.setEmail(dados.getEmail());
+        }
+        if (dados.getNome() != null) existente.setNome(dados.getNome());
+        if (dados.getTelefone() != null) existente.setTelefone(dados.getTelefone());
+        return publicar(repo.save(existente));
+    }
+
+    // email inalterado não consulta nada; trocado, uma consulta só pelo id do dono.
+    // Dois updates concorrentes para o mesmo email ainda esbarram em uk_clientes_email (ver ClienteController).
+    private void verificarEmail(Long id, Cliente existente, String email) {
+        if (email == null || email.equals(existente.getEmail())) return;
+        if (repo.findIdByEmail(email).filter(dono -> !dono.equals(id)).isPresent()) {
             throw new BusinessException("Email já cadastrado para outro cliente");
         }
-        return repo.save(existente);
     }
 
     @Transactional
     public void excluir(Long id) {
-        Cliente existente = buscar(id);
+        Cliente existente = carregar(id);
         repo.delete(existente);
+        cache.remover(id, existente.getEmail());
+        eventos.publishEvent(new ClienteAlterado(id, null));
+    }
+
+    // o índice de busca só aplica depois do commit
+    private Cliente publicar(Cliente c) {
+        eventos.publishEvent(new ClienteAlterado(c.getId(), ClienteMapa.toDTO(c)));
+        return c;
+    }
+
+    /**
+     * Listagem por cursor (keyset), ordenada por {@code id} ou por {@code nome} (desempate pelo id).
+     * Cada página busca {@code size + 1} linhas a partir da última chave da página anterior:
+     * não há COUNT nem OFFSET, então a página 1000 custa o mesmo que a primeira.
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<Cliente> listarPorCursor(String cursor, int size, String sort) {
+        if (size < 1 || size > TAMANHO_MAXIMO_CURSOR) {
+            throw new BusinessException("size deve estar entre 1 e " + TAMANHO_MAXIMO_CURSOR);
+        }
+        String[] s = sort.split(",");
+        String campo = s[0].trim();
+        Sort.Direction dir = s.length > 1 ? Sort.Direction.fromOptionalString(s[1].trim()).orElse(null) : Sort.Direction.ASC;
+        if (dir == null || !(campo.equals("id") || campo.equals("nome"))) {
+            throw new BusinessException("sort deve ser id ou nome, com asc ou desc");
+        }
+        String prefixo = campo + "," + dir.name().toLowerCase();
+        Limit limite = Limit.of(size + 1);
+
+        List<Cliente> linhas;
+        if (campo.equals("id")) {
+            Sort ordem = Sort.by(dir, "id");
+            if (cursor == null || cursor.isEmpty()) {
+                linhas = repo.findAllBy(ordem, limite);
+            } else {
+                Long ultimoId = Long.valueOf(decodificar(cursor, prefixo)[0]);
+                linhas = dir.isAscending()
+                        ? repo.findByIdGreaterThan(ultimoId, ordem, limite)
+                        : repo.findByIdLessThan(ultimoId, ordem, limite);
+            }
+        } else {
+            Sort ordem = Sort.by(dir, "nome").and(Sort.by(dir, "id"));
+            if (cursor == null || cursor.isEmpty()) {
+                linhas = repo.findAllBy(ordem, limite);
+            } else {
+                String[] chave = decodificar(cursor, prefixo);
+                Long ultimoId = Long.valueOf(chave[0]);
+                linhas = dir.isAscending()
+                        ? repo.findAposNome(chave[1], ultimoId, ordem, limite)
+                        : repo.findAntesDeNome(chave[1], ultimoId, ordem, limite);
+            }
+        }
+
+        if (linhas.size() <= size) {
+            return new PaginaCursor<>(linhas, size, null);
+        }
+        List<Cliente> pagina = linhas.subList(0, size);
+        Cliente ultimo = pagina.get(size - 1);
+        String proximo = campo.equals("id")
+                ? codificar(prefixo, ultimo.getId().toString())
+                : codificar(prefixo, ultimo.getId() + "," + ultimo.getNome());
+        return new PaginaCursor<>(pagina, size, proximo);
+    }
+
+    // cursor opaco: "campo,dir,chave" em base64 url-safe; a ordenação viaja junto para ser conferida
+    private static String codificar(String prefixo, String chave) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((prefixo + "," + chave).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodificar(String cursor, String prefixo) {
+        try {
+            String s = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!s.startsWith(prefixo + ",")) throw new IllegalArgumentException();
+            String[] chave = s.substring(prefixo.length() + 1).split(",", 2);
+            Long.parseLong(chave[0]);
+            return chave;
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor inválido para sort=" + prefixo);
+        }
     }
 }
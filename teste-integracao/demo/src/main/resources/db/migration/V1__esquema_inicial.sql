@@ -0,0 +1,40 @@
+-- Esquema inicial das duas aplicacoes (clientes e pessoas/trabalhos), igual ao que o
+-- Hibernate gera a partir das entidades; sequencias com incremento 50 (allocationSize).
+
+create sequence clientes_seq start with 1 increment by 50;
+
+create table clientes (
+    id        bigint       not null,
+    nome      varchar(120) not null,
+    email     varchar(160) not null,
+    telefone  varchar(20),
+    criado_em timestamp(6) not null,
+    constraint pk_clientes primary key (id),
+    constraint uk_clientes_email unique (email)
+);
+
+create index idx_clientes_nome_id on clientes (nome, id);
+
+create sequence pessoa_seq start with 1 increment by 50;
+create sequence trabalho_seq start with 1 increment by 50;
+
+create table pessoa (
+    id         bigint not null,
+    nome       varchar(255),
+    cpf        varchar(255),
+    nome_busca varchar(255),
+    constraint pk_pessoa primary key (id),
+    constraint uk_pessoa_cpf unique (cpf)
+);
+
+create index idx_pessoa_nome_busca on pessoa (nome_busca, id);
+
+create table trabalho (
+    id        bigint not null,
+    descricao varchar(255),
+    pessoa_id bigint,
+    constraint pk_trabalho primary key (id),
+    constraint fk_trabalho_pessoa foreign key (pessoa_id) references pessoa (id)
+);
+
+create index idx_trabalho_pessoa on trabalho (pessoa_id);
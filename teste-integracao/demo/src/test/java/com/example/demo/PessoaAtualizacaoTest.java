@@ -0,0 +1,75 @@
+package com.example.demo;
+
+import com.example.demo.dto.PessoaDTO;
+import com.example.demo.dto.TrabalhoDTO;
+import com.example.demo.entity.Pessoa;
+import com.example.demo.entity.Trabalho;
+import com.example.demo.repository.PessoaRepository;
+import com.example.demo.service.PessoaService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(PessoaService.class)
+class PessoaAtualizacaoTest {
+
+    @Autowired
+    PessoaService service;
+
+    @Autowired
+    PessoaRepository repository;
+
+    @Autowired
+    TestEntityManager em;
+
+    @Test
+    void atualizarUmTrabalhoNaoRegravaOsDemais() {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Ana");
+        pessoa.setCpf("1");
+        List<Trabalho> trabalhos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Trabalho t = new Trabalho();
+            t.setDescricao("T" + i);
+            t.setPessoa(pessoa);
+            trabalhos.add(t);
+        }
+        pessoa.setTrabalhos(trabalhos);
+        Long id = repository.save(pessoa).getId();
+        em.flush();
+        em.clear();
+
+        List<TrabalhoDTO> dtos = new ArrayList<>();
+        for (Trabalho t : trabalhos) dtos.add(new TrabalhoDTO(t.getId(), t.getDescricao()));
+        dtos.get(0).setDescricao("T0 alterado");
+        dtos.remove(199);
+        dtos.add(new TrabalhoDTO(null, "Novo"));
+
+        Statistics stats = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        PessoaDTO resultado = service.atualizar(id, new PessoaDTO(id, "Ana", "1", dtos));
+        em.flush();
+
+        assertThat(resultado.getTrabalhos()).hasSize(200);
+        assertThat(stats.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(stats.getEntityDeleteCount()).isEqualTo(1);
+        assertThat(stats.getEntityInsertCount()).isEqualTo(1);
+
+        em.clear();
+        Pessoa salva = repository.findById(id).orElseThrow();
+        assertThat(salva.getTrabalhos()).extracting(Trabalho::getDescricao)
+                .contains("T0 alterado", "T198", "Novo")
+                .doesNotContain("T0", "T199");
+    }
+}
@@ -2,19 +2,30 @@ package com.example.demo;
 
 import com.example.demo.controller.PessoaController;
 import com.example.demo.dto.PessoaDTO;
+import com.example.demo.dto.ResultadoImportacaoPessoas;
 import com.example.demo.dto.TrabalhoDTO;
+import com.example.demo.service.PessoaExportService;
+import com.example.demo.service.PessoaImportacaoService;
 import com.example.demo.service.PessoaService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -33,6 +44,28 @@ class PessoaControllerTest {
     @MockBean
     private PessoaService pessoaService;
 
+    @MockBean
+    private PessoaExportService pessoaExportService;
+
+    @MockBean
+    private PessoaImportacaoService pessoaImportacaoService;
+
+    /** Consome o iterador como o serviço faria e guarda os nomes lidos. */
+    private List<String> stubImportacao() {
+        List<String> nomes = new ArrayList<>();
+        when(pessoaImportacaoService.importar(any())).thenAnswer(inv -> {
+            Iterator<PessoaDTO> it = inv.getArgument(0);
+            long trabalhos = 0;
+            while (it.hasNext()) {
+                PessoaDTO d = it.next();
+                nomes.add(d.getNome());
+                trabalhos += d.getTrabalhos() == null ? 0 : d.getTrabalhos().size();
+            }
+            return new ResultadoImportacaoPessoas(nomes.size(), trabalhos, 1, 2_000_000_000L);
+        });
+        return nomes;
+    }
+
     @Test
     void criar_deveCriarPessoaComSucesso() throws Exception {
         PessoaDTO dto = new PessoaDTO();
@@ -108,11 +141,12 @@ class PessoaControllerTest {
 
         List<PessoaDTO> pessoas = Arrays.asList(pessoa1, pessoa2);
 
-        when(pessoaService.listarTodos()).thenReturn(pessoas);
+        when(pessoaService.listarTodos()).thenReturn(new SliceImpl<>(pessoas));
 
         mockMvc.perform(get("/api/pessoas")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Link"))
                 .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(2)))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].nome").value("João"))
@@ -122,6 +156,57 @@ class PessoaControllerTest {
         verify(pessoaService).listarTodos();
     }
 
+    @Test
+    void listarTodos_cortadaDeveApontarParaOExport() throws Exception {
+        PessoaDTO pessoa = new PessoaDTO();
+        pessoa.setId(1L);
+        when(pessoaService.listarTodos()).thenReturn(new SliceImpl<>(List.of(pessoa), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/api/pessoas"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", "</api/pessoas/export>; rel=\"alternate\""))
+                .andExpect(jsonPath("$", org.hamcrest.Matchers.hasSize(1)));
+    }
+
+    @Test
+    void listarPagina_deveRetornarFatiaSemTotal() throws Exception {
+        PessoaDTO pessoa = new PessoaDTO();
+        pessoa.setId(3L);
+        pessoa.setNome("Carla");
+        pessoa.setTrabalhos(List.of());
+
+        when(pessoaService.listarPagina(1, 2))
+                .thenReturn(new SliceImpl<>(List.of(pessoa), PageRequest.of(1, 2), false));
+
+        mockMvc.perform(get("/api/pessoas/pagina").param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].nome").value("Carla"))
+                .andExpect(jsonPath("$.last").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(pessoaService).listarPagina(1, 2);
+    }
+
+    @Test
+    void exportar_deveEscreverNdjsonSemListarTodos() throws Exception {
+        when(pessoaExportService.exportar(any(OutputStream.class))).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(0);
+            out.write("{\"id\":1,\"trabalhos\":[]}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        var resultado = mockMvc.perform(get("/api/pessoas/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1,\"trabalhos\":[]}\n"));
+
+        verify(pessoaService, never()).listarTodos();
+    }
+
     @Test
     void atualizar_deveAtualizarPessoaComSucesso() throws Exception {
         PessoaDTO dto = new PessoaDTO();
@@ -206,5 +291,82 @@ class PessoaControllerTest {
 
         verify(pessoaService).salvar(any(PessoaDTO.class));
     }
-}
 
+    @Test
+    void importar_deveLerArrayJson() throws Exception {
+        List<String> nomes = stubImportacao();
+
+        mockMvc.perform(post("/api/pessoas/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"nome\":\"Ana\",\"trabalhos\":[{\"descricao\":\"Dev\"}]},{\"nome\":\"Bia\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pessoas").value(2))
+                .andExpect(jsonPath("$.trabalhos").value(1))
+                .andExpect(jsonPath("$.linhasPorSegundo").value(1.5));
+
+        assertThat(nomes).containsExactly("Ana", "Bia");
+    }
+
+    @Test
+    void importar_deveLerNdjson() throws Exception {
+        List<String> nomes = stubImportacao();
+
+        mockMvc.perform(post("/api/pessoas/lote")
+                .contentType("application/x-ndjson")
+                .content("{\"nome\":\"Ana\",\"trabalhos\":[]}\n{\"nome\":\"Bia\",\"trabalhos\":[{\"descricao\":\"Dev\"},{\"descricao\":\"QA\"}]}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pessoas").value(2))
+                .andExpect(jsonPath("$.trabalhos").value(2));
+
+        assertThat(nomes).containsExactly("Ana", "Bia");
+    }
+
+    @Test
+    void importar_deveRetornar409ComTotaisParciaisQuandoCpfRepetido() throws Exception {
+        when(pessoaImportacaoService.importar(any()))
+                .thenReturn(new ResultadoImportacaoPessoas(3, 1, 1, 1_000_000L, 4L, "CPF já cadastrado: 123"));
+
+        mockMvc.perform(post("/api/pessoas/lote")
+                .contentType("application/x-ndjson")
+                .content("{\"nome\":\"Ana\"}\n"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.pessoas").value(3))
+                .andExpect(jsonPath("$.posicaoFalha").value(4))
+                .andExpect(jsonPath("$.erro").value("CPF já cadastrado: 123"));
+    }
+
+    @Test
+    void buscarPorCpf_deveRetornarPessoa() throws Exception {
+        when(pessoaService.buscarPorCpf("123.456.789-00"))
+                .thenReturn(new PessoaDTO(7L, "Ana", "12345678900", List.of()));
+
+        mockMvc.perform(get("/api/pessoas").param("cpf", "123.456.789-00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.cpf").value("12345678900"));
+
+        verify(pessoaService, never()).listarTodos();
+    }
+
+    @Test
+    void buscarPorNome_deveRepassarPrefixoELimite() throws Exception {
+        when(pessoaService.buscarPorNome("an", 5))
+                .thenReturn(List.of(new PessoaDTO(1L, "Ana", "1", List.of())));
+
+        mockMvc.perform(get("/api/pessoas").param("nome", "an").param("limite", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nome").value("Ana"));
+    }
+
+    @Test
+    void criar_deveRetornar409QuandoCpfJaExiste() throws Exception {
+        when(pessoaService.salvar(any(PessoaDTO.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new RuntimeException("Unique index or primary key violation: UK_PESSOA_CPF")));
+
+        mockMvc.perform(post("/api/pessoas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Ana\",\"cpf\":\"12345678900\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("CPF já cadastrado"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo;
+
+import com.example.demo.dto.PessoaDTO;
+import com.example.demo.entity.Pessoa;
+import com.example.demo.entity.Trabalho;
+import com.example.demo.repository.PessoaRepository;
+import com.example.demo.service.PessoaExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class PessoaExportServiceTest {
+
+    @Autowired
+    PessoaRepository repository;
+
+    @Autowired
+    TestEntityManager em;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Pessoa pessoa(String nome, String... trabalhos) {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(nome);
+        pessoa.setCpf(nome.toLowerCase());
+        List<Trabalho> lista = new ArrayList<>();
+        for (String d : trabalhos) {
+            Trabalho t = new Trabalho();
+            t.setDescricao(d);
+            t.setPessoa(pessoa);
+            lista.add(t);
+        }
+        pessoa.setTrabalhos(lista);
+        return repository.save(pessoa);
+    }
+
+    @Test
+    void deveAgruparTrabalhosPorPessoaUmaPorLinha() throws Exception {
+        Pessoa ana = pessoa("Ana", "Dev", "Professora");
+        Pessoa bia = pessoa("Bia");
+        Pessoa caio = pessoa("Caio", "Analista");
+        em.flush();
+        em.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long escritas = new PessoaExportService(repository, mapper).exportar(out);
+
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertThat(ndjson).endsWith("\n");
+        String[] linhas = ndjson.split("\n");
+        assertThat(escritas).isEqualTo(3);
+        assertThat(linhas).hasSize(3);
+
+        PessoaDTO l0 = mapper.readValue(linhas[0], PessoaDTO.class);
+        PessoaDTO l1 = mapper.readValue(linhas[1], PessoaDTO.class);
+        PessoaDTO l2 = mapper.readValue(linhas[2], PessoaDTO.class);
+        assertThat(l0.getId()).isEqualTo(ana.getId());
+        assertThat(l0.getTrabalhos()).extracting("descricao").containsExactly("Dev", "Professora");
+        assertThat(l1.getId()).isEqualTo(bia.getId());
+        assertThat(l1.getTrabalhos()).isEmpty();
+        assertThat(l2.getNome()).isEqualTo("Caio");
+        assertThat(l2.getCpf()).isEqualTo("caio");
+        assertThat(l2.getTrabalhos()).extracting("id").containsExactly(caio.getTrabalhos().get(0).getId());
+    }
+
+    @Test
+    void tabelaVaziaNaoEscreveNada() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(new PessoaExportService(repository, mapper).exportar(out)).isZero();
+        assertThat(out.size()).isZero();
+    }
+}
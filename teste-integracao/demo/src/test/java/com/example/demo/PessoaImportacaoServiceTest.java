@@ -0,0 +1,150 @@
+package com.example.demo;
+
+import com.example.demo.dto.PessoaDTO;
+import com.example.demo.dto.ResultadoImportacaoPessoas;
+import com.example.demo.dto.TrabalhoDTO;
+import com.example.demo.entity.Pessoa;
+import com.example.demo.repository.PessoaRepository;
+import com.example.demo.service.PessoaImportacaoService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "pessoas.importacao.por-transacao=500"})
+@Import(PessoaImportacaoService.class)
+// sem a transação do teste: cada bloco da importação é de fato commitado
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PessoaImportacaoServiceTest {
+
+    @Autowired
+    PessoaImportacaoService service;
+
+    @Autowired
+    PessoaRepository repository;
+
+    @Autowired
+    EntityManager em;
+
+    @AfterEach
+    void limpar() {
+        repository.deleteAll();
+    }
+
+    private static Iterator<PessoaDTO> pessoas(int n, int trabalhosPorPessoa) {
+        return new Iterator<>() {
+            int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < n;
+            }
+
+            @Override
+            public PessoaDTO next() {
+                List<TrabalhoDTO> trabalhos = new ArrayList<>();
+                for (int t = 0; t < trabalhosPorPessoa; t++) trabalhos.add(new TrabalhoDTO(null, "T" + t));
+                i++;
+                return new PessoaDTO(99L, "P" + i, String.valueOf(i), trabalhos);
+            }
+        };
+    }
+
+    @Test
+    void deveGravarPessoasETrabalhosEmLotesJdbc() {
+        Statistics stats = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        ResultadoImportacaoPessoas r = service.importar(pessoas(1200, 2));
+
+        assertThat(r.getPessoas()).isEqualTo(1200);
+        assertThat(r.getTrabalhos()).isEqualTo(2400);
+        assertThat(r.getTransacoes()).isEqualTo(3);
+        assertThat(r.getLinhasPorSegundo()).isPositive();
+        assertThat(stats.getEntityInsertCount()).isEqualTo(3600);
+        // 24 flushes x (1 lote de pessoas + 2 de trabalhos) mais as chamadas de sequência;
+        // sem lotes seriam 3600 comandos
+        assertThat(stats.getPrepareStatementCount()).isLessThan(200);
+        assertThat(repository.count()).isEqualTo(1200);
+        Pessoa primeira = repository.findAll().stream().filter(p -> p.getNome().equals("P1")).findFirst().orElseThrow();
+        assertThat(primeira.getId()).isNotEqualTo(99L);
+    }
+
+    @Test
+    void cpfJaGravadoParaAImportacaoComTotaisParciaisEPosicao() {
+        service.importar(pessoas(1, 0));   // CPF "1"
+        List<PessoaDTO> entrada = new ArrayList<>();
+        for (int i = 0; i < 620; i++) entrada.add(new PessoaDTO(null, "N" + i, "9" + i, List.of(new TrabalhoDTO(null, "T"))));
+        entrada.set(600, new PessoaDTO(null, "Repetida", "1", List.of()));
+
+        ResultadoImportacaoPessoas r = service.importar(entrada.iterator());
+
+        // a transação de 500 e as 100 seguintes da segunda ficam gravadas
+        assertThat(r.getErro()).isEqualTo("CPF já cadastrado: 1");
+        assertThat(r.getPosicaoFalha()).isEqualTo(601);
+        assertThat(r.getPessoas()).isEqualTo(600);
+        assertThat(r.getTrabalhos()).isEqualTo(600);
+        assertThat(repository.count()).isEqualTo(601);
+    }
+
+    @Test
+    void cpfRepetidoNaPropriaImportacaoContaPosicaoComLinhasNulas() {
+        List<PessoaDTO> entrada = new ArrayList<>();
+        entrada.add(new PessoaDTO(null, "A", "123.456.789-00", List.of()));
+        entrada.add(null);
+        entrada.add(new PessoaDTO(null, "B", "98765432100", List.of()));
+        entrada.add(new PessoaDTO(null, "C", "12345678900", List.of()));
+        entrada.add(new PessoaDTO(null, "D", "555", List.of()));
+
+        ResultadoImportacaoPessoas r = service.importar(entrada.iterator());
+
+        assertThat(r.getErro()).isEqualTo("CPF já cadastrado: 12345678900");
+        assertThat(r.getPosicaoFalha()).isEqualTo(4);
+        assertThat(r.getPessoas()).isEqualTo(2);
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void importacaoSemFalhaNaoTrazPosicao() {
+        ResultadoImportacaoPessoas r = service.importar(pessoas(10, 0));
+        assertThat(r.getErro()).isNull();
+        assertThat(r.getPosicaoFalha()).isNull();
+    }
+
+    @Test
+    void falhaDesfazSoATransacaoCorrente() {
+        Iterator<PessoaDTO> base = pessoas(1200, 1);
+        Iterator<PessoaDTO> comFalha = new Iterator<>() {
+            int lidas;
+
+            @Override
+            public boolean hasNext() {
+                return base.hasNext();
+            }
+
+            @Override
+            public PessoaDTO next() {
+                if (++lidas == 700) throw new IllegalStateException("linha inválida");
+                return base.next();
+            }
+        };
+
+        assertThatThrownBy(() -> service.importar(comFalha)).isInstanceOf(IllegalStateException.class);
+        assertThat(repository.count()).isEqualTo(500);
+    }
+}
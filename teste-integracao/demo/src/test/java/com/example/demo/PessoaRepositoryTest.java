@@ -1,24 +1,38 @@
 package com.example.demo;
 
+import com.example.demo.dto.PessoaDTO;
 import com.example.demo.entity.Pessoa;
+import com.example.demo.mapa.PessoaMapa;
+import com.example.demo.repository.PessoaTrabalhoLinha;
 import com.example.demo.entity.Trabalho;
 import com.example.demo.repository.PessoaRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class PessoaRepositoryTest {
 
     @Autowired
     PessoaRepository repository;
 
+    @Autowired
+    TestEntityManager em;
+
     @Test
     void deveSalvarEConsultarPessoa() {
         Pessoa pessoa = new Pessoa();
@@ -124,5 +138,128 @@ class PessoaRepositoryTest {
         Optional<Pessoa> deletada = repository.findById(pessoaId);
         assertThat(deletada).isEmpty();
     }
-}
 
+    @Test
+    void deveCarregarPessoasETrabalhosComConsultasConstantes() {
+        for (int i = 0; i < 30; i++) {
+            Pessoa pessoa = new Pessoa();
+            pessoa.setNome("Pessoa " + i);
+            pessoa.setCpf(String.format("%011d", i));
+            Trabalho t1 = new Trabalho();
+            t1.setDescricao("T" + i + "a");
+            t1.setPessoa(pessoa);
+            Trabalho t2 = new Trabalho();
+            t2.setDescricao("T" + i + "b");
+            t2.setPessoa(pessoa);
+            pessoa.setTrabalhos(Arrays.asList(t1, t2));
+            repository.save(pessoa);
+        }
+        em.flush();
+        em.clear();
+
+        Statistics stats = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        List<Long> ids = repository.findIdsAposId(0L, Limit.of(100));
+        List<PessoaDTO> pessoas = PessoaMapa.agrupar(repository.findLinhasByIdIn(ids), ids.size());
+        int trabalhos = pessoas.stream().mapToInt(p -> p.getTrabalhos().size()).sum();
+
+        assertThat(pessoas).hasSize(30);
+        assertThat(trabalhos).isEqualTo(60);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        // projeção: nenhuma entidade carregada no contexto de persistência
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void deveTrazerPessoaSemTrabalhosComColunasDeTrabalhoNulas() {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Sem trabalho");
+        Long id = repository.save(pessoa).getId();
+        em.flush();
+        em.clear();
+
+        List<PessoaTrabalhoLinha> linhas = repository.findLinhasById(id);
+
+        assertThat(linhas).hasSize(1);
+        assertThat(linhas.get(0).trabalhoId()).isNull();
+        assertThat(PessoaMapa.agrupar(linhas, 1).get(0).getTrabalhos()).isEmpty();
+    }
+
+    @Test
+    void deveFatiarIdsSemContar() {
+        for (int i = 0; i < 5; i++) {
+            Pessoa pessoa = new Pessoa();
+            pessoa.setNome("Fatia " + i);
+            repository.save(pessoa);
+        }
+
+        Slice<Long> primeira = repository.findIds(PageRequest.of(0, 3));
+        Slice<Long> segunda = repository.findIds(PageRequest.of(1, 3));
+
+        assertThat(primeira.getContent()).hasSize(3);
+        assertThat(primeira.hasNext()).isTrue();
+        assertThat(segunda.getContent()).hasSize(2);
+        assertThat(segunda.hasNext()).isFalse();
+    }
+
+    private Pessoa salvar(String nome, String cpf) {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(nome);
+        pessoa.setCpf(cpf);
+        return repository.save(pessoa);
+    }
+
+    @Test
+    void deveBuscarPorCpfNormalizado() {
+        Pessoa ana = salvar("Ana", "123.456.789-00");
+        em.flush();
+        em.clear();
+
+        List<PessoaTrabalhoLinha> linhas = repository.findLinhasByCpf(Pessoa.normalizarCpf("123 456 789 00"));
+
+        assertThat(linhas).hasSize(1);
+        assertThat(linhas.get(0).pessoaId()).isEqualTo(ana.getId());
+        assertThat(linhas.get(0).cpf()).isEqualTo("12345678900");
+    }
+
+    @Test
+    void cpfRepetidoViolaAUnique() {
+        salvar("Ana", "12345678900");
+        em.flush();
+
+        Pessoa outra = new Pessoa();
+        outra.setNome("Outra");
+        outra.setCpf("123.456.789-00");
+        assertThatThrownBy(() -> repository.saveAndFlush(outra))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("UK_PESSOA_CPF");
+    }
+
+    @Test
+    void deveBuscarPorPrefixoDoNomeEmOrdem() {
+        salvar("Mário", "1");
+        salvar("maria", "2");
+        salvar("Marcos", "3");
+        salvar("Ana Maria", "4");
+        salvar("Mar_ia", "5");
+        em.flush();
+
+        List<Long> ids = repository.findIdsByNomePrefixo("mar%", Limit.of(10));
+        List<Long> escapado = repository.findIdsByNomePrefixo("mar\\_%", Limit.of(10));
+
+        assertThat(ids).extracting(id -> repository.findById(id).orElseThrow().getNome())
+                .containsExactly("Mar_ia", "Marcos", "maria", "Mário");
+        assertThat(escapado).hasSize(1);
+    }
+
+    @Test
+    void buscaPorPrefixoUsaOIndiceDeNome() {
+        String plano = String.valueOf(em.getEntityManager()
+                .createNativeQuery("explain select id from pessoa where nome_busca like 'mar%' order by nome_busca, id")
+                .getSingleResult());
+
+        assertThat(plano).containsIgnoringCase("idx_pessoa_nome_busca");
+    }
+}
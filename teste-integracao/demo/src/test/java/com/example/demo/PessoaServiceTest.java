@@ -5,6 +5,7 @@ import com.example.demo.dto.TrabalhoDTO;
 import com.example.demo.entity.Pessoa;
 import com.example.demo.entity.Trabalho;
 import com.example.demo.repository.PessoaRepository;
+import com.example.demo.repository.PessoaTrabalhoLinha;
 import com.example.demo.service.PessoaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,12 +14,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -108,7 +116,7 @@ class PessoaServiceTest {
 
     @Test
     void buscarPorId_deveRetornarPessoaQuandoExiste() {
-        when(pessoaRepository.findById(1L)).thenReturn(Optional.of(pessoa));
+        when(pessoaRepository.findLinhasById(1L)).thenReturn(linhas(pessoa));
 
         PessoaDTO resultado = pessoaService.buscarPorId(1L);
 
@@ -118,18 +126,19 @@ class PessoaServiceTest {
         assertThat(resultado.getCpf()).isEqualTo("12345678900");
         assertThat(resultado.getTrabalhos()).hasSize(1);
         assertThat(resultado.getTrabalhos().get(0).getDescricao()).isEqualTo("Desenvolvedor");
-        verify(pessoaRepository).findById(1L);
+        verify(pessoaRepository).findLinhasById(1L);
+        verify(pessoaRepository, never()).findById(any());
     }
 
     @Test
     void buscarPorId_deveLancarExceptionQuandoNaoExiste() {
-        when(pessoaRepository.findById(999L)).thenReturn(Optional.empty());
+        when(pessoaRepository.findLinhasById(999L)).thenReturn(List.of());
 
         assertThatThrownBy(() -> pessoaService.buscarPorId(999L))
                 .isInstanceOf(jakarta.persistence.EntityNotFoundException.class)
                 .hasMessageContaining("Pessoa não encontrada");
 
-        verify(pessoaRepository).findById(999L);
+        verify(pessoaRepository).findLinhasById(999L);
     }
 
     @Test
@@ -148,26 +157,100 @@ class PessoaServiceTest {
 
         List<Pessoa> pessoas = Arrays.asList(pessoa1, pessoa2);
 
-        when(pessoaRepository.findAll()).thenReturn(pessoas);
+        when(pessoaRepository.findIdsAposId(eq(0L), any(Limit.class))).thenReturn(List.of(1L, 2L));
+        when(pessoaRepository.findLinhasByIdIn(List.of(1L, 2L))).thenReturn(linhas(pessoas));
 
-        List<PessoaDTO> resultado = pessoaService.listarTodos();
+        List<PessoaDTO> resultado = pessoaService.listarTodos().getContent();
 
         assertThat(resultado).isNotNull();
         assertThat(resultado).hasSize(2);
         assertThat(resultado.get(0).getNome()).isEqualTo("João");
         assertThat(resultado.get(1).getNome()).isEqualTo("Maria");
-        verify(pessoaRepository).findAll();
+        verify(pessoaRepository, never()).findAll();
     }
 
     @Test
     void listarTodos_deveRetornarListaVaziaQuandoNaoHaPessoas() {
-        when(pessoaRepository.findAll()).thenReturn(Arrays.asList());
+        when(pessoaRepository.findIdsAposId(eq(0L), any(Limit.class))).thenReturn(List.of());
 
-        List<PessoaDTO> resultado = pessoaService.listarTodos();
+        List<PessoaDTO> resultado = pessoaService.listarTodos().getContent();
 
         assertThat(resultado).isNotNull();
         assertThat(resultado).isEmpty();
-        verify(pessoaRepository).findAll();
+        verify(pessoaRepository, never()).findLinhasByIdIn(any());
+    }
+
+    @Test
+    void listarTodos_deveLerEmLotesAPartirDoUltimoId() {
+        List<Long> lote = LongStream.rangeClosed(1, 500).boxed().toList();
+        List<Pessoa> pessoas = lote.stream().map(id -> {
+            Pessoa p = new Pessoa();
+            p.setId(id);
+            p.setNome("P" + id);
+            return p;
+        }).toList();
+
+        when(pessoaRepository.findIdsAposId(eq(0L), any(Limit.class))).thenReturn(lote);
+        when(pessoaRepository.findIdsAposId(eq(500L), any(Limit.class))).thenReturn(List.of(501L));
+        when(pessoaRepository.findLinhasByIdIn(lote)).thenReturn(linhas(pessoas));
+        when(pessoaRepository.findLinhasByIdIn(List.of(501L))).thenReturn(linhas(pessoa));
+
+        Slice<PessoaDTO> resultado = pessoaService.listarTodos();
+
+        assertThat(resultado.getContent()).hasSize(501);
+        assertThat(resultado.getContent().get(500).getTrabalhos()).hasSize(1);
+        assertThat(resultado.hasNext()).isFalse();
+        verify(pessoaRepository, times(2)).findIdsAposId(any(), any(Limit.class));
+    }
+
+    @Test
+    void listarTodos_devePararNoLimiteEIndicarQueHaMais() {
+        List<Long> lote1 = LongStream.rangeClosed(1, 500).boxed().toList();
+        List<Long> lote2 = LongStream.rangeClosed(501, 1000).boxed().toList();
+        when(pessoaRepository.findIdsAposId(eq(0L), any(Limit.class))).thenReturn(lote1);
+        when(pessoaRepository.findIdsAposId(eq(500L), any(Limit.class))).thenReturn(lote2);
+        when(pessoaRepository.findIdsAposId(1000L, Limit.of(1))).thenReturn(List.of(1001L));
+        when(pessoaRepository.findLinhasByIdIn(any())).thenAnswer(inv -> {
+            List<Long> ids = inv.getArgument(0);
+            return linhas(ids.stream().map(id -> {
+                Pessoa p = new Pessoa();
+                p.setId(id);
+                p.setNome("P" + id);
+                return p;
+            }).toList());
+        });
+
+        Slice<PessoaDTO> resultado = pessoaService.listarTodos();
+
+        assertThat(resultado.getContent()).hasSize(PessoaService.LIMITE_LISTAGEM);
+        assertThat(resultado.hasNext()).isTrue();
+        verify(pessoaRepository, times(2)).findLinhasByIdIn(any());
+    }
+
+    @Test
+    void listarPagina_deveCarregarIdsDaPaginaComTrabalhos() {
+        when(pessoaRepository.findIds(PageRequest.of(2, 10)))
+                .thenReturn(new SliceImpl<>(List.of(1L), PageRequest.of(2, 10), true));
+        when(pessoaRepository.findLinhasByIdIn(List.of(1L))).thenReturn(linhas(pessoa));
+
+        Slice<PessoaDTO> resultado = pessoaService.listarPagina(2, 10);
+
+        assertThat(resultado.getContent()).hasSize(1);
+        assertThat(resultado.getContent().get(0).getTrabalhos()).hasSize(1);
+        assertThat(resultado.hasNext()).isTrue();
+        assertThat(resultado.getNumber()).isEqualTo(2);
+    }
+
+    @Test
+    void listarPagina_deveLimitarPaginaETamanhoInvalidos() {
+        when(pessoaRepository.findIds(any(PageRequest.class)))
+                .thenAnswer(inv -> new SliceImpl<Long>(List.of(), inv.getArgument(0), false));
+
+        assertThat(pessoaService.listarPagina(-1, -5).getPageable()).isEqualTo(PageRequest.of(0, 1));
+        assertThat(pessoaService.listarPagina(0, 0).getPageable()).isEqualTo(PageRequest.of(0, 1));
+        assertThat(pessoaService.listarPagina(3, 5000).getPageable())
+                .isEqualTo(PageRequest.of(3, PessoaService.TAMANHO_MAXIMO_PAGINA));
+        verify(pessoaRepository, never()).findLinhasByIdIn(any());
     }
 
     @Test
@@ -254,6 +337,71 @@ class PessoaServiceTest {
         verify(pessoaRepository).save(any(Pessoa.class));
     }
 
+    @Test
+    void atualizar_deveMesclarTrabalhosPeloId() {
+        Pessoa existente = new Pessoa();
+        existente.setId(1L);
+        List<Trabalho> trabalhos = new java.util.ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            Trabalho t = new Trabalho();
+            t.setId(i);
+            t.setDescricao("T" + i);
+            t.setPessoa(existente);
+            trabalhos.add(t);
+        }
+        existente.setTrabalhos(trabalhos);
+        Trabalho primeiro = trabalhos.get(0);
+
+        PessoaDTO dto = new PessoaDTO(null, "João", "123", Arrays.asList(
+                new TrabalhoDTO(1L, "T1 alterado"),
+                new TrabalhoDTO(3L, "T3"),
+                new TrabalhoDTO(null, "Novo"),
+                new TrabalhoDTO(99L, "Id de outra pessoa")));
+
+        when(pessoaRepository.findById(1L)).thenReturn(Optional.of(existente));
+        when(pessoaRepository.save(any(Pessoa.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PessoaDTO resultado = pessoaService.atualizar(1L, dto);
+
+        // mesma coleção e mesma instância alterada no lugar; o 2 saiu, dois novos sem id
+        assertThat(existente.getTrabalhos()).isSameAs(trabalhos);
+        assertThat(trabalhos.get(0)).isSameAs(primeiro);
+        assertThat(resultado.getTrabalhos()).extracting("id").containsExactly(1L, 3L, null, null);
+        assertThat(resultado.getTrabalhos()).extracting("descricao")
+                .containsExactly("T1 alterado", "T3", "Novo", "Id de outra pessoa");
+        assertThat(trabalhos).allSatisfy(t -> assertThat(t.getPessoa()).isSameAs(existente));
+    }
+
+    @Test
+    void buscarPorCpf_deveNormalizarAntesDeConsultar() {
+        when(pessoaRepository.findLinhasByCpf("12345678900")).thenReturn(linhas(pessoa));
+
+        PessoaDTO resultado = pessoaService.buscarPorCpf("123.456.789-00");
+
+        assertThat(resultado.getId()).isEqualTo(1L);
+        assertThat(resultado.getTrabalhos()).hasSize(1);
+    }
+
+    @Test
+    void buscarPorCpf_deveLancarExceptionQuandoNaoExiste() {
+        assertThatThrownBy(() -> pessoaService.buscarPorCpf(" . "))
+                .hasMessage("Pessoa não encontrada");
+        verify(pessoaRepository, never()).findLinhasByCpf(any());
+    }
+
+    @Test
+    void buscarPorNome_deveEscaparCuringasEManterOrdemDoIndice() {
+        Pessoa b = new Pessoa();
+        b.setId(2L);
+        b.setNome("Joana");
+        when(pessoaRepository.findIdsByNomePrefixo(eq("jo\\_a%"), any(Limit.class))).thenReturn(List.of(2L, 1L));
+        when(pessoaRepository.findLinhasByIdIn(List.of(2L, 1L))).thenReturn(linhas(pessoa, b));
+
+        List<PessoaDTO> resultado = pessoaService.buscarPorNome("JÓ_a", 10);
+
+        assertThat(resultado).extracting("id").containsExactly(2L, 1L);
+    }
+
     @Test
     void deletar_deveDeletarPessoaComSucesso() {
         doNothing().when(pessoaRepository).deleteById(1L);
@@ -294,5 +442,23 @@ class PessoaServiceTest {
         assertThat(resultado.getTrabalhos()).hasSize(3);
         verify(pessoaRepository).save(any(Pessoa.class));
     }
-}
 
+    // linhas do left join pessoa x trabalho, como a consulta de projeção devolve
+    private static List<PessoaTrabalhoLinha> linhas(Pessoa... pessoas) {
+        return linhas(Arrays.asList(pessoas));
+    }
+
+    private static List<PessoaTrabalhoLinha> linhas(List<Pessoa> pessoas) {
+        List<PessoaTrabalhoLinha> r = new java.util.ArrayList<>();
+        for (Pessoa p : pessoas) {
+            if (p.getTrabalhos() == null || p.getTrabalhos().isEmpty()) {
+                r.add(new PessoaTrabalhoLinha(p.getId(), p.getNome(), p.getCpf(), null, null));
+                continue;
+            }
+            for (Trabalho t : p.getTrabalhos()) {
+                r.add(new PessoaTrabalhoLinha(p.getId(), p.getNome(), p.getCpf(), t.getId(), t.getDescricao()));
+            }
+        }
+        return r;
+    }
+}
@@ -0,0 +1,146 @@
+package com.teste.spring.teste;
+
+import com.teste.spring.teste.model.Cliente;
+import com.teste.spring.teste.repository.ClienteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga comparando o pool de threads de plataforma do Tomcat com o perfil {@code virtual}.
+ *
+ * Fora da suíte normal: rode com {@code mvn test -Dtest=CargaVirtualThreadsTest -Dcarga=true}
+ * (use um JDK 21+ para que o perfil virtual tenha efeito). Cada modo sobe a aplicação numa
+ * porta aleatória, com banco próprio e o mesmo pool do Hikari ({@code -Dcarga.pool}, 20 por
+ * padrão), e recebe {@code CONCORRENCIA} clientes HTTP fazendo listagens paginadas
+ * (COUNT + SELECT no H2). Imprime vazão e latências p50/p99.
+ */
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class CargaVirtualThreadsTest {
+
+    static final int CONCORRENCIA = Integer.getInteger("carga.concorrencia", 400);
+    static final int REQUISICOES_POR_CLIENTE = Integer.getInteger("carga.requisicoes", 50);
+    static final int CLIENTES_NO_BANCO = 2000;
+    static final int POOL_BANCO = Integer.getInteger("carga.pool", 20);
+
+    @Test
+    void comparaPlataformaComVirtualThreads() throws Exception {
+        Resultado plataforma = medir("plataforma", false);
+        Resultado virtual = medir("virtual", true);
+
+        System.out.printf("%nJava %s, %d clientes HTTP x %d requisições%n",
+                Runtime.version(), CONCORRENCIA, REQUISICOES_POR_CLIENTE);
+        System.out.println(plataforma);
+        System.out.println(virtual);
+
+        // timeouts isolados sob sobrecarga fazem parte da medida; acima de 1% algo quebrou
+        int limite = CONCORRENCIA * REQUISICOES_POR_CLIENTE / 100;
+        assertThat(plataforma.erros).isLessThanOrEqualTo(limite);
+        assertThat(virtual.erros).isLessThanOrEqualTo(limite);
+    }
+
+    private Resultado medir(String nome, boolean virtual) throws Exception {
+        // argumentos de linha de comando: precisam vencer o application.properties e o perfil;
+        // o pool do Hikari é o mesmo nos dois modos, para medir só a troca de threads
+        String[] args = {
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.url=jdbc:h2:mem:carga-" + nome + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_BANCO,
+                "--spring.datasource.hikari.minimum-idle=" + POOL_BANCO,
+                "--spring.datasource.hikari.connection-timeout=3000"};
+        SpringApplicationBuilder app = new SpringApplicationBuilder(DemoApplication.class);
+        if (virtual) app.profiles("virtual");
+
+        ExecutorService httpPool = Executors.newFixedThreadPool(16);
+        try (ConfigurableApplicationContext ctx = app.run(args)) {
+            popular(ctx.getBean(ClienteRepository.class));
+            int porta = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + porta + "/api/clientes?page=3&size=20&sort=nome,asc");
+
+            // o cliente HTTP roda sempre em threads de plataforma, igual para os dois modos
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(httpPool)
+                    .build();
+            disparar(http, uri, 32, 20, new long[32 * 20], new AtomicInteger()); // aquecimento
+
+            long[] latencias = new long[CONCORRENCIA * REQUISICOES_POR_CLIENTE];
+            AtomicInteger erros = new AtomicInteger();
+            long inicio = System.nanoTime();
+            disparar(http, uri, CONCORRENCIA, REQUISICOES_POR_CLIENTE, latencias, erros);
+            long total = System.nanoTime() - inicio;
+
+            Arrays.sort(latencias);
+            return new Resultado(nome, latencias.length * 1e9 / total,
+                    latencias[latencias.length / 2], latencias[(int) (latencias.length * 0.99)], erros.get());
+        } finally {
+            httpPool.shutdownNow();
+        }
+    }
+
+    private static void disparar(HttpClient http, URI uri, int clientes, int porCliente,
+                                 long[] latencias, AtomicInteger erros) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        ExecutorService pool = Executors.newFixedThreadPool(clientes);
+        try {
+            List<Future<?>> fs = new ArrayList<>(clientes);
+            for (int c = 0; c < clientes; c++) {
+                int base = c * porCliente;
+                fs.add(pool.submit(() -> {
+                    for (int i = 0; i < porCliente; i++) {
+                        long t = System.nanoTime();
+                        try {
+                            HttpResponse<Void> r = http.send(req, HttpResponse.BodyHandlers.discarding());
+                            if (r.statusCode() != 200) erros.incrementAndGet();
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                        latencias[base + i] = System.nanoTime() - t;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : fs) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void popular(ClienteRepository repo) {
+        List<Cliente> clientes = new ArrayList<>(CLIENTES_NO_BANCO);
+        for (int i = 0; i < CLIENTES_NO_BANCO; i++) {
+            Cliente c = new Cliente();
+            c.setNome("Carga " + i);
+            c.setEmail("carga" + i + "@ex.com");
+            clientes.add(c);
+        }
+        repo.saveAll(clientes);
+    }
+
+    record Resultado(String modo, double reqPorSegundo, long p50Nanos, long p99Nanos, int erros) {
+        @Override
+        public String toString() {
+            return String.format("%-10s %8.0f req/s   p50 %6.2f ms   p99 %7.2f ms   erros %d",
+                    modo, reqPorSegundo, p50Nanos / 1e6, p99Nanos / 1e6, erros);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.teste.spring.teste;
+
+import com.teste.spring.teste.dto.ClienteDto;
+import com.teste.spring.teste.exception.NotFoundException;
+import com.teste.spring.teste.model.Cliente;
+import com.teste.spring.teste.repository.ClienteRepository;
+import com.teste.spring.teste.service.ClienteCache;
+import com.teste.spring.teste.service.ClienteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// sem @Transactional: o cache só é preenchido e limpo depois do commit
+@SpringBootTest
+@ActiveProfiles("test")
+class ClienteCacheTest {
+
+    @SpyBean
+    ClienteRepository repo;
+
+    @Autowired
+    ClienteService service;
+
+    @Autowired
+    ClienteCache cache;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        repo.deleteAll();
+        cacheManager.getCacheNames().forEach(n -> cacheManager.getCache(n).clear());
+        Cliente c = new Cliente();
+        c.setNome("Cacheado");
+        c.setEmail("cache@ex.com");
+        cliente = service.criar(c);
+        clearInvocations(repo);
+    }
+
+    @AfterEach
+    void limpar() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void buscar_deveIrAoBancoSoNaPrimeiraVez() {
+        long hitsAntes = cache.estatisticas().get(ClienteCache.CLIENTES).get("hits").longValue();
+
+        service.buscar(cliente.getId());
+        service.buscar(cliente.getId());
+        service.buscar(cliente.getId());
+
+        verify(repo, times(1)).findById(cliente.getId());
+        assertThat(cache.estatisticas().get(ClienteCache.CLIENTES).get("hits").longValue())
+                .isEqualTo(hitsAntes + 2);
+    }
+
+    @Test
+    void buscar_deveGuardarCopiaImutavelENaoAEntidade() {
+        ClienteDto lido = service.buscar(cliente.getId());
+
+        Object emCache = cacheManager.getCache(ClienteCache.CLIENTES).get(cliente.getId()).get();
+        assertThat(emCache).isInstanceOf(Record.class).isNotInstanceOf(Cliente.class).isNotSameAs(lido);
+        assertThat(service.buscarPorEmail("cache@ex.com")).isInstanceOf(ClienteDto.class);
+    }
+
+    @Test
+    void buscar_alterarORetornoNaoDeveMudarOCache() {
+        ClienteDto lido = service.buscar(cliente.getId());
+        lido.setNome("Alterado");
+        service.buscarPorEmail("cache@ex.com").setEmail("outro@ex.com");
+
+        assertThat(service.buscar(cliente.getId()).getNome()).isEqualTo("Cacheado");
+        assertThat(service.buscarPorEmail("cache@ex.com").getEmail()).isEqualTo("cache@ex.com");
+        verify(repo, times(1)).findById(cliente.getId());
+    }
+
+    @Test
+    void atualizar_deveInvalidarPorIdEPorEmailAntigo() {
+        service.buscar(cliente.getId());
+        service.buscarPorEmail("cache@ex.com");
+
+        Cliente dados = new Cliente();
+        dados.setNome("Renomeado");
+        dados.setEmail("novo.cache@ex.com");
+        service.atualizar(cliente.getId(), dados);
+
+        assertThat(service.buscar(cliente.getId()).getNome()).isEqualTo("Renomeado");
+        assertThat(service.buscarPorEmail("novo.cache@ex.com").getId()).isEqualTo(cliente.getId());
+        assertThatThrownBy(() -> service.buscarPorEmail("cache@ex.com")).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void excluir_deveInvalidarOCache() {
+        service.buscar(cliente.getId());
+
+        service.excluir(cliente.getId());
+
+        assertThatThrownBy(() -> service.buscar(cliente.getId())).isInstanceOf(NotFoundException.class);
+    }
+}
@@ -4,10 +4,17 @@ package com.teste.spring.teste;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.teste.spring.teste.controller.ClienteController;
 import com.teste.spring.teste.dto.ClienteDto;
+import com.teste.spring.teste.dto.PaginaCursor;
+import com.teste.spring.teste.dto.ResultadoImportacao;
 import com.teste.spring.teste.exception.BusinessException;
 import com.teste.spring.teste.exception.NotFoundException;
+import com.teste.spring.teste.mapa.ClienteMapa;
 import com.teste.spring.teste.model.Cliente;
 import com.teste.spring.teste.repository.ClienteRepository;
+import com.teste.spring.teste.service.ClienteCache;
+import com.teste.spring.teste.service.ClienteIndiceBusca;
+import com.teste.spring.teste.service.ClienteExportService;
+import com.teste.spring.teste.service.ClienteImportacaoService;
 import com.teste.spring.teste.service.ClienteService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,10 +24,14 @@ import org.springframework.data.domain.*;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -41,25 +52,28 @@ public class ClienteControllerTest {
     @MockBean
     ClienteService service;
 
+    @MockBean
+    ClienteExportService exportService;
+
+    @MockBean
+    ClienteImportacaoService importacaoService;
+
+    @MockBean
+    ClienteCache cache;
+
+    @MockBean
+    ClienteIndiceBusca indiceBusca;
+
     @Test
     void listar_deveRetornarPaginaDeClientes() throws Exception {
-        Cliente cliente1 = new Cliente();
-        cliente1.setId(1L);
-        cliente1.setNome("Ana");
-        cliente1.setEmail("ana@ex.com");
-
-        Cliente cliente2 = new Cliente();
-        cliente2.setId(2L);
-        cliente2.setNome("Bruno");
-        cliente2.setEmail("bruno@ex.com");
-
-        Page<Cliente> paginaSimulada = new PageImpl<>(
-                List.of(cliente1, cliente2),
+        Page<ClienteDto> paginaSimulada = new PageImpl<>(
+                List.of(new ClienteDto(1L, "Ana", "ana@ex.com", null),
+                        new ClienteDto(2L, "Bruno", "bruno@ex.com", null)),
                 PageRequest.of(0, 10, Sort.by("id").ascending()),
                 2
         );
 
-        when(repo.findAll(any(Pageable.class))).thenReturn(paginaSimulada);
+        when(repo.findPaginaDto(any(Pageable.class))).thenReturn(paginaSimulada);
 
         mvc.perform(get("/api/clientes")
                         .param("page", "0")
@@ -75,6 +89,115 @@ public class ClienteControllerTest {
                 .andExpect(jsonPath("$.size").value(10));
     }
 
+    @Test
+    void listarPorCursor_deveRetornarPaginaComProximoCursor() throws Exception {
+        Cliente cliente = new Cliente();
+        cliente.setId(7L);
+        cliente.setNome("Ana");
+        cliente.setEmail("ana@ex.com");
+
+        when(service.listarPorCursor("abc", 1, "nome,asc"))
+                .thenReturn(new PaginaCursor<>(List.of(cliente), 1, "def"));
+
+        mvc.perform(get("/api/clientes/seek")
+                        .param("cursor", "abc")
+                        .param("size", "1")
+                        .param("sort", "nome,asc")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(7))
+                .andExpect(jsonPath("$.proximoCursor").value("def"))
+                .andExpect(jsonPath("$.temProxima").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(repo, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void listarPorCursor_deveRetornar422ParaCursorInvalido() throws Exception {
+        when(service.listarPorCursor("lixo", 10, "id,asc"))
+                .thenThrow(new BusinessException("Cursor inválido para sort=id,asc"));
+
+        mvc.perform(get("/api/clientes/seek").param("cursor", "lixo"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("Cursor inválido para sort=id,asc"));
+    }
+
+    @Test
+    void exportar_deveEscreverNdjsonNoCorpo() throws Exception {
+        when(exportService.exportar(any(OutputStream.class))).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        var resultado = mvc.perform(get("/api/clientes/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("application/x-ndjson")))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+
+        verify(repo, never()).findAll();
+    }
+
+    @Test
+    void importar_deveRepassarLoteEUpsert() throws Exception {
+        ClienteDto dto = new ClienteDto();
+        dto.setNome("Ana");
+        dto.setEmail("ana@ex.com");
+        ResultadoImportacao resultado = new ResultadoImportacao(0, 1, 0, List.of(
+                new ResultadoImportacao.Linha(0, "ana@ex.com", ResultadoImportacao.Status.ATUALIZADO, 7L, null)));
+        when(importacaoService.importar(any(), eq(true))).thenReturn(resultado);
+
+        mvc.perform(post("/api/clientes/lote").param("upsert", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(dto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.atualizados").value(1))
+                .andExpect(jsonPath("$.linhas[0].id").value(7));
+    }
+
+    @Test
+    void importar_deveRetornar422QuandoLoteExcedeLimite() throws Exception {
+        when(importacaoService.importar(any(), eq(false)))
+                .thenThrow(new BusinessException("Máximo de 10000 clientes por importação"));
+
+        mvc.perform(post("/api/clientes/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void buscarPorEmail_deveUsarOServico() throws Exception {
+        Cliente cliente = new Cliente();
+        cliente.setId(3L);
+        cliente.setNome("Ana");
+        cliente.setEmail("ana@ex.com");
+
+        when(service.buscarPorEmail("ana@ex.com")).thenReturn(ClienteMapa.toDTO(cliente));
+
+        mvc.perform(get("/api/clientes").param("email", "ana@ex.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(3));
+
+        verify(repo, never()).findByEmail(any());
+    }
+
+    @Test
+    void estatisticasCache_deveExporTaxaDeAcerto() throws Exception {
+        when(cache.estatisticas()).thenReturn(Map.of("clientes", Map.of("hits", 3L, "misses", 1L, "hitRatio", 0.75)));
+
+        mvc.perform(get("/api/clientes/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clientes.hitRatio").value(0.75));
+    }
+
     @Test
     void buscar_deveRetornarClientePorId() throws Exception {
         Cliente cliente = new Cliente();
@@ -83,7 +206,7 @@ public class ClienteControllerTest {
         cliente.setEmail("joao@ex.com");
         cliente.setTelefone("11999999999");
 
-        when(service.buscar(1L)).thenReturn(cliente);
+        when(service.buscar(1L)).thenReturn(ClienteMapa.toDTO(cliente));
 
         mvc.perform(get("/api/clientes/1")
                         .accept(MediaType.APPLICATION_JSON))
@@ -196,6 +319,37 @@ public class ClienteControllerTest {
         verify(service).atualizar(eq(999L), any(Cliente.class));
     }
 
+    @Test
+    void atualizarParcial_deveRepassarSoCamposEnviados() throws Exception {
+        Cliente atualizado = new Cliente();
+        atualizado.setId(1L);
+        atualizado.setNome("Maria");
+        atualizado.setEmail("maria@ex.com");
+        atualizado.setTelefone("11777777777");
+
+        when(service.atualizarParcial(eq(1L), any(Cliente.class))).thenReturn(atualizado);
+
+        mvc.perform(patch("/api/clientes/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"telefone\":\"11777777777\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Maria"))
+                .andExpect(jsonPath("$.telefone").value("11777777777"));
+
+        verify(service).atualizarParcial(eq(1L), argThat(c -> c.getNome() == null && c.getEmail() == null));
+    }
+
+    @Test
+    void atualizarParcial_deveRetornar422ParaCampoInvalido() throws Exception {
+        mvc.perform(patch("/api/clientes/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"nao-e-email\"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string(startsWith("email: ")));
+
+        verify(service, never()).atualizarParcial(any(), any());
+    }
+
     @Test
     void excluir_deveExcluirClienteComSucesso() throws Exception {
         doNothing().when(service).excluir(1L);
@@ -217,4 +371,24 @@ public class ClienteControllerTest {
 
         verify(service).excluir(999L);
     }
+
+    @Test
+    void buscarTexto_deveDevolverOsMelhoresDoIndice() throws Exception {
+        when(indiceBusca.buscar("silva", 5)).thenReturn(List.of(
+                new ClienteDto(2L, "Silva", "silva@ex.com", null),
+                new ClienteDto(1L, "Ana Silva", "ana@ex.com", null)));
+
+        mvc.perform(get("/api/clientes/busca").param("q", "silva").param("k", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[1].id").value(1));
+    }
+
+    @Test
+    void buscarTexto_consultaCurtaDeveRetornar422() throws Exception {
+        when(indiceBusca.buscar("ab", 10)).thenThrow(new BusinessException("A busca precisa de ao menos 3 caracteres"));
+
+        mvc.perform(get("/api/clientes/busca").param("q", "ab"))
+                .andExpect(status().isUnprocessableEntity());
+    }
 }
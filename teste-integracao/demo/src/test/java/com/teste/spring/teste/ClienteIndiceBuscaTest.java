@@ -0,0 +1,140 @@
+package com.teste.spring.teste;
+
+import com.teste.spring.teste.dto.ClienteDto;
+import com.teste.spring.teste.exception.BusinessException;
+import com.teste.spring.teste.model.Cliente;
+import com.teste.spring.teste.repository.ClienteRepository;
+import com.teste.spring.teste.service.ClienteIndiceBusca;
+import com.teste.spring.teste.service.ClienteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// sem @Transactional: o índice só recebe as alterações depois do commit
+@SpringBootTest
+@ActiveProfiles("test")
+class ClienteIndiceBuscaTest {
+
+    @Autowired
+    ClienteService service;
+
+    @Autowired
+    ClienteRepository repo;
+
+    @Autowired
+    ClienteIndiceBusca indice;
+
+    @Autowired
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        repo.deleteAll();
+        indice.reconstruir();
+    }
+
+    @AfterEach
+    void limpar() {
+        repo.deleteAll();
+        indice.reconstruir();
+    }
+
+    private Cliente criar(String nome, String email, String telefone) {
+        Cliente c = new Cliente();
+        c.setNome(nome);
+        c.setEmail(email);
+        c.setTelefone(telefone);
+        return service.criar(c);
+    }
+
+    @Test
+    void deveOrdenarPorTipoDeAcertoEPeso() {
+        criar("Ana Silva", "ana@ex.com", null);
+        criar("Silva", "s@ex.com", null);
+        criar("Silvana Souza", "souza@ex.com", null);
+        criar("Bruno", "bruno.silva@ex.com", null);
+        criar("Carla", "carla@exsilva.com", null);
+        criar("Duda", "duda@ex.com", null);
+
+        assertThat(indice.buscar("silva", 10)).extracting(ClienteDto::getNome)
+                // igual, prefixo, prefixo de palavra no nome, prefixo de palavra no email, trecho do email
+                .containsExactly("Silva", "Silvana Souza", "Ana Silva", "Bruno", "Carla");
+        assertThat(indice.buscar("silva", 2)).extracting(ClienteDto::getNome)
+                .containsExactly("Silva", "Silvana Souza");
+    }
+
+    @Test
+    void deveIgnorarAcentosEMaiusculasEFormatacaoDoTelefone() {
+        Cliente joao = criar("João Ávila", "joao@ex.com", "(11) 98888-7777");
+
+        assertThat(indice.buscar("JOAO AVI", 5)).extracting(ClienteDto::getId).containsExactly(joao.getId());
+        assertThat(indice.buscar("98888 77", 5)).extracting(ClienteDto::getId).containsExactly(joao.getId());
+        assertThat(indice.buscar("xyz", 5)).isEmpty();
+        assertThatThrownBy(() -> indice.buscar("jo", 5)).isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void deveAcompanharAtualizacoesEExclusoes() {
+        Cliente c = criar("Marcela", "marcela@ex.com", null);
+
+        Cliente dados = new Cliente();
+        dados.setNome("Fernanda");
+        service.atualizarParcial(c.getId(), dados);
+        assertThat(indice.buscar("marcela", 5)).extracting(ClienteDto::getNome).containsExactly("Fernanda");
+        assertThat(indice.buscar("fernanda", 5)).hasSize(1);
+
+        service.excluir(c.getId());
+        assertThat(indice.buscar("fernanda", 5)).isEmpty();
+        assertThat(indice.tamanho()).isZero();
+    }
+
+    @Test
+    void listasDeIdsDevemSeguirAlteracoesForaDeOrdem() {
+        Cliente primeiro = criar("Tereza Um", "um@ex.com", null);
+        Cliente segundo = criar("Tereza Dois", "dois@ex.com", null);
+        criar("Tereza Tres", "tres@ex.com", null);
+
+        // o menor id sai e volta às listas de "ter", "ere", ... depois dos maiores
+        Cliente dados = new Cliente();
+        dados.setNome("Outra");
+        service.atualizarParcial(primeiro.getId(), dados);
+        dados.setNome("Tereza Volta");
+        service.atualizarParcial(primeiro.getId(), dados);
+        service.excluir(segundo.getId());
+
+        assertThat(indice.buscar("tereza", 10)).extracting(ClienteDto::getNome)
+                .containsExactly("Tereza Tres", "Tereza Volta");
+    }
+
+    @Test
+    void transacaoDesfeitaNaoAlteraOIndice() {
+        try {
+            tx.executeWithoutResult(s -> {
+                criar("Revertido", "revertido@ex.com", null);
+                s.setRollbackOnly();
+            });
+        } finally {
+            assertThat(indice.buscar("revertido", 5)).isEmpty();
+        }
+    }
+
+    @Test
+    void reconstruirDeveLerOQueFoiGravadoSemEventos() {
+        Cliente c = new Cliente();
+        c.setNome("Gravado Direto");
+        c.setEmail("direto@ex.com");
+        repo.save(c);
+        assertThat(indice.buscar("direto", 5)).isEmpty();
+
+        assertThat(indice.reconstruir()).isEqualTo(1);
+
+        assertThat(indice.buscar("direto", 5)).extracting(ClienteDto::getNome).containsExactly("Gravado Direto");
+    }
+}
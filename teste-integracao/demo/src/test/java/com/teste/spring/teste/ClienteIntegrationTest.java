@@ -4,12 +4,14 @@ import com.teste.spring.teste.controller.ClienteController;
 import com.teste.spring.teste.dto.ClienteDto;
 import com.teste.spring.teste.model.Cliente;
 import com.teste.spring.teste.repository.ClienteRepository;
+import com.teste.spring.teste.service.ClienteExportService;
 import com.teste.spring.teste.service.ClienteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,6 +19,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -38,6 +46,9 @@ class ClienteIntegrationTest {
     @Autowired
     private ClienteService clienteService;
 
+    @Autowired
+    private ClienteExportService clienteExportService;
+
     @BeforeEach
     void setUp() {
         clienteRepository.deleteAll();
@@ -126,5 +137,206 @@ class ClienteIntegrationTest {
                 .andExpect(jsonPath("$.number").value(0))
                 .andExpect(jsonPath("$.size").value(3));
     }
-}
 
+    @Test
+    void listarPorCursor_devePercorrerTodasAsPaginasSemRepetir() throws Exception {
+        String[] nomes = {"Bia", "Ana", "Caio", "Ana", "Davi", "Bia", "Eva"};
+        for (int i = 0; i < nomes.length; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNome(nomes[i]);
+            cliente.setEmail("cursor" + i + "@ex.com");
+            clienteRepository.save(cliente);
+        }
+
+        for (String sort : new String[]{"id,asc", "id,desc", "nome,asc", "nome,desc"}) {
+            List<String> vistos = new ArrayList<>();
+            String cursor = null;
+            int paginas = 0;
+            do {
+                var req = get("/api/clientes/seek").param("size", "3").param("sort", sort);
+                if (cursor != null) req.param("cursor", cursor);
+                var json = objectMapper.readTree(mockMvc.perform(req)
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString());
+                json.get("content").forEach(c -> vistos.add(c.get("nome").asText() + "#" + c.get("id").asLong()));
+                cursor = json.get("proximoCursor").isNull() ? null : json.get("proximoCursor").asText();
+                paginas++;
+            } while (cursor != null);
+
+            String[] s = sort.split(",");
+            Sort ordem = s[0].equals("id")
+                    ? Sort.by(Sort.Direction.fromString(s[1]), "id")
+                    : Sort.by(Sort.Direction.fromString(s[1]), "nome", "id");
+            List<String> esperado = clienteRepository.findAll(ordem).stream()
+                    .map(c -> c.getNome() + "#" + c.getId()).toList();
+            assertThat(vistos).as(sort).isEqualTo(esperado);
+            assertThat(paginas).as(sort).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void listarPorCursor_deveRecusarCursorDeOutraOrdenacao() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNome("Cliente " + i);
+            cliente.setEmail("outro" + i + "@ex.com");
+            clienteRepository.save(cliente);
+        }
+        String cursor = objectMapper.readTree(mockMvc.perform(get("/api/clientes/seek").param("size", "1"))
+                .andReturn().getResponse().getContentAsString()).get("proximoCursor").asText();
+
+        mockMvc.perform(get("/api/clientes/seek").param("cursor", cursor).param("sort", "nome,asc"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(get("/api/clientes/seek").param("sort", "email,asc"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(get("/api/clientes/seek").param("size", "0"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void exportar_deveEscreverUmClientePorLinhaEmOrdemDeId() throws Exception {
+        for (int i = 1; i <= 1200; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNome("Export " + i);
+            cliente.setEmail("export" + i + "@ex.com");
+            clienteRepository.save(cliente);
+        }
+
+        // mesma thread e transação do teste: o export enxerga os dados ainda não commitados
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long escritos = clienteExportService.exportar(out);
+
+        String[] linhas = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(escritos).isEqualTo(1200);
+        assertThat(linhas).hasSize(1200);
+        long anterior = 0;
+        for (String linha : linhas) {
+            ClienteDto dto = objectMapper.readValue(linha, ClienteDto.class);
+            assertThat(dto.getId()).isGreaterThan(anterior);
+            anterior = dto.getId();
+        }
+        assertThat(objectMapper.readValue(linhas[0], ClienteDto.class).getNome()).isEqualTo("Export 1");
+    }
+
+    @Test
+    void importarLote_deveCriarValidosEReportarErrosPorLinha() throws Exception {
+        Cliente existente = new Cliente();
+        existente.setNome("Existente");
+        existente.setEmail("existente@ex.com");
+        clienteRepository.save(existente);
+
+        List<ClienteDto> lote = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            lote.add(dto("Lote " + i, "lote" + i + "@ex.com"));
+        }
+        lote.add(dto("Repetido", "lote0@ex.com"));
+        lote.add(dto("Ja existe", "existente@ex.com"));
+        lote.add(dto("", "invalido"));
+
+        mockMvc.perform(post("/api/clientes/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(123))
+                .andExpect(jsonPath("$.criados").value(120))
+                .andExpect(jsonPath("$.erros").value(3))
+                .andExpect(jsonPath("$.linhas[0].status").value("CRIADO"))
+                .andExpect(jsonPath("$.linhas[0].id").isNumber())
+                .andExpect(jsonPath("$.linhas[120].erro").value("Email repetido no lote (linha 0)"))
+                .andExpect(jsonPath("$.linhas[121].erro").value("Email já cadastrado"))
+                .andExpect(jsonPath("$.linhas[122].status").value("ERRO"));
+
+        assertThat(clienteRepository.count()).isEqualTo(121);
+    }
+
+    @Test
+    void importarLote_comUpsertDeveAtualizarExistentes() throws Exception {
+        Cliente existente = new Cliente();
+        existente.setNome("Antigo");
+        existente.setEmail("upsert@ex.com");
+        existente = clienteRepository.save(existente);
+
+        List<ClienteDto> lote = List.of(dto("Novo nome", "upsert@ex.com"), dto("Outro", "outro@ex.com"));
+
+        mockMvc.perform(post("/api/clientes/lote").param("upsert", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.criados").value(1))
+                .andExpect(jsonPath("$.atualizados").value(1))
+                .andExpect(jsonPath("$.linhas[0].status").value("ATUALIZADO"))
+                .andExpect(jsonPath("$.linhas[0].id").value(existente.getId()));
+
+        assertThat(clienteRepository.findByEmail("upsert@ex.com").orElseThrow().getNome()).isEqualTo("Novo nome");
+        assertThat(clienteRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void importarUpsert_deveGravarAtualizacoesEmTodosOsLotes() throws Exception {
+        // mais existentes que um lote JDBC (50): as atualizações passam por vários flush/clear
+        List<Cliente> existentes = new java.util.ArrayList<>();
+        List<ClienteDto> lote = new java.util.ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Cliente c = new Cliente();
+            c.setNome("Antigo " + i);
+            c.setEmail("upsert" + i + "@ex.com");
+            c.setTelefone("0");
+            existentes.add(c);
+            ClienteDto d = dto("Novo " + i, "upsert" + i + "@ex.com");
+            d.setTelefone(String.valueOf(i));
+            lote.add(d);
+        }
+        clienteRepository.saveAll(existentes);
+
+        mockMvc.perform(post("/api/clientes/lote").param("upsert", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.atualizados").value(120))
+                .andExpect(jsonPath("$.criados").value(0));
+
+        // a importação limpou o contexto: estes valores vêm do banco
+        List<Cliente> lidos = clienteRepository.findAll();
+        assertThat(lidos).hasSize(120);
+        assertThat(lidos).allSatisfy(c -> {
+            String n = c.getEmail().replace("upsert", "").replace("@ex.com", "");
+            assertThat(c.getNome()).isEqualTo("Novo " + n);
+            assertThat(c.getTelefone()).isEqualTo(n);
+        });
+    }
+
+    @Test
+    void atualizarParcial_deveAlterarSoOsCamposEnviados() throws Exception {
+        Cliente cliente = new Cliente();
+        cliente.setNome("Parcial");
+        cliente.setEmail("parcial@ex.com");
+        cliente.setTelefone("11");
+        cliente = clienteRepository.save(cliente);
+
+        Cliente outro = new Cliente();
+        outro.setNome("Outro");
+        outro.setEmail("outro.parcial@ex.com");
+        clienteRepository.save(outro);
+
+        mockMvc.perform(patch("/api/clientes/{id}", cliente.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"telefone\":\"22\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Parcial"))
+                .andExpect(jsonPath("$.email").value("parcial@ex.com"))
+                .andExpect(jsonPath("$.telefone").value("22"));
+
+        mockMvc.perform(patch("/api/clientes/{id}", cliente.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"outro.parcial@ex.com\"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("Email já cadastrado para outro cliente"));
+    }
+
+    private static ClienteDto dto(String nome, String email) {
+        ClienteDto d = new ClienteDto();
+        d.setNome(nome);
+        d.setEmail(email);
+        return d;
+    }
+}
@@ -0,0 +1,53 @@
+package com.teste.spring.teste;
+
+import com.teste.spring.teste.model.Cliente;
+import com.teste.spring.teste.repository.ClienteRepository;
+import com.teste.spring.teste.service.ClienteService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"test", "l2cache"})
+class ClienteSegundoNivelTest {
+
+    @Autowired
+    ClienteService service;
+
+    @Autowired
+    ClienteRepository repo;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @AfterEach
+    void limpar() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void buscar_deveSerAtendidoPeloCacheDeSegundoNivel() {
+        Cliente c = new Cliente();
+        c.setNome("L2");
+        c.setEmail("l2@ex.com");
+        Long id = service.criar(c).getId();
+        service.buscar(id);
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        service.buscar(id);
+        service.buscar(id);
+
+        // cada buscar abre uma sessão nova: sem o cache de 2o nível seriam duas consultas
+        assertThat(stats.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+}
@@ -1,16 +1,21 @@
 package com.teste.spring.teste;
 
 
+import com.teste.spring.teste.dto.ClienteDto;
 import com.teste.spring.teste.model.Cliente;
 import com.teste.spring.teste.exception.*;
 import com.teste.spring.teste.repository.ClienteRepository;
+import com.teste.spring.teste.service.ClienteAlterado;
+import com.teste.spring.teste.service.ClienteCache;
 import com.teste.spring.teste.service.ClienteService;
 import org.junit.jupiter.api.*;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,6 +27,12 @@ class ClienteServiceTest {
     @Mock
     ClienteRepository repo;
 
+    @Mock
+    ClienteCache cache;
+
+    @Mock
+    ApplicationEventPublisher eventos;
+
     @InjectMocks
     ClienteService service;
 
@@ -48,6 +59,8 @@ class ClienteServiceTest {
         assertThat(resultado.getEmail()).isEqualTo("joao@ex.com");
         verify(repo).existsByEmail("joao@ex.com");
         verify(repo).save(c);
+        verify(eventos).publishEvent(argThat((Object e) -> e instanceof ClienteAlterado a
+                && a.id().equals(1L) && a.cliente().getNome().equals("João")));
     }
 
     @Test
@@ -71,8 +84,9 @@ class ClienteServiceTest {
         cliente.setEmail("joao@ex.com");
 
         when(repo.findById(1L)).thenReturn(Optional.of(cliente));
+        semCache();
 
-        Cliente resultado = service.buscar(1L);
+        ClienteDto resultado = service.buscar(1L);
 
         assertThat(resultado).isNotNull();
         assertThat(resultado.getId()).isEqualTo(1L);
@@ -83,6 +97,7 @@ class ClienteServiceTest {
     @Test
     void buscar_deveLancarExceptionQuandoNaoExiste() {
         when(repo.findById(999L)).thenReturn(Optional.empty());
+        semCache();
 
         assertThatThrownBy(() -> service.buscar(999L))
                 .isInstanceOf(NotFoundException.class)
@@ -100,8 +115,6 @@ class ClienteServiceTest {
         antigo.setTelefone("11");
 
         when(repo.findById(1L)).thenReturn(Optional.of(antigo));
-        when(repo.findByEmail("a@ex.com")).thenReturn(Optional.of(antigo));
-        when(repo.existsByEmail("a@ex.com")).thenReturn(true);
         when(repo.save(any(Cliente.class))).thenAnswer(i -> i.getArgument(0));
 
         Cliente dados = new Cliente();
@@ -116,6 +129,8 @@ class ClienteServiceTest {
         assertThat(atualizado.getTelefone()).isEqualTo("22");
         verify(repo).findById(1L);
         verify(repo).save(antigo);
+        // email não mudou: nenhuma consulta de unicidade
+        verify(repo, never()).findIdByEmail(any());
     }
 
     @Test
@@ -130,8 +145,7 @@ class ClienteServiceTest {
         outroCliente.setEmail("novo@ex.com");
 
         when(repo.findById(1L)).thenReturn(Optional.of(antigo));
-        when(repo.existsByEmail("novo@ex.com")).thenReturn(true);
-        when(repo.findByEmail("novo@ex.com")).thenReturn(Optional.of(outroCliente));
+        when(repo.findIdByEmail("novo@ex.com")).thenReturn(Optional.of(outroCliente.getId()));
 
         Cliente dados = new Cliente();
         dados.setNome("Novo");
@@ -161,6 +175,68 @@ class ClienteServiceTest {
         verify(repo, never()).save(any());
     }
 
+    @Test
+    void atualizar_deveAceitarEmailNovoComUmaConsulta() {
+        Cliente antigo = new Cliente();
+        antigo.setId(1L);
+        antigo.setEmail("a@ex.com");
+
+        when(repo.findById(1L)).thenReturn(Optional.of(antigo));
+        when(repo.findIdByEmail("b@ex.com")).thenReturn(Optional.empty());
+        when(repo.save(any(Cliente.class))).thenAnswer(i -> i.getArgument(0));
+
+        Cliente dados = new Cliente();
+        dados.setNome("Novo");
+        dados.setEmail("b@ex.com");
+
+        assertThat(service.atualizar(1L, dados).getEmail()).isEqualTo("b@ex.com");
+        verify(cache).remover(1L, "a@ex.com", "b@ex.com");
+        verify(repo).findIdByEmail("b@ex.com");
+        verify(repo, never()).existsByEmail(any());
+        verify(repo, never()).findByEmail(any());
+    }
+
+    @Test
+    void atualizarParcial_deveManterCamposNulos() {
+        Cliente antigo = new Cliente();
+        antigo.setId(1L);
+        antigo.setNome("Antigo");
+        antigo.setEmail("a@ex.com");
+        antigo.setTelefone("11");
+
+        when(repo.findById(1L)).thenReturn(Optional.of(antigo));
+        when(repo.save(any(Cliente.class))).thenAnswer(i -> i.getArgument(0));
+
+        Cliente dados = new Cliente();
+        dados.setTelefone("22");
+
+        Cliente atualizado = service.atualizarParcial(1L, dados);
+
+        assertThat(atualizado.getNome()).isEqualTo("Antigo");
+        assertThat(atualizado.getEmail()).isEqualTo("a@ex.com");
+        assertThat(atualizado.getTelefone()).isEqualTo("22");
+        verify(repo, never()).findIdByEmail(any());
+    }
+
+    @Test
+    void atualizarParcial_deveLancarExceptionQuandoEmailEDeOutroCliente() {
+        Cliente antigo = new Cliente();
+        antigo.setId(1L);
+        antigo.setEmail("a@ex.com");
+
+        when(repo.findById(1L)).thenReturn(Optional.of(antigo));
+        when(repo.findIdByEmail("b@ex.com")).thenReturn(Optional.of(2L));
+
+        Cliente dados = new Cliente();
+        dados.setEmail("b@ex.com");
+
+        assertThatThrownBy(() -> service.atualizarParcial(1L, dados))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Email já cadastrado para outro cliente");
+        assertThat(antigo.getEmail()).isEqualTo("a@ex.com");
+        verify(repo, never()).save(any());
+    }
+
     @Test
     void excluir_deveExcluirClienteQuandoExiste() {
         Cliente cliente = new Cliente();
@@ -175,6 +251,8 @@ class ClienteServiceTest {
 
         verify(repo).findById(1L);
         verify(repo).delete(cliente);
+        verify(cache).remover(1L, "joao@ex.com");
+        verify(eventos).publishEvent(new ClienteAlterado(1L, null));
     }
 
     @Test
@@ -188,4 +266,10 @@ class ClienteServiceTest {
         verify(repo).findById(999L);
         verify(repo, never()).delete(any());
     }
+
+    // o cache mockado sempre erra: a leitura vai direto ao carregador
+    @SuppressWarnings("unchecked")
+    private void semCache() {
+        when(cache.porId(any(), any())).thenAnswer(inv -> ((Supplier<ClienteDto>) inv.getArgument(1)).get());
+    }
 }
@@ -0,0 +1,91 @@
+package com.teste.spring.teste;
+
+import com.teste.spring.teste.model.Cliente;
+import com.teste.spring.teste.repository.ClienteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ObservabilidadeTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ClienteRepository clienteRepository;
+
+    @AfterEach
+    void limpar() {
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void persistencia_deveContarComandosPorEndpoint() throws Exception {
+        Cliente c = new Cliente();
+        c.setNome("Observado");
+        c.setEmail("observado@ex.com");
+        clienteRepository.save(c);
+
+        mockMvc.perform(post("/actuator/persistencia")).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/clientes").param("size", "5")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/clientes").param("size", "5")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/persistencia"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totais.comandosPreparados").value(greaterThanOrEqualTo(2)))
+                .andExpect(jsonPath("$.totais.entidadesCarregadas").value(0))
+                .andExpect(jsonPath("$.consultasMaisCaras[0].consulta").exists())
+                .andExpect(jsonPath("$.consultasLentas").isMap())
+                .andExpect(jsonPath("$.comandosPorRequisicao['GET /api/clientes'].requisicoes").value(2))
+                .andExpect(jsonPath("$.comandosPorRequisicao['GET /api/clientes'].max").value(greaterThanOrEqualTo(1.0)));
+    }
+
+    @Test
+    void persistencia_deveContarComandosDoCorpoAssincrono() throws Exception {
+        Cliente c = new Cliente();
+        c.setNome("Exportado");
+        c.setEmail("exportado@ex.com");
+        clienteRepository.save(c);
+
+        mockMvc.perform(post("/actuator/persistencia")).andExpect(status().isNoContent());
+        MvcResult export = mockMvc.perform(get("/api/clientes/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+
+        // a consulta roda na thread do StreamingResponseBody, não na da requisição
+        mockMvc.perform(get("/actuator/persistencia"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comandosPorRequisicao['GET /api/clientes/export'].requisicoes").value(1))
+                .andExpect(jsonPath("$.comandosPorRequisicao['GET /api/clientes/export'].max").value(greaterThanOrEqualTo(1.0)));
+    }
+
+    @Test
+    void metricas_deveExporLatenciaPorEndpointEEstatisticasDoHibernate() throws Exception {
+        mockMvc.perform(get("/api/clientes")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/http.server.requests").param("tag", "uri:/api/clientes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(greaterThanOrEqualTo(1.0)));
+        mockMvc.perform(get("/actuator/metrics/http.server.requests.queries"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/hibernate.statements"))
+                .andExpect(status().isOk());
+    }
+}
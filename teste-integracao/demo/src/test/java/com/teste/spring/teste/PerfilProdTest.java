@@ -0,0 +1,64 @@
+package com.teste.spring.teste;
+
+import com.teste.spring.teste.config.Aquecimento;
+import com.teste.spring.teste.model.Cliente;
+import com.teste.spring.teste.repository.ClienteRepository;
+import com.teste.spring.teste.service.ClienteCache;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerfilProdTest {
+
+    @TempDir
+    Path dir;
+
+    private ConfigurableApplicationContext subir() {
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("prod")
+                .run("--spring.datasource.url=jdbc:h2:file:" + dir.resolve("clientesdb")
+                                + ";MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+                        "--server.port=0",
+                        "--aquecimento.paginas=2",
+                        "--aquecimento.tamanho-pagina=50");
+    }
+
+    @Test
+    void dadosSobrevivemAoRestartEAquecimentoPrecedeAReadiness() {
+        try (ConfigurableApplicationContext ctx = subir()) {
+            assertThat(ctx.getBean(Flyway.class).info().applied()).hasSize(1);
+            assertThat(ctx.getBean(Aquecimento.class).getClientesAquecidos()).isZero();
+            List<Cliente> clientes = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                Cliente c = new Cliente();
+                c.setNome("Cliente " + i);
+                c.setEmail("prod" + i + "@ex.com");
+                clientes.add(c);
+            }
+            ctx.getBean(ClienteRepository.class).saveAll(clientes);
+        }
+
+        try (ConfigurableApplicationContext ctx = subir()) {
+            // mesma migração, sem reaplicar; dados do arquivo
+            assertThat(ctx.getBean(Flyway.class).info().applied()).hasSize(1);
+            assertThat(ctx.getBean(ClienteRepository.class).count()).isEqualTo(120);
+
+            assertThat(ctx.getBean(ApplicationAvailability.class).getReadinessState())
+                    .isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+            // 2 páginas de 50
+            assertThat(ctx.getBean(Aquecimento.class).getClientesAquecidos()).isEqualTo(100);
+            assertThat(ctx.getBean(ClienteCache.class).estatisticas().get(ClienteCache.CLIENTES).get("size"))
+                    .isEqualTo(100L);
+        }
+    }
+}